@@ -0,0 +1,131 @@
+package com.github.amirsassi.cards.game.api.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.domain.Suit;
+import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.PlayerAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.PlayerNotFoundException;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+/**
+ * Multi-threaded throughput of a table engine workload: dealers, shufflers and pollers working on a shared population
+ * of games. With few games the threads contend on the same game locks, with many games they should scale
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentGameServiceBenchmark {
+
+    private static final int DECKS = 6;
+
+    /**
+     * a dealer leaves and joins again its seat every DEALS_PER_SEAT deals, with a fresh hand and a deck added to the
+     * game, so hands never fill up and shoes never run dry
+     */
+    private static final int DEALS_PER_SEAT = 26;
+
+    @Param({ "1", "1024" })
+    private int games;
+
+    private GameServiceImpl gameService;
+
+    @Setup
+    public void setUp()
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        PlayerAlreadyExistsException {
+
+        this.gameService = new GameServiceImpl();
+        for (int gameId = 0; gameId < this.games; gameId++) {
+            Games.create(this.gameService, gameId, DECKS, 0);
+        }
+    }
+
+    @Benchmark
+    @Group("table")
+    @GroupThreads(6)
+    public void deal(
+        final Dealer dealer)
+        throws GameNotFoundException,
+        PlayerNotFoundException,
+        PlayerAlreadyExistsException {
+
+        final int gameId = ThreadLocalRandom.current().nextInt(this.games);
+        if (++dealer.deals[gameId] == DEALS_PER_SEAT) {
+            this.gameService.removePlayer(gameId, dealer.playerId);
+            this.gameService.addPlayer(gameId, new Player(dealer.playerId));
+            this.gameService.addDeckToGameDeck(gameId, new Deck());
+            dealer.deals[gameId] = 0;
+        }
+        this.gameService.dealCardsToAPlayer(gameId, dealer.playerId);
+    }
+
+    @Benchmark
+    @Group("table")
+    @GroupThreads(1)
+    public void shuffle()
+        throws GameNotFoundException {
+
+        this.gameService.shuffle(ThreadLocalRandom.current().nextInt(this.games));
+    }
+
+    @Benchmark
+    @Group("table")
+    @GroupThreads(1)
+    public Map<Suit, Long> getUndealtCards()
+        throws GameNotFoundException {
+
+        return this.gameService.getUndealtCards(ThreadLocalRandom.current().nextInt(this.games));
+    }
+
+    /**
+     * a dealing thread, seated with its own player id in every game
+     */
+    @State(Scope.Thread)
+    public static class Dealer {
+
+        private static final AtomicInteger PLAYER_IDS = new AtomicInteger();
+
+        private int playerId;
+
+        private int[] deals;
+
+        @Setup
+        public void setUp(
+            final ConcurrentGameServiceBenchmark benchmark)
+            throws GameNotFoundException,
+            PlayerAlreadyExistsException {
+
+            this.playerId = PLAYER_IDS.getAndIncrement();
+            this.deals = new int[benchmark.games];
+            for (int gameId = 0; gameId < benchmark.games; gameId++) {
+                benchmark.gameService.addPlayer(gameId, new Player(this.playerId));
+            }
+        }
+    }
+
+}
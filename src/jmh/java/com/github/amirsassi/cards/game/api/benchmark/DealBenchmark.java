@@ -0,0 +1,74 @@
+package com.github.amirsassi.cards.game.api.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.PlayerAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.PlayerNotFoundException;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+/**
+ * Benchmark of dealCardsToAPlayer, the game is rebuilt every 52 deals so that the measure never deals from an empty
+ * shoe nor to a full hand, the rebuild is amortized over the 52 deals
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DealBenchmark {
+
+    private static final int GAME_ID = 1;
+
+    private static final int DEALS_PER_GAME = 52;
+
+    @Param({ "1", "8" })
+    private int decks;
+
+    @Param({ "8" })
+    private int players;
+
+    private GameServiceImpl gameService;
+
+    private int deals;
+
+    @Setup
+    public void setUp()
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        PlayerAlreadyExistsException {
+
+        this.gameService = new GameServiceImpl();
+        Games.create(this.gameService, GAME_ID, this.decks, this.players);
+    }
+
+    @Benchmark
+    public void dealCardsToAPlayer()
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        PlayerNotFoundException,
+        PlayerAlreadyExistsException {
+
+        if (this.deals == DEALS_PER_GAME) {
+            this.gameService.deleteGame(GAME_ID);
+            Games.create(this.gameService, GAME_ID, this.decks, this.players);
+            this.deals = 0;
+        }
+        this.gameService.dealCardsToAPlayer(GAME_ID, this.deals++ % this.players);
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.github.amirsassi.cards.game.api.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+/**
+ * Benchmarks of the game lookup and of the game creation with 10k to 100k live games, single and multi-threaded
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameLookupBenchmark {
+
+    @Param({ "10000", "100000" })
+    private int games;
+
+    private GameServiceImpl gameService;
+
+    @Setup
+    public void setUp()
+        throws GameAlreadyExistsException {
+
+        this.gameService = new GameServiceImpl();
+        for (int gameId = 0; gameId < this.games; gameId++) {
+            this.gameService.createGame(createGame(gameId));
+        }
+    }
+
+    @Benchmark
+    public Game findGameById()
+        throws GameNotFoundException {
+
+        return this.gameService.findGameById(ThreadLocalRandom.current().nextInt(this.games));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Game findGameByIdConcurrently()
+        throws GameNotFoundException {
+
+        return this.gameService.findGameById(ThreadLocalRandom.current().nextInt(this.games));
+    }
+
+    /**
+     * creates then deletes a game with an id above the preloaded ones, so the number of live games stays constant
+     */
+    @Benchmark
+    public void createAndDeleteGame()
+        throws GameAlreadyExistsException,
+        GameNotFoundException {
+
+        final int gameId = this.games + ThreadLocalRandom.current().nextInt(this.games);
+        this.gameService.createGame(createGame(gameId));
+        this.gameService.deleteGame(gameId);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void createAndDeleteGameConcurrently(
+        final ThreadIds threadIds)
+        throws GameAlreadyExistsException,
+        GameNotFoundException {
+
+        final int gameId = threadIds.base + ThreadLocalRandom.current().nextInt(this.games);
+        this.gameService.createGame(createGame(gameId));
+        this.gameService.deleteGame(gameId);
+    }
+
+    private static Game createGame(
+        final int gameId) {
+
+        final Game game = new Game();
+        game.setGameId(gameId);
+        return game;
+    }
+
+    /**
+     * a range of game ids above the preloaded ones owned by each thread, so that concurrent creations never collide
+     */
+    @State(Scope.Thread)
+    public static class ThreadIds {
+
+        private static final AtomicInteger THREADS = new AtomicInteger(1);
+
+        private int base;
+
+        @Setup
+        public void setUp(
+            final GameLookupBenchmark benchmark) {
+
+            this.base = benchmark.games * THREADS.getAndIncrement();
+        }
+    }
+
+}
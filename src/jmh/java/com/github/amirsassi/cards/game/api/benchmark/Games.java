@@ -0,0 +1,44 @@
+package com.github.amirsassi.cards.game.api.benchmark;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.PlayerAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.service.GameService;
+
+/**
+ * Fixtures shared by the benchmarks
+ */
+final class Games {
+
+    private Games() {
+
+        super();
+    }
+
+    /**
+     * creates a game with its decks and its players, the player ids go from 0 to players - 1
+     */
+    static void create(
+        final GameService gameService,
+        final int gameId,
+        final int decks,
+        final int players)
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        PlayerAlreadyExistsException {
+
+        final Game game = new Game();
+        game.setGameId(gameId);
+        gameService.createGame(game);
+        for (int i = 0; i < decks; i++) {
+            gameService.addDeckToGameDeck(gameId, new Deck());
+        }
+        for (int playerId = 0; playerId < players; playerId++) {
+            gameService.addPlayer(gameId, new Player(playerId));
+        }
+    }
+
+}
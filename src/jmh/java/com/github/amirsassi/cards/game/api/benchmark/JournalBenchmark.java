@@ -0,0 +1,75 @@
+package com.github.amirsassi.cards.game.api.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.persistence.FileGameJournal;
+import com.github.amirsassi.cards.game.api.registry.StripedGameRegistry;
+
+/**
+ * Benchmark of the cost added to a deal by its journal record, with and without fsync of the batches: the appenders
+ * only wait for the writer thread when the group commit buffer is full
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class JournalBenchmark {
+
+    @Param({ "false", "true" })
+    private boolean fsync;
+
+    private Path directory;
+
+    private FileGameJournal journal;
+
+    private final Game game = new Game();
+
+    @Setup
+    public void setUp()
+        throws IOException {
+
+        this.directory = Files.createTempDirectory("journal-benchmark");
+        this.journal = new FileGameJournal(this.directory, 1 << 20, this.fsync, Duration.ZERO,
+            Thread.ofPlatform().daemon().factory());
+        this.journal.open(new StripedGameRegistry());
+        this.game.setGameId(1);
+    }
+
+    @TearDown
+    public void tearDown()
+        throws IOException {
+
+        this.journal.close();
+        FileSystemUtils.deleteRecursively(this.directory);
+    }
+
+    @Benchmark
+    public void dealt() {
+
+        this.journal.dealt(this.game, 7, 0);
+    }
+
+}
@@ -0,0 +1,251 @@
+package com.github.amirsassi.cards.game.api.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.github.amirsassi.cards.game.api.GameApiApplication;
+
+/**
+ * Closed-loop HTTP load test of the web stacks: each stack is started in turn in its own JVM, then a fixed number of
+ * connections each keep one request in flight for the duration of the test. The mix is 70% top players, 20% rounds
+ * of deals and 10% undealt cards over 100 games of 2 decks and 8 players. The stacks are:
+ * <ul>
+ * <li>servlet: Spring MVC on Tomcat with its thread pool</li>
+ * <li>virtual: Spring MVC on Tomcat with a virtual thread per request</li>
+ * <li>reactive: WebFlux on Netty</li>
+ * </ul>
+ * Arguments: the concurrency (1000), the measured seconds (20), the stacks (servlet,virtual,reactive)
+ */
+public final class LoadTest {
+
+    private static final int GAMES = 100;
+
+    private static final int DECKS = 2;
+
+    private static final int PLAYERS = 8;
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private static final Duration STARTUP = Duration.ofMinutes(1);
+
+    private LoadTest() {
+
+        super();
+    }
+
+    public static void main(
+        final String[] args)
+        throws Exception {
+
+        final int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        final Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 20);
+        final String[] stacks = (args.length > 2 ? args[2] : "servlet,virtual,reactive").split(",");
+
+        System.out.printf("%-10s %11s %10s %10s %10s %10s %8s%n", "stack", "concurrency", "req/s", "p50 ms",
+            "p99 ms", "p99.9 ms", "errors");
+        for (final String stack : stacks) {
+            run(stack, concurrency, duration);
+        }
+    }
+
+    private static void run(
+        final String stack,
+        final int concurrency,
+        final Duration duration)
+        throws Exception {
+
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final Process server = start(stack, port, concurrency);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor)
+                .connectTimeout(Duration.ofSeconds(30)).build();
+            final String base = "http://localhost:" + port + "/";
+            awaitStartup(client, base);
+            for (int gameId = 0; gameId < GAMES; gameId++) {
+                post(client, base + "gameapi/" + gameId);
+                for (int deck = 0; deck < DECKS; deck++) {
+                    post(client, base + "gameapi/" + gameId + "/deck");
+                }
+                for (int player = 0; player < PLAYERS; player++) {
+                    post(client, base + "gameapi/" + gameId + "/player");
+                }
+            }
+
+            final Load load = new Load(client, base + "gameapi/");
+            load.start(concurrency);
+            Thread.sleep(WARMUP.toMillis());
+            load.reset();
+            Thread.sleep(duration.toMillis());
+            final Histogram latencies = load.latencies.copy();
+            final long errors = load.errors.get();
+            load.stop();
+
+            System.out.printf("%-10s %11d %10.0f %10.2f %10.2f %10.2f %8d%n", stack, concurrency,
+                latencies.getTotalCount() / (double) duration.toSeconds(), millis(latencies, 50),
+                millis(latencies, 99), millis(latencies, 99.9), errors);
+        } finally {
+            executor.shutdownNow();
+            server.destroy();
+            server.waitFor(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static Process start(
+        final String stack,
+        final int port,
+        final int concurrency)
+        throws IOException {
+
+        final List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(GameApiApplication.class.getName());
+        command.add("--server.port=" + port);
+        command.add("--server.tomcat.max-connections=" + concurrency * 2);
+        command.add("--server.tomcat.accept-count=" + concurrency);
+        command.add("--spring.main.banner-mode=off");
+        command.add("--logging.level.root=warn");
+        command.add("--spring.main.web-application-type=" + ("reactive".equals(stack) ? "reactive" : "servlet"));
+        command.add("--spring.threads.virtual.enabled=" + "virtual".equals(stack));
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    private static void awaitStartup(
+        final HttpClient client,
+        final String base)
+        throws InterruptedException {
+
+        final long deadline = System.nanoTime() + STARTUP.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(HttpRequest.newBuilder(URI.create(base + "actuator/health")).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (final IOException exception) {
+                // not listening yet
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException("The server did not start in " + STARTUP);
+    }
+
+    private static void post(
+        final HttpClient client,
+        final String uri)
+        throws IOException,
+        InterruptedException {
+
+        client.send(HttpRequest.newBuilder(URI.create(uri)).POST(HttpRequest.BodyPublishers.noBody()).build(),
+            HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static double millis(
+        final Histogram latencies,
+        final double percentile) {
+
+        return latencies.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    /**
+     * the connections, each sends its next request when the previous response is received
+     */
+    private static final class Load {
+
+        private final HttpClient client;
+
+        private final String base;
+
+        private final ConcurrentHistogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3);
+
+        private final AtomicLong errors = new AtomicLong();
+
+        private final AtomicBoolean running = new AtomicBoolean(true);
+
+        private CountDownLatch stopped;
+
+        private Load(final HttpClient pClient, final String pBase) {
+
+            this.client = pClient;
+            this.base = pBase;
+        }
+
+        private void start(
+            final int connections) {
+
+            this.stopped = new CountDownLatch(connections);
+            for (int i = 0; i < connections; i++) {
+                next();
+            }
+        }
+
+        private void reset() {
+
+            this.latencies.reset();
+            this.errors.set(0);
+        }
+
+        private void stop()
+            throws InterruptedException {
+
+            this.running.set(false);
+            this.stopped.await(1, TimeUnit.MINUTES);
+        }
+
+        private void next() {
+
+            if (!this.running.get()) {
+                this.stopped.countDown();
+                return;
+            }
+            final long start = System.nanoTime();
+            this.client.sendAsync(request(), HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (error != null || response.statusCode() >= 400) {
+                    this.errors.incrementAndGet();
+                } else {
+                    this.latencies.recordValue(
+                        Math.min(System.nanoTime() - start, this.latencies.getHighestTrackableValue()));
+                }
+                next();
+            });
+        }
+
+        private HttpRequest request() {
+
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final int gameId = random.nextInt(GAMES);
+            final int operation = random.nextInt(10);
+            if (operation < 7) {
+                return HttpRequest.newBuilder(URI.create(this.base + gameId + "/players?top=3")).GET().build();
+            } else if (operation < 9) {
+                return HttpRequest.newBuilder(URI.create(this.base + gameId + "/deal"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+            }
+            return HttpRequest.newBuilder(URI.create(this.base + gameId + "/undealt/cards")).GET().build();
+        }
+    }
+
+}
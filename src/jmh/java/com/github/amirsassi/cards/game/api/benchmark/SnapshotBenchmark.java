@@ -0,0 +1,86 @@
+package com.github.amirsassi.cards.game.api.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.persistence.MappedSnapshot;
+import com.github.amirsassi.cards.game.api.registry.StripedGameRegistry;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+/**
+ * Benchmark of a full snapshot and of its restore, each game having 2 decks and 4 players holding 8 cards
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SnapshotBenchmark {
+
+    @Param({ "100000" })
+    private int games;
+
+    private Path directory;
+
+    private GameServiceImpl gameService;
+
+    private StripedGameRegistry registry;
+
+    @Setup
+    public void setUp()
+        throws Exception {
+
+        this.directory = Files.createTempDirectory("snapshot-benchmark");
+        this.gameService = new GameServiceImpl();
+        this.registry = new StripedGameRegistry();
+        for (int gameId = 0; gameId < this.games; gameId++) {
+            Games.create(this.gameService, gameId, 2, 4);
+            this.gameService.shuffle(gameId);
+            this.gameService.dealCards(gameId, null, 4);
+            this.registry.putIfAbsent(this.gameService.findGameById(gameId));
+        }
+        MappedSnapshot.write(this.directory.resolve("restore"), this.registry, 0);
+    }
+
+    @TearDown
+    public void tearDown()
+        throws IOException {
+
+        FileSystemUtils.deleteRecursively(this.directory);
+    }
+
+    @Benchmark
+    public int write()
+        throws IOException {
+
+        return MappedSnapshot.write(this.directory.resolve("write"), this.registry, 0);
+    }
+
+    @Benchmark
+    public StripedGameRegistry read()
+        throws IOException {
+
+        final StripedGameRegistry restored = new StripedGameRegistry();
+        MappedSnapshot.read(this.directory.resolve("restore"), (final Game game) -> restored.putIfAbsent(game));
+        return restored;
+    }
+
+}
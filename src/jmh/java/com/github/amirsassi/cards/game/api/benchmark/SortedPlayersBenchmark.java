@@ -0,0 +1,80 @@
+package com.github.amirsassi.cards.game.api.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.GameDoesNotHavePlayersException;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.PlayerAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.PlayerNotFoundException;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+/**
+ * Benchmark of the ranking of 10 to 1000 players holding a few cards each
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortedPlayersBenchmark {
+
+    private static final int GAME_ID = 1;
+
+    private static final int CARDS_PER_PLAYER = 3;
+
+    @Param({ "10", "100", "1000" })
+    private int players;
+
+    private GameServiceImpl gameService;
+
+    @Setup
+    public void setUp()
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        PlayerNotFoundException,
+        PlayerAlreadyExistsException {
+
+        this.gameService = new GameServiceImpl();
+        final int decks = this.players * CARDS_PER_PLAYER / 52 + 1;
+        Games.create(this.gameService, GAME_ID, decks, this.players);
+        this.gameService.shuffle(GAME_ID);
+        for (int playerId = 0; playerId < this.players; playerId++) {
+            for (int card = 0; card < CARDS_PER_PLAYER; card++) {
+                this.gameService.dealCardsToAPlayer(GAME_ID, playerId);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Player> getSortedPlayers()
+        throws GameNotFoundException,
+        GameDoesNotHavePlayersException {
+
+        return this.gameService.getSortedPlayers(GAME_ID);
+    }
+
+    @Benchmark
+    public List<Player> getTopPlayers()
+        throws GameNotFoundException,
+        GameDoesNotHavePlayersException {
+
+        return this.gameService.getTopPlayers(GAME_ID, 10);
+    }
+
+}
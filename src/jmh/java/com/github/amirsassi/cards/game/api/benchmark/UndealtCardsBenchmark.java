@@ -0,0 +1,69 @@
+package com.github.amirsassi.cards.game.api.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.amirsassi.cards.game.api.domain.Card;
+import com.github.amirsassi.cards.game.api.domain.FaceValue;
+import com.github.amirsassi.cards.game.api.domain.Suit;
+import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.PlayerAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+/**
+ * Benchmark of the undealt cards queries on a shoe of 1 to 8 decks
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UndealtCardsBenchmark {
+
+    private static final int GAME_ID = 1;
+
+    @Param({ "1", "8" })
+    private int decks;
+
+    private GameServiceImpl gameService;
+
+    @Setup
+    public void setUp()
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        PlayerAlreadyExistsException {
+
+        this.gameService = new GameServiceImpl();
+        Games.create(this.gameService, GAME_ID, this.decks, 0);
+    }
+
+    @Benchmark
+    public Map<Suit, Long> getUndealtCards()
+        throws GameNotFoundException {
+
+        return this.gameService.getUndealtCards(GAME_ID);
+    }
+
+    @Benchmark
+    public Map<Suit, Map<FaceValue, List<Card>>> getSortedRemainingUndealtCards()
+        throws GameNotFoundException {
+
+        return this.gameService.getSortedRemainingUndealtCards(GAME_ID);
+    }
+
+}
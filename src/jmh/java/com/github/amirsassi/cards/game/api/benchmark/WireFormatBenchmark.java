@@ -0,0 +1,88 @@
+package com.github.amirsassi.cards.game.api.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.amirsassi.cards.game.api.controller.CardsHttpMessageConverter;
+import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.PlayerAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+/**
+ * Benchmark of the remaining cards responses on a shoe of 1 to 8 decks: the default JSON document against the
+ * compact representations, each computed and serialized
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final int GAME_ID = 1;
+
+    @Param({ "1", "8" })
+    private int decks;
+
+    private GameServiceImpl gameService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final CardsHttpMessageConverter converter = new CardsHttpMessageConverter();
+
+    @Setup
+    public void setUp()
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        PlayerAlreadyExistsException {
+
+        this.gameService = new GameServiceImpl();
+        Games.create(this.gameService, GAME_ID, this.decks, 0);
+    }
+
+    @Benchmark
+    public byte[] json()
+        throws GameNotFoundException,
+        IOException {
+
+        return this.objectMapper.writeValueAsBytes(this.gameService.getSortedRemainingUndealtCards(GAME_ID));
+    }
+
+    @Benchmark
+    public byte[] countsMatrix()
+        throws GameNotFoundException,
+        IOException {
+
+        final MockHttpOutputMessage output = new MockHttpOutputMessage();
+        this.converter.write(this.gameService.getUndealtCardCounts(GAME_ID), CardsHttpMessageConverter.CARD_COUNTS_JSON,
+            output);
+        return output.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public byte[] binary()
+        throws GameNotFoundException,
+        IOException {
+
+        final MockHttpOutputMessage output = new MockHttpOutputMessage();
+        this.converter.write(this.gameService.getUndealtCardCounts(GAME_ID), CardsHttpMessageConverter.CARDS, output);
+        return output.getBodyAsBytes();
+    }
+
+}
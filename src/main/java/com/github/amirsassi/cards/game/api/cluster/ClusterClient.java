@@ -0,0 +1,325 @@
+package com.github.amirsassi.cards.game.api.cluster;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.persistence.GameCodec;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * HTTP client of the other nodes of the cluster: the membership changes, the handed over games and the requests
+ * forwarded to the owner of their game. A forwarded request carries the {@link #FORWARDED_BY} header, the node that
+ * receives it serves it whatever its view of the cluster, so a request is forwarded once at most
+ * @author Amir.Sassi
+ */
+public class ClusterClient {
+
+    /**
+     * the header of the forwarded requests, the url of the forwarding node
+     */
+    public static final String FORWARDED_BY = "X-Game-Forwarded-By";
+
+    public static final String CLUSTER_PATH = "/gameapi/cluster";
+
+    /**
+     * the headers of a connection, not forwarded, most of them are also refused by the {@link HttpClient}
+     */
+    private static final Set<String> HOP_BY_HOP = Set.of("connection", "content-length", "expect", "host", "upgrade",
+        "keep-alive", "transfer-encoding", "te", "trailer", "proxy-authorization", "proxy-authenticate");
+
+    private static final String FAILED = "%s %s failed with HTTP status %d";
+
+    private static final String APPLICATION_JSON = "application/json";
+
+    private static final String APPLICATION_OCTET_STREAM = "application/octet-stream";
+
+    private final String self;
+
+    private final HttpClient client;
+
+    private final ObjectMapper objectMapper;
+
+    private final Duration timeout;
+
+    /**
+     * @param pSelf the url of this node
+     * @param pObjectMapper the mapper of the views and bulk requests
+     * @param pTimeout the timeout of the calls between nodes, the forwarded requests have none so that event streams
+     *        last
+     */
+    public ClusterClient(final String pSelf, final ObjectMapper pObjectMapper, final Duration pTimeout) {
+
+        super();
+        this.self = pSelf;
+        this.objectMapper = pObjectMapper;
+        this.timeout = pTimeout;
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(pTimeout).build();
+    }
+
+    /**
+     * method to ask a node to add a node to the cluster
+     * @param node the node asked, forwards to the coordinator
+     * @param joining the joining node
+     * @return the view with the joining node
+     * @throws IOException if the node cannot be reached or refuses
+     */
+    public ClusterView join(
+        final String node,
+        final String joining)
+        throws IOException {
+
+        return sendJson(node, "POST", CLUSTER_PATH + "/members?node=" + encode(joining), null,
+            new TypeReference<ClusterView>() {
+            });
+    }
+
+    /**
+     * method to ask a node to remove a node from the cluster
+     * @param node the node asked, forwards to the coordinator
+     * @param leaving the leaving node
+     * @return the view without the leaving node
+     * @throws IOException if the node cannot be reached or refuses
+     */
+    public ClusterView leave(
+        final String node,
+        final String leaving)
+        throws IOException {
+
+        return sendJson(node, "DELETE", CLUSTER_PATH + "/members?node=" + encode(leaving), null,
+            new TypeReference<ClusterView>() {
+            });
+    }
+
+    /**
+     * method to send the new view of the cluster to a node
+     * @param node the node
+     * @param view the view
+     * @throws IOException if the node cannot be reached
+     */
+    public void sendView(
+        final String node,
+        final ClusterView view)
+        throws IOException {
+
+        sendJson(node, "PUT", CLUSTER_PATH + "/members", view, null);
+    }
+
+    /**
+     * method to tell a node that a node handed over all the games it no longer owns
+     * @param node the node told
+     * @param from the node that handed its games over
+     * @param epoch the epoch of the view the games were handed over for
+     * @throws IOException if the node cannot be reached
+     */
+    public void sendHandoverDone(
+        final String node,
+        final String from,
+        final long epoch)
+        throws IOException {
+
+        sendJson(node, "POST", CLUSTER_PATH + "/handover?node=" + encode(from) + "&epoch=" + epoch, null, null);
+    }
+
+    /**
+     * method to send games to the node that owns them, as an int count followed by the games encoded by
+     * {@link GameCodec}
+     * @param node the owner
+     * @param games the games, their locks are held
+     * @return the ids of the games the owner refused because it already holds them
+     * @throws IOException if the node cannot be reached or refuses the games
+     */
+    public List<Integer> sendGames(
+        final String node,
+        final List<Game> games)
+        throws IOException {
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(games.size() * 256);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(games.size());
+        for (final Game game : games) {
+            GameCodec.writeGame(out, game);
+        }
+        final HttpRequest request = newRequest(node, CLUSTER_PATH + "/games")
+            .header("Content-Type", APPLICATION_OCTET_STREAM).header("Accept", APPLICATION_JSON)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(bytes.toByteArray())).build();
+        final HttpResponse<byte[]> response = send(request, HttpResponse.BodyHandlers.ofByteArray());
+        check(request, response);
+        return this.objectMapper.readValue(response.body(), new TypeReference<List<Integer>>() {
+        });
+    }
+
+    /**
+     * method to read the games sent by {@link #sendGames(String, List)}
+     * @param body the request body
+     * @return the games
+     */
+    public static List<Game> readGames(
+        final byte[] body) {
+
+        final ByteBuffer in = ByteBuffer.wrap(body);
+        final int count = in.getInt();
+        final List<Game> games = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            games.add(GameCodec.readGame(in));
+        }
+        return games;
+    }
+
+    /**
+     * method to send a JSON request to a node as a forwarded request, to run a bulk operation on the games of the node
+     * @param node the node
+     * @param pathAndQuery the path and query of the request
+     * @param body the request body, null for none
+     * @param type the type of the response body
+     * @param <T> the type of the response body
+     * @return the response body
+     * @throws IOException if the node cannot be reached or refuses
+     */
+    public <T> T forwardJson(
+        final String node,
+        final String pathAndQuery,
+        final Object body,
+        final TypeReference<T> type)
+        throws IOException {
+
+        return sendJson(node, "POST", pathAndQuery, body, type);
+    }
+
+    /**
+     * method to forward a request to the node that owns its game and copy the response back, the body of the response
+     * is flushed as it arrives so event streams are relayed as they go
+     * @param node the owner
+     * @param request the request
+     * @param response the response
+     * @throws IOException if the request cannot be read, a node that cannot be reached gets HTTP status 502
+     */
+    public void forward(
+        final String node,
+        final HttpServletRequest request,
+        final HttpServletResponse response)
+        throws IOException {
+
+        final String query = request.getQueryString();
+        final HttpRequest.Builder builder = HttpRequest
+            .newBuilder(URI.create(node + request.getRequestURI() + (query == null ? "" : "?" + query)))
+            .header(FORWARDED_BY, this.self);
+        for (final String name : Collections.list(request.getHeaderNames())) {
+            if (!HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT)) && !FORWARDED_BY.equalsIgnoreCase(name)) {
+                for (final String value : Collections.list(request.getHeaders(name))) {
+                    builder.header(name, value);
+                }
+            }
+        }
+        final byte[] body = request.getInputStream().readAllBytes();
+        builder.method(request.getMethod(), body.length == 0 ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofByteArray(body));
+
+        final HttpResponse<InputStream> forwarded;
+        try {
+            forwarded = send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (final IOException exception) {
+            response.sendError(HttpServletResponse.SC_BAD_GATEWAY, "Game node " + node + " unavailable");
+            return;
+        }
+        response.setStatus(forwarded.statusCode());
+        forwarded.headers().map().forEach((name, values) -> {
+            if (!HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT)) || "content-length".equalsIgnoreCase(name)) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        try (InputStream in = forwarded.body()) {
+            final OutputStream out = response.getOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (final IOException exception) {
+            // the owner or the client left during the response, an event stream ends there
+            if (!response.isCommitted()) {
+                throw exception;
+            }
+        }
+    }
+
+    private <T> T sendJson(
+        final String node,
+        final String method,
+        final String pathAndQuery,
+        final Object body,
+        final TypeReference<T> type)
+        throws IOException {
+
+        final HttpRequest request = newRequest(node, pathAndQuery).header("Content-Type", APPLICATION_JSON)
+            .header("Accept", APPLICATION_JSON)
+            .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(this.objectMapper.writeValueAsBytes(body)))
+            .build();
+        final HttpResponse<byte[]> response = send(request, HttpResponse.BodyHandlers.ofByteArray());
+        check(request, response);
+        return type == null ? null : this.objectMapper.readValue(response.body(), type);
+    }
+
+    private HttpRequest.Builder newRequest(
+        final String node,
+        final String pathAndQuery) {
+
+        return HttpRequest.newBuilder(URI.create(node + pathAndQuery)).timeout(this.timeout).header(FORWARDED_BY,
+            this.self);
+    }
+
+    private <T> HttpResponse<T> send(
+        final HttpRequest request,
+        final HttpResponse.BodyHandler<T> handler)
+        throws IOException {
+
+        try {
+            return this.client.send(request, handler);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted " + request.method() + " " + request.uri(), exception);
+        }
+    }
+
+    private static void check(
+        final HttpRequest request,
+        final HttpResponse<?> response)
+        throws IOException {
+
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(String.format(FAILED, request.method(), request.uri(), response.statusCode()));
+        }
+    }
+
+    private static String encode(
+        final String value) {
+
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+}
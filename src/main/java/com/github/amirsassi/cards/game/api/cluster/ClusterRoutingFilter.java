@@ -0,0 +1,80 @@
+package com.github.amirsassi.cards.game.api.cluster;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filter of the requests of one game, /gameapi/{gameId} and below: a request whose game is served by another node is
+ * forwarded to it, or redirected with HTTP status 307 when game.cluster.routing is redirect. The requests forwarded by
+ * another node are served here. A game not handed over yet is served by its previous owner, which does not forward
+ * it, and is always forwarded there by its new owner, a client redirected there would be redirected back
+ * @author Amir.Sassi
+ */
+public class ClusterRoutingFilter
+    extends OncePerRequestFilter {
+
+    private static final String GAME_PATH = "/gameapi/";
+
+    private final GameCluster cluster;
+
+    private final ClusterClient client;
+
+    private final boolean redirect;
+
+    public ClusterRoutingFilter(final GameCluster pCluster, final ClusterClient pClient, final boolean pRedirect) {
+
+        super();
+        this.cluster = pCluster;
+        this.client = pClient;
+        this.redirect = pRedirect;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        final HttpServletRequest request,
+        final HttpServletResponse response,
+        final FilterChain chain)
+        throws ServletException,
+        IOException {
+
+        final Integer gameId = request.getHeader(ClusterClient.FORWARDED_BY) == null
+            ? parseGameId(request.getRequestURI().substring(request.getContextPath().length())) : null;
+        final String node = gameId == null ? null : this.cluster.route(gameId);
+        if (node == null) {
+            chain.doFilter(request, response);
+        } else if (this.redirect && node.equals(this.cluster.owner(gameId))) {
+            final String query = request.getQueryString();
+            response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+            response.setHeader("Location", node + request.getRequestURI() + (query == null ? "" : "?" + query));
+        } else {
+            this.client.forward(node, request, response);
+        }
+    }
+
+    /**
+     * method to read the game id of a request path
+     * @param path the path without context path
+     * @return the game id, null for the paths of no single game
+     */
+    static Integer parseGameId(
+        final String path) {
+
+        if (!path.startsWith(GAME_PATH)) {
+            return null;
+        }
+        final int end = path.indexOf('/', GAME_PATH.length());
+        final String segment = path.substring(GAME_PATH.length(), end < 0 ? path.length() : end);
+        try {
+            return Integer.valueOf(segment);
+        } catch (final NumberFormatException exception) {
+            return null;
+        }
+    }
+
+}
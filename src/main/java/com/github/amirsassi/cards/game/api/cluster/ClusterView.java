@@ -0,0 +1,73 @@
+package com.github.amirsassi.cards.game.api.cluster;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The members of the cluster at an epoch, sent by the coordinator to every node on each membership change:
+ * {"epoch":3,"nodes":["http://localhost:8081","http://localhost:8082"]}. The view of a node also lists the nodes still
+ * handing games over after the last change
+ * @author Amir.Sassi
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClusterView {
+
+    private long epoch;
+
+    private List<String> nodes;
+
+    private List<String> handingOver;
+
+    public ClusterView() {
+
+        super();
+    }
+
+    public ClusterView(final long pEpoch, final List<String> pNodes) {
+
+        super();
+        this.epoch = pEpoch;
+        this.nodes = pNodes;
+    }
+
+    public long getEpoch() {
+
+        return this.epoch;
+    }
+
+    public void setEpoch(
+        final long pEpoch) {
+
+        this.epoch = pEpoch;
+    }
+
+    public List<String> getNodes() {
+
+        return this.nodes;
+    }
+
+    public void setNodes(
+        final List<String> pNodes) {
+
+        this.nodes = pNodes;
+    }
+
+    public List<String> getHandingOver() {
+
+        return this.handingOver;
+    }
+
+    public void setHandingOver(
+        final List<String> pHandingOver) {
+
+        this.handingOver = pHandingOver;
+    }
+
+    @Override
+    public String toString() {
+
+        return "epoch " + this.epoch + " " + this.nodes;
+    }
+
+}
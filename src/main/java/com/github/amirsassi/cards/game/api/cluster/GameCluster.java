@@ -0,0 +1,589 @@
+package com.github.amirsassi.cards.game.api.cluster;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.service.BulkResult;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+/**
+ * The node of a cluster of game services, each game belongs to one node chosen by a consistent {@link HashRing} of
+ * the nodes. The requests of a game received by another node are forwarded to its owner.
+ * <p>
+ * The membership changes go through the coordinator, the first node of the view: it numbers the views by epoch and
+ * sends each new view to every node. A node that gets a new view hands the games it no longer owns over to their new
+ * owners, then tells every node it is done. Until then the new owner of a game it does not hold yet forwards its
+ * requests to the previous owner, so a game is always served by the one node that holds it.
+ * <p>
+ * A node joins the cluster through the seed nodes once its web server is started, and leaves it before its web server
+ * stops, after handing all its games over. A node that crashes is not detected: it is removed by a DELETE of
+ * /gameapi/cluster/members, its games are lost unless journaled
+ * @author Amir.Sassi
+ */
+public class GameCluster
+    implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GameCluster.class);
+
+    private static final String NOT_COORDINATOR = "%s is not the coordinator of %s";
+
+    /**
+     * the delay before sending games again to an owner that could not be reached
+     */
+    private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * the view of the cluster, replaced as a whole
+     */
+    private static final class View {
+
+        private final long epoch;
+
+        private final HashRing ring;
+
+        /**
+         * the ring of the previous epoch while nodes hand games over, null once they are all done
+         */
+        private final HashRing previous;
+
+        private final Set<String> handingOver;
+
+        private View(final long pEpoch, final HashRing pRing, final HashRing pPrevious, final Set<String> pHandingOver) {
+
+            this.epoch = pEpoch;
+            this.ring = pRing;
+            this.previous = pPrevious;
+            this.handingOver = pHandingOver;
+        }
+
+    }
+
+    private final String self;
+
+    private final List<String> seeds;
+
+    private final int virtualNodes;
+
+    private final int batchSize;
+
+    private final Duration leaveTimeout;
+
+    private final GameServiceImpl gameService;
+
+    private final ClusterClient client;
+
+    private final ExecutorService handoverExecutor;
+
+    /**
+     * guards the changes of the view, a ReentrantLock rather than a monitor since the coordinator holds it while
+     * sending the views, so a virtual thread waiting for the nodes does not pin its carrier
+     */
+    private final ReentrantLock membershipLock = new ReentrantLock();
+
+    private volatile View view;
+
+    /**
+     * counted down when this node handed over its games for the current view
+     */
+    private volatile CountDownLatch handedOver = new CountDownLatch(0);
+
+    private volatile boolean running;
+
+    /**
+     * the nodes that handed their games over for a view not applied yet, by epoch
+     */
+    private final SortedMap<Long, Set<String>> early = new TreeMap<>();
+
+    /**
+     * @param pSelf the url of this node, as the other nodes reach it
+     * @param pSeeds the urls of the nodes to join through, the first one that answers adds this node
+     * @param pVirtualNodes the number of positions of each node on the ring
+     * @param pBatchSize the number of games sent in one request when handing games over
+     * @param pLeaveTimeout how long a stopping node waits for its games to be handed over
+     * @param pGameService the games of this node
+     * @param pClient the client of the other nodes
+     * @param threadFactory the factory of the handover thread
+     */
+    public GameCluster(final String pSelf, final List<String> pSeeds, final int pVirtualNodes, final int pBatchSize,
+        final Duration pLeaveTimeout, final GameServiceImpl pGameService, final ClusterClient pClient,
+        final ThreadFactory threadFactory) {
+
+        super();
+        this.self = pSelf;
+        this.seeds = pSeeds;
+        this.virtualNodes = pVirtualNodes;
+        this.batchSize = pBatchSize;
+        this.leaveTimeout = pLeaveTimeout;
+        this.gameService = pGameService;
+        this.client = pClient;
+        this.handoverExecutor = Executors.newSingleThreadExecutor(threadFactory);
+        this.view = new View(0, new HashRing(List.of(this.self), this.virtualNodes), null, Collections.emptySet());
+    }
+
+    /**
+     * joins the cluster once the web server is started, the phase orders it after the web server on start and before
+     * it on stop
+     */
+    @Override
+    public void start() {
+
+        this.running = true;
+        for (final String seed : this.seeds) {
+            if (!seed.equals(this.self)) {
+                try {
+                    apply(this.client.join(seed, this.self));
+                    LOGGER.info("Node {} joined the cluster through {}", this.self, seed);
+                    return;
+                } catch (final IOException exception) {
+                    LOGGER.info("Seed {} unavailable: {}", seed, exception.getMessage());
+                }
+            }
+        }
+        apply(new ClusterView(1, List.of(this.self)));
+        LOGGER.info("Node {} started a cluster", this.self);
+    }
+
+    /**
+     * leaves the cluster and waits for the games of this node to be handed over, before the web server stops
+     */
+    @Override
+    public void stop() {
+
+        try {
+            final View current = this.view;
+            if (current.ring.getNodes().size() > 1) {
+                apply(leave(this.self));
+                if (!this.handedOver.await(this.leaveTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    LOGGER.warn("Node {} left the cluster before handing all its games over", this.self);
+                }
+            }
+        } catch (final IOException exception) {
+            LOGGER.warn("Node {} could not leave the cluster: {}", this.self, exception.getMessage());
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.running = false;
+            this.handoverExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+
+        return this.running;
+    }
+
+    @Override
+    public int getPhase() {
+
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * method to add a node to the cluster, a node that is not the coordinator forwards to it
+     * @param node the joining node
+     * @return the view with the node
+     * @throws IOException if the coordinator cannot be reached
+     */
+    public ClusterView join(
+        final String node)
+        throws IOException {
+
+        return change(node, true);
+    }
+
+    /**
+     * method to remove a node from the cluster, a node that is not the coordinator forwards to it
+     * @param node the leaving node
+     * @return the view without the node
+     * @throws IOException if the coordinator cannot be reached
+     */
+    public ClusterView leave(
+        final String node)
+        throws IOException {
+
+        return change(node, false);
+    }
+
+    /**
+     * method to apply a view of the cluster sent by the coordinator, an older view is ignored. The games this node no
+     * longer owns are handed over in the background
+     * @param received the view
+     */
+    public void apply(
+        final ClusterView received) {
+
+        this.membershipLock.lock();
+        try {
+            final View current = this.view;
+            if (received.getEpoch() <= current.epoch) {
+                return;
+            }
+            final HashRing ring = new HashRing(received.getNodes(), this.virtualNodes);
+            // the nodes of the previous view may hold games of the new one
+            final Set<String> handingOver = ConcurrentHashMap.newKeySet();
+            handingOver.addAll(received.getHandingOver() == null ? List.of() : received.getHandingOver());
+            final Set<String> done = this.early.remove(received.getEpoch());
+            if (done != null) {
+                handingOver.removeAll(done);
+            }
+            this.early.headMap(received.getEpoch()).clear();
+            this.view = new View(received.getEpoch(), ring,
+                handingOver.isEmpty() ? null : new HashRing(received.getHandingOver(), this.virtualNodes),
+                handingOver);
+            this.handedOver = new CountDownLatch(1);
+            final CountDownLatch latch = this.handedOver;
+            LOGGER.info("Node {} applies the view {}", this.self, received);
+            this.handoverExecutor.execute(() -> handOver(received.getEpoch(), latch));
+        } finally {
+            this.membershipLock.unlock();
+        }
+    }
+
+    /**
+     * method to record that a node handed over the games it no longer owns
+     * @param node the node
+     * @param epoch the epoch of the view the node handed its games over for, an older epoch is ignored
+     */
+    public void handedOver(
+        final String node,
+        final long epoch) {
+
+        this.membershipLock.lock();
+        try {
+            final View current = this.view;
+            if (epoch > current.epoch) {
+                // told before the view reached this node
+                this.early.computeIfAbsent(epoch, key -> new TreeSet<>()).add(node);
+            } else if (epoch == current.epoch && current.handingOver.remove(node) && current.handingOver.isEmpty()) {
+                this.view = new View(current.epoch, current.ring, null, current.handingOver);
+                LOGGER.info("Node {} completed the handover of epoch {}", this.self, epoch);
+            }
+        } finally {
+            this.membershipLock.unlock();
+        }
+    }
+
+    /**
+     * method to receive the games handed over by another node, a game that already exists here is refused and the
+     * sender keeps it, so neither copy is lost
+     * @param games the games
+     * @return the ids of the refused games
+     */
+    public List<Integer> receive(
+        final List<Game> games) {
+
+        final List<Integer> refused = new ArrayList<>();
+        for (final Game game : games) {
+            try {
+                this.gameService.createGame(game);
+            } catch (final GameAlreadyExistsException exception) {
+                LOGGER.warn("Game {} handed over to {} already exists, refused", game.getGameId(), this.self);
+                refused.add(game.getGameId());
+            }
+        }
+        return refused;
+    }
+
+    /**
+     * method to get the owner of a game in the current view
+     * @param gameId the game id
+     * @return the node url
+     */
+    public String owner(
+        final int gameId) {
+
+        return this.view.ring.owner(gameId);
+    }
+
+    /**
+     * method to find the node that serves a game, a game this node still holds while handing its games over is served
+     * here: its new owner forwards its requests to this node until it gets the game
+     * @param gameId the game id
+     * @return the url of the node to forward the requests of the game to, null if this node serves it
+     */
+    public String route(
+        final int gameId) {
+
+        final View current = this.view;
+        final String owner = current.ring.owner(gameId);
+        if (!owner.equals(this.self)) {
+            return current.previous != null && current.handingOver.contains(this.self) && holds(gameId) ? null
+                : owner;
+        }
+        if (current.previous != null) {
+            final String previous = current.previous.owner(gameId);
+            if (!previous.equals(this.self) && current.handingOver.contains(previous) && !holds(gameId)) {
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * method to run a bulk operation across the cluster: the items of each node are sent to it in one forwarded
+     * request, the items of this node run locally, and the results are merged in the order of the items
+     * @param items the items
+     * @param gameId the game id of an item
+     * @param path the path of the bulk endpoint
+     * @param local runs the items of this node
+     * @param <T> the type of the items
+     * @return the result of each item, UNAVAILABLE for the items of a node that could not be reached
+     */
+    public <T> List<BulkResult> bulk(
+        final List<T> items,
+        final ToIntFunction<T> gameId,
+        final String path,
+        final Function<List<T>, List<BulkResult>> local) {
+
+        final Map<String, List<Integer>> indexes = partition(items.size(), index -> gameId.applyAsInt(items.get(index)));
+        final BulkResult[] results = new BulkResult[items.size()];
+        indexes.forEach((node, nodeIndexes) -> {
+            final List<T> nodeItems = new ArrayList<>(nodeIndexes.size());
+            nodeIndexes.forEach(index -> nodeItems.add(items.get(index)));
+            List<BulkResult> nodeResults;
+            if (node.equals(this.self)) {
+                nodeResults = local.apply(nodeItems);
+            } else {
+                try {
+                    nodeResults = this.client.forwardJson(node, path, nodeItems,
+                        new TypeReference<List<BulkResult>>() {
+                        });
+                } catch (final IOException exception) {
+                    nodeResults = new ArrayList<>(nodeItems.size());
+                    for (final T item : nodeItems) {
+                        nodeResults.add(new BulkResult(gameId.applyAsInt(item), BulkResult.Status.UNAVAILABLE,
+                            exception.getMessage()));
+                    }
+                }
+            }
+            for (int i = 0; i < nodeIndexes.size(); i++) {
+                results[nodeIndexes.get(i)] = nodeResults.get(i);
+            }
+        });
+        return List.of(results);
+    }
+
+    /**
+     * method to shuffle games across the cluster, the games of each node are sent to it in one forwarded request
+     * @param gameIds the game ids
+     * @param local shuffles the games of this node
+     * @return the number of shuffled games, the games of a node that could not be reached are not counted
+     */
+    public int shuffleGames(
+        final List<Integer> gameIds,
+        final ToIntFunction<List<Integer>> local) {
+
+        int shuffled = 0;
+        for (final Map.Entry<String, List<Integer>> entry : partition(gameIds.size(), gameIds::get).entrySet()) {
+            final List<Integer> nodeGameIds = new ArrayList<>(entry.getValue().size());
+            entry.getValue().forEach(index -> nodeGameIds.add(gameIds.get(index)));
+            if (entry.getKey().equals(this.self)) {
+                shuffled += local.applyAsInt(nodeGameIds);
+            } else {
+                final StringBuilder query = new StringBuilder("/gameapi/shuffle?games=");
+                nodeGameIds.forEach(nodeGameId -> query.append(nodeGameId).append(','));
+                query.setLength(query.length() - 1);
+                try {
+                    shuffled += this.client.forwardJson(entry.getKey(), query.toString(), null,
+                        new TypeReference<Integer>() {
+                        });
+                } catch (final IOException exception) {
+                    LOGGER.warn("Shuffle of {} games on {} failed: {}", nodeGameIds.size(), entry.getKey(),
+                        exception.getMessage());
+                }
+            }
+        }
+        return shuffled;
+    }
+
+    /**
+     * method to get the view of this node
+     * @return the epoch, the nodes and the nodes still handing games over
+     */
+    public ClusterView getView() {
+
+        final View current = this.view;
+        final ClusterView result = new ClusterView(current.epoch, current.ring.getNodes());
+        result.setHandingOver(new ArrayList<>(new TreeSet<>(current.handingOver)));
+        return result;
+    }
+
+    public String getSelf() {
+
+        return this.self;
+    }
+
+    /**
+     * a node that is not the coordinator forwards the change without holding the membership lock, the coordinator sends
+     * it the new view meanwhile
+     */
+    private ClusterView change(
+        final String node,
+        final boolean joining)
+        throws IOException {
+
+        final String coordinator = this.view.ring.getNodes().get(0);
+        if (!coordinator.equals(this.self)) {
+            return joining ? this.client.join(coordinator, node) : this.client.leave(coordinator, node);
+        }
+        return coordinate(node, joining);
+    }
+
+    /**
+     * the coordinator numbers the views one at a time and sends them to the nodes of both views
+     */
+    private ClusterView coordinate(
+        final String node,
+        final boolean joining)
+        throws IOException {
+
+        this.membershipLock.lock();
+        try {
+            final View current = this.view;
+            if (!current.ring.getNodes().get(0).equals(this.self)) {
+                throw new IOException(String.format(NOT_COORDINATOR, this.self, current.ring.getNodes()));
+            }
+            if (joining == current.ring.contains(node)) {
+                return new ClusterView(current.epoch, current.ring.getNodes());
+            }
+            final Set<String> nodes = new TreeSet<>(current.ring.getNodes());
+            if (joining) {
+                nodes.add(node);
+            } else {
+                nodes.remove(node);
+            }
+            final ClusterView changed = new ClusterView(current.epoch + 1, new ArrayList<>(nodes));
+            changed.setHandingOver(current.ring.getNodes());
+            final Set<String> told = new TreeSet<>(nodes);
+            told.addAll(current.ring.getNodes());
+            told.remove(this.self);
+            for (final String other : told) {
+                try {
+                    this.client.sendView(other, changed);
+                } catch (final IOException exception) {
+                    LOGGER.warn("View {} not sent to {}: {}", changed, other, exception.getMessage());
+                }
+            }
+            apply(changed);
+            return changed;
+        } finally {
+            this.membershipLock.unlock();
+        }
+    }
+
+    /**
+     * hands the games this node no longer owns over, batch by batch, until none is left or a newer view is applied,
+     * then tells every node. The games refused by their owner are kept and sent again after the retry delay
+     */
+    private void handOver(
+        final long epoch,
+        final CountDownLatch latch) {
+
+        int handedOverGames = 0;
+        while (this.view.epoch == epoch && !Thread.currentThread().isInterrupted()) {
+            final HashRing ring = this.view.ring;
+            final Map<String, List<Game>> moving = new LinkedHashMap<>();
+            for (final Game game : this.gameService.findGames(gameId -> !this.self.equals(ring.owner(gameId)))) {
+                moving.computeIfAbsent(ring.owner(game.getGameId()), owner -> new ArrayList<>()).add(game);
+            }
+            if (moving.isEmpty()) {
+                break;
+            }
+            boolean failed = false;
+            final List<Integer> refused = new ArrayList<>();
+            for (final Map.Entry<String, List<Game>> entry : moving.entrySet()) {
+                final List<Game> games = entry.getValue();
+                for (int from = 0; from < games.size() && !failed; from += this.batchSize) {
+                    try {
+                        handedOverGames += this.gameService.handOver(
+                            games.subList(from, Math.min(games.size(), from + this.batchSize)), batch -> {
+                                final List<Integer> kept = this.client.sendGames(entry.getKey(), batch);
+                                refused.addAll(kept);
+                                return kept;
+                            });
+                    } catch (final IOException exception) {
+                        LOGGER.warn("Handover of {} games to {} failed: {}", games.size() - from, entry.getKey(),
+                            exception.getMessage());
+                        failed = true;
+                    }
+                }
+            }
+            if (!refused.isEmpty()) {
+                LOGGER.warn("Games {} refused by their owner, kept by {}", refused, this.self);
+            }
+            if (failed || !refused.isEmpty()) {
+                LockSupport.parkNanos(RETRY_NANOS);
+            }
+        }
+        if (this.view.epoch != epoch) {
+            return;
+        }
+        LOGGER.info("Node {} handed {} games over for epoch {}", this.self, handedOverGames, epoch);
+        handedOver(this.self, epoch);
+        for (final String node : this.view.ring.getNodes()) {
+            if (!node.equals(this.self)) {
+                try {
+                    this.client.sendHandoverDone(node, this.self, epoch);
+                } catch (final IOException exception) {
+                    LOGGER.warn("Handover of epoch {} not told to {}: {}", epoch, node, exception.getMessage());
+                }
+            }
+        }
+        latch.countDown();
+    }
+
+    /**
+     * groups the item indexes by the node that serves their game, in the order of the items
+     */
+    private Map<String, List<Integer>> partition(
+        final int size,
+        final IntUnaryOperator gameId) {
+
+        final Map<String, List<Integer>> indexes = new LinkedHashMap<>();
+        for (int index = 0; index < size; index++) {
+            final String node = route(gameId.applyAsInt(index));
+            indexes.computeIfAbsent(node == null ? this.self : node, key -> new ArrayList<>()).add(index);
+        }
+        return indexes;
+    }
+
+    private boolean holds(
+        final int gameId) {
+
+        try {
+            return !this.gameService.findGameById(gameId).isDeleted();
+        } catch (final GameNotFoundException exception) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.github.amirsassi.cards.game.api.cluster;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+
+/**
+ * Interface to send games to the node that owns them after a membership change of the cluster
+ * @author Amir.Sassi
+ */
+@FunctionalInterface
+public interface GameHandoff {
+
+    /**
+     * method to send games, they are removed from this node once sent
+     * @param games the games, their locks are held
+     * @return the ids of the games the owner refused because it already holds them, they are kept by this node
+     * @throws IOException if the games cannot be sent, they are then kept by this node
+     */
+    List<Integer> send(
+        List<Game> games)
+        throws IOException;
+
+}
@@ -0,0 +1,129 @@
+package com.github.amirsassi.cards.game.api.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Consistent hash ring of the nodes of the cluster, immutable. Each node is placed on the ring at many positions, its
+ * virtual nodes, and a game belongs to the node of the first position after the hash of its id: when a node joins or
+ * leaves, only the games of its positions change owner, about one game in the number of nodes
+ * @author Amir.Sassi
+ */
+public final class HashRing {
+
+    private final List<String> nodes;
+
+    /**
+     * the sorted positions of the virtual nodes
+     */
+    private final long[] positions;
+
+    /**
+     * the node index of each position
+     */
+    private final int[] owners;
+
+    /**
+     * @param pNodes the node urls, the order does not matter
+     * @param virtualNodes the number of positions of each node
+     */
+    public HashRing(final Collection<String> pNodes, final int virtualNodes) {
+
+        super();
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(new TreeSet<>(pNodes)));
+        final int count = this.nodes.size() * virtualNodes;
+        final long[] keys = new long[count];
+        final Integer[] order = new Integer[count];
+        for (int node = 0; node < this.nodes.size(); node++) {
+            for (int i = 0; i < virtualNodes; i++) {
+                final int index = node * virtualNodes + i;
+                keys[index] = hash(this.nodes.get(node) + '#' + i);
+                order[index] = index;
+            }
+        }
+        // ties broken by node, so that every node builds the same ring
+        Arrays.sort(order, Comparator.comparingLong((final Integer index) -> keys[index]).thenComparing(index -> index));
+        this.positions = new long[count];
+        this.owners = new int[count];
+        for (int i = 0; i < count; i++) {
+            final int index = order[i];
+            this.positions[i] = keys[index];
+            this.owners[i] = index / virtualNodes;
+        }
+    }
+
+    /**
+     * method to get the node that owns a game
+     * @param gameId the game id
+     * @return the node url, null if the ring is empty
+     */
+    public String owner(
+        final int gameId) {
+
+        if (this.positions.length == 0) {
+            return null;
+        }
+        final int found = Arrays.binarySearch(this.positions, mix(gameId));
+        int index = found >= 0 ? found : -found - 1;
+        if (index == this.positions.length) {
+            index = 0;
+        }
+        return this.nodes.get(this.owners[index]);
+    }
+
+    /**
+     * method to get the nodes of the ring
+     * @return the node urls, sorted
+     */
+    public List<String> getNodes() {
+
+        return this.nodes;
+    }
+
+    /**
+     * method to know if a node is on the ring
+     * @param node the node url
+     * @return true if the node owns games
+     */
+    public boolean contains(
+        final String node) {
+
+        return Collections.binarySearch(this.nodes, node) >= 0;
+    }
+
+    /**
+     * FNV-1a of the UTF-8 bytes, mixed so that the close names of the virtual nodes spread over the ring
+     */
+    private static long hash(
+        final String key) {
+
+        long hash = 0xcbf29ce484222325L;
+        for (final byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * the finalizer of MurmurHash3, consecutive game ids land far apart
+     */
+    private static long mix(
+        final long value) {
+
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.github.amirsassi.cards.game.api.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.amirsassi.cards.game.api.cluster.ClusterClient;
+import com.github.amirsassi.cards.game.api.cluster.ClusterRoutingFilter;
+import com.github.amirsassi.cards.game.api.cluster.GameCluster;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+/**
+ * Configuration of the cluster of game services on the servlet stack, a node serves all the games unless
+ * game.cluster.enabled is true:
+ * <ul>
+ * <li>game.cluster.self: the url of this node as the other nodes reach it</li>
+ * <li>game.cluster.seeds: the urls of the nodes to join through, comma separated, none to start a cluster</li>
+ * <li>game.cluster.routing: forward to relay the requests of the games of other nodes, redirect to send the clients
+ * there with HTTP status 307</li>
+ * <li>game.cluster.virtual-nodes: the number of positions of each node on the hash ring</li>
+ * <li>game.cluster.handover-batch: the number of games sent in one request when games change owner</li>
+ * <li>game.cluster.timeout: the timeout of the calls between nodes</li>
+ * <li>game.cluster.leave-timeout: how long a stopping node waits for its games to be handed over</li>
+ * </ul>
+ * The handover thread follows spring.threads.virtual.enabled
+ * @author Amir.Sassi
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "game.cluster.enabled", havingValue = "true")
+public class ClusterConfiguration {
+
+    @Value("${game.cluster.self:http://localhost:${server.port:8080}}")
+    private String self;
+
+    @Value("${game.cluster.seeds:}")
+    private List<String> seeds;
+
+    @Value("${game.cluster.routing:forward}")
+    private String routing;
+
+    @Value("${game.cluster.virtual-nodes:128}")
+    private int virtualNodes;
+
+    @Value("${game.cluster.handover-batch:256}")
+    private int handoverBatch;
+
+    @Value("${game.cluster.timeout:5s}")
+    private Duration timeout;
+
+    @Value("${game.cluster.leave-timeout:30s}")
+    private Duration leaveTimeout;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean
+    public ClusterClient clusterClient(
+        final ObjectMapper objectMapper) {
+
+        return new ClusterClient(this.self, objectMapper, this.timeout);
+    }
+
+    @Bean
+    public GameCluster gameCluster(
+        final GameServiceImpl gameService,
+        final ClusterClient clusterClient) {
+
+        final ThreadFactory threadFactory = this.virtualThreads ? Thread.ofVirtual().name("game-handover-", 0).factory()
+            : Thread.ofPlatform().daemon().name("game-handover-", 0).factory();
+        return new GameCluster(this.self, this.seeds, this.virtualNodes, this.handoverBatch, this.leaveTimeout,
+            gameService, clusterClient, threadFactory);
+    }
+
+    /**
+     * the requests of the games are routed before any other filter sees them
+     */
+    @Bean
+    public FilterRegistrationBean<ClusterRoutingFilter> clusterRoutingFilter(
+        final GameCluster gameCluster,
+        final ClusterClient clusterClient) {
+
+        final FilterRegistrationBean<ClusterRoutingFilter> registration = new FilterRegistrationBean<>(
+            new ClusterRoutingFilter(gameCluster, clusterClient, "redirect".equals(this.routing)));
+        registration.addUrlPatterns("/gameapi/*");
+        registration.setOrder(Integer.MIN_VALUE);
+        return registration;
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.github.amirsassi.cards.game.api.config;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.github.amirsassi.cards.game.api.persistence.FileGameSpill;
+import com.github.amirsassi.cards.game.api.registry.EvictingGameRegistry;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Configuration of the bounded game store, the games stay in memory until deleted unless game.store.eviction.enabled
+ * is true:
+ * <ul>
+ * <li>game.store.ttl: the idle time after which a game is evicted, 0 to keep the idle games</li>
+ * <li>game.store.max-games: the number of games held in memory, 0 for no bound</li>
+ * <li>game.store.max-memory: the estimated size of the games held in memory, 0 for no bound</li>
+ * <li>game.store.sweep-interval: the period of the evictions</li>
+ * <li>game.store.spill.enabled: true to write the evicted games to game.store.spill.directory and load them again on
+ * their next lookup, otherwise they are deleted</li>
+ * <li>game.store.spill.fsync: false to leave the spilled games to the operating system cache</li>
+ * </ul>
+ * The sweeper thread follows spring.threads.virtual.enabled
+ * @author Amir.Sassi
+ */
+@Configuration
+@ConditionalOnProperty(name = "game.store.eviction.enabled", havingValue = "true")
+public class GameStoreConfiguration {
+
+    @Value("${game.store.ttl:30m}")
+    private Duration ttl;
+
+    @Value("${game.store.max-games:0}")
+    private int maxGames;
+
+    @Value("${game.store.max-memory:0}")
+    private DataSize maxMemory;
+
+    @Value("${game.store.sweep-interval:1s}")
+    private Duration sweepInterval;
+
+    @Value("${game.store.spill.enabled:false}")
+    private boolean spill;
+
+    @Value("${game.store.spill.directory:spill}")
+    private String spillDirectory;
+
+    @Value("${game.store.spill.fsync:true}")
+    private boolean spillFsync;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean(destroyMethod = "close")
+    public EvictingGameRegistry gameRegistry()
+        throws IOException {
+
+        final ThreadFactory threadFactory = this.virtualThreads ? Thread.ofVirtual().name("game-sweeper-", 0).factory()
+            : Thread.ofPlatform().daemon().name("game-sweeper-", 0).factory();
+        return new EvictingGameRegistry(this.ttl, this.maxGames, this.maxMemory.toBytes(),
+            this.spill ? new FileGameSpill(Paths.get(this.spillDirectory), this.spillFsync) : null, this.sweepInterval,
+            threadFactory);
+    }
+
+    @Bean
+    public MeterBinder gameStoreMetrics(
+        final EvictingGameRegistry registry) {
+
+        return meters -> {
+            FunctionCounter.builder("game.evictions", registry, EvictingGameRegistry::getExpiredEvictions)
+                .tag("cause", "expired").description("Games evicted after their time to live").register(meters);
+            FunctionCounter.builder("game.evictions", registry, EvictingGameRegistry::getCapacityEvictions)
+                .tag("cause", "capacity").description("Games evicted to stay under the store bounds").register(meters);
+            FunctionCounter.builder("game.reloads", registry, EvictingGameRegistry::getReloads)
+                .description("Evicted games loaded again from the spill").register(meters);
+            Gauge.builder("game.games.resident", registry, EvictingGameRegistry::getResidentGames)
+                .description("Games held in memory").register(meters);
+            Gauge.builder("game.games.spilled", registry, EvictingGameRegistry::getSpilledGames)
+                .description("Evicted games kept in the spill").register(meters);
+            Gauge.builder("game.memory.resident", registry, EvictingGameRegistry::getResidentBytes)
+                .baseUnit("bytes").description("Estimated size of the games held in memory").register(meters);
+        };
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.github.amirsassi.cards.game.api.config;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.amirsassi.cards.game.api.persistence.FileGameJournal;
+
+/**
+ * Configuration of the game journal, the games only live in memory unless game.journal.enabled is true:
+ * <ul>
+ * <li>game.journal.directory: the directory of the journal segments and snapshots</li>
+ * <li>game.journal.buffer-size: the size in bytes of the group commit buffers</li>
+ * <li>game.journal.fsync: false to leave the writes to the operating system cache</li>
+ * <li>game.journal.snapshot-interval: the period of the snapshots, 0 to only snapshot on shutdown</li>
+ * </ul>
+ * The writer and snapshot threads follow spring.threads.virtual.enabled
+ * @author Amir.Sassi
+ */
+@Configuration
+@ConditionalOnProperty(name = "game.journal.enabled", havingValue = "true")
+public class JournalConfiguration {
+
+    @Value("${game.journal.directory:journal}")
+    private String directory;
+
+    @Value("${game.journal.buffer-size:1048576}")
+    private int bufferSize;
+
+    @Value("${game.journal.fsync:true}")
+    private boolean fsync;
+
+    @Value("${game.journal.snapshot-interval:5m}")
+    private Duration snapshotInterval;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * the journal threads are virtual threads when the requests are, their file I/O then releases the carrier
+     */
+    @Bean(destroyMethod = "close")
+    public FileGameJournal gameJournal() {
+
+        final ThreadFactory threadFactory = this.virtualThreads ? Thread.ofVirtual().name("game-journal-", 0).factory()
+            : Thread.ofPlatform().daemon().name("game-journal-", 0).factory();
+        return new FileGameJournal(Paths.get(this.directory), this.bufferSize, this.fsync, this.snapshotInterval,
+            threadFactory);
+    }
+
+}
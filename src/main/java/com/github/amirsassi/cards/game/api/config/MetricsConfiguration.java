@@ -0,0 +1,29 @@
+package com.github.amirsassi.cards.game.api.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+import com.github.amirsassi.cards.game.api.service.MeteredGameService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration of the metrics: the controllers get the metered game service, the meters are exported by the actuator
+ * endpoints configured with the management.* properties
+ * @author Amir.Sassi
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    @Primary
+    public MeteredGameService meteredGameService(
+        final GameServiceImpl gameService,
+        final MeterRegistry registry) {
+
+        return new MeteredGameService(gameService, registry);
+    }
+
+}
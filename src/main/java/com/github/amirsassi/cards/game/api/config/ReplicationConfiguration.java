@@ -0,0 +1,137 @@
+package com.github.amirsassi.cards.game.api.config;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.github.amirsassi.cards.game.api.persistence.DisabledGameJournal;
+import com.github.amirsassi.cards.game.api.persistence.FileGameJournal;
+import com.github.amirsassi.cards.game.api.persistence.GameJournal;
+import com.github.amirsassi.cards.game.api.replication.FollowerReadOnlyFilter;
+import com.github.amirsassi.cards.game.api.replication.GameReplication;
+import com.github.amirsassi.cards.game.api.replication.ReplicationFollower;
+import com.github.amirsassi.cards.game.api.replication.ReplicationJournal;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Configuration of the hot standby replication, a node replicates nothing unless game.replication.enabled is true:
+ * <ul>
+ * <li>game.replication.role: primary to stream the changes, follower to apply the changes of a primary</li>
+ * <li>game.replication.port: the port the followers connect to, bound by a primary and by a promoted follower</li>
+ * <li>game.replication.primary: the host:port of the primary of a follower</li>
+ * <li>game.replication.buffer-size: the size in bytes of each of the two buffers of a follower on the primary, a
+ * follower that falls behind by more is dropped</li>
+ * <li>game.replication.heartbeat-interval: the period of the heartbeats sent to an idle follower</li>
+ * <li>game.replication.retry-interval: the wait of a follower before connecting again</li>
+ * </ul>
+ * The changes are still journaled by the game journal when game.journal.enabled is true. The replication threads
+ * follow spring.threads.virtual.enabled
+ * @author Amir.Sassi
+ */
+@Configuration
+@ConditionalOnProperty(name = "game.replication.enabled", havingValue = "true")
+public class ReplicationConfiguration {
+
+    @Value("${game.replication.role:primary}")
+    private String role;
+
+    @Value("${game.replication.port:7070}")
+    private int port;
+
+    @Value("${game.replication.primary:localhost:7070}")
+    private String primary;
+
+    @Value("${game.replication.buffer-size:4194304}")
+    private int bufferSize;
+
+    @Value("${game.replication.heartbeat-interval:1s}")
+    private Duration heartbeatInterval;
+
+    @Value("${game.replication.retry-interval:1s}")
+    private Duration retryInterval;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * the game service journals to the replication journal, which decorates the file journal when there is one
+     */
+    @Bean(destroyMethod = "")
+    @Primary
+    public ReplicationJournal replicationJournal(
+        final ObjectProvider<FileGameJournal> fileGameJournal) {
+
+        final FileGameJournal file = fileGameJournal.getIfAvailable();
+        final GameJournal delegate = file == null ? new DisabledGameJournal() : file;
+        return new ReplicationJournal(delegate, this.port, this.bufferSize, this.heartbeatInterval, threadFactory());
+    }
+
+    @Bean
+    public GameReplication gameReplication(
+        final ReplicationJournal replicationJournal,
+        final GameServiceImpl gameService) {
+
+        final int colon = this.primary.lastIndexOf(':');
+        final ReplicationFollower follower = new ReplicationFollower(
+            new InetSocketAddress(this.primary.substring(0, colon), Integer.parseInt(this.primary.substring(colon + 1))),
+            gameService, this.retryInterval, threadFactory());
+        return new GameReplication(GameReplication.Role.valueOf(this.role.toUpperCase(Locale.ROOT)),
+            replicationJournal, follower);
+    }
+
+    @Bean
+    public MeterBinder replicationMeters(
+        final GameReplication gameReplication) {
+
+        return registry -> {
+            Gauge.builder("game.replication.lag", gameReplication, GameReplication::getLag).strongReference(true)
+                .description("Changes not acknowledged by the slowest follower, or not applied yet by a follower")
+                .baseUnit("changes").register(registry);
+            Gauge.builder("game.replication.lag.time", gameReplication, GameReplication::getLagMillis)
+                .strongReference(true)
+                .description("Age of the oldest change not acknowledged by the slowest follower, or of the last batch "
+                    + "applied by a follower by the clock of its primary")
+                .baseUnit("milliseconds").register(registry);
+            Gauge.builder("game.replication.sequence", gameReplication, each -> each.getStatus().getSequence())
+                .strongReference(true).description("Last change numbered by the primary or applied by the follower")
+                .register(registry);
+            Gauge.builder("game.replication.followers", gameReplication, each -> each.getStatus().getFollowers())
+                .strongReference(true).description("Followers connected to the primary").register(registry);
+        };
+    }
+
+    /**
+     * the follower serves the games read-only until it is promoted
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<FollowerReadOnlyFilter> followerReadOnlyFilter(
+        final GameReplication gameReplication) {
+
+        final FilterRegistrationBean<FollowerReadOnlyFilter> registration = new FilterRegistrationBean<>(
+            new FollowerReadOnlyFilter(gameReplication));
+        registration.addUrlPatterns("/gameapi/*");
+        registration.setOrder(Integer.MIN_VALUE);
+        return registration;
+    }
+
+    private ThreadFactory threadFactory() {
+
+        return this.virtualThreads ? Thread.ofVirtual().name("game-replication-", 0).factory()
+            : Thread.ofPlatform().daemon().name("game-replication-", 0).factory();
+    }
+
+}
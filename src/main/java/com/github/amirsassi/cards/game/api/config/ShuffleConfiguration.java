@@ -0,0 +1,30 @@
+package com.github.amirsassi.cards.game.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.amirsassi.cards.game.api.shuffle.SeededShuffleEngine;
+import com.github.amirsassi.cards.game.api.shuffle.ShuffleEngine;
+import com.github.amirsassi.cards.game.api.shuffle.ThreadLocalShuffleEngine;
+
+/**
+ * Configuration of the shuffle engine:
+ * <ul>
+ * <li>game.shuffle.seed: when set, shuffles are reproducible from this seed</li>
+ * </ul>
+ * @author Amir.Sassi
+ */
+@Configuration
+public class ShuffleConfiguration {
+
+    @Value("${game.shuffle.seed:#{null}}")
+    private Long seed;
+
+    @Bean
+    public ShuffleEngine shuffleEngine() {
+
+        return this.seed == null ? new ThreadLocalShuffleEngine() : new SeededShuffleEngine(this.seed);
+    }
+
+}
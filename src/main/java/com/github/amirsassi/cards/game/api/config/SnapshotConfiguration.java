@@ -0,0 +1,30 @@
+package com.github.amirsassi.cards.game.api.config;
+
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.amirsassi.cards.game.api.persistence.SnapshotStore;
+
+/**
+ * Configuration of the snapshots taken on demand by the admin operations:
+ * <ul>
+ * <li>game.snapshot.directory: the directory of the snapshots</li>
+ * </ul>
+ * @author Amir.Sassi
+ */
+@Configuration
+public class SnapshotConfiguration {
+
+    @Value("${game.snapshot.directory:snapshots}")
+    private String directory;
+
+    @Bean
+    public SnapshotStore snapshotStore() {
+
+        return new SnapshotStore(Paths.get(this.directory));
+    }
+
+}
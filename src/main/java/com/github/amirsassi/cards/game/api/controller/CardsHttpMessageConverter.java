@@ -0,0 +1,177 @@
+package com.github.amirsassi.cards.game.api.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import com.github.amirsassi.cards.game.api.domain.Card;
+import com.github.amirsassi.cards.game.api.domain.CardCounts;
+import com.github.amirsassi.cards.game.api.domain.FaceValue;
+import com.github.amirsassi.cards.game.api.domain.PackedCards;
+import com.github.amirsassi.cards.game.api.domain.Suit;
+
+/**
+ * Compact representations of the cards, negotiated with the Accept header instead of the default JSON:
+ * <ul>
+ * <li>application/x-cards, binary: the cards of a hand are an unsigned varint count followed by one byte per card
+ * ordinal (suit ordinal * 13 + face value ordinal); the card counts are 52 unsigned varints in card ordinal order</li>
+ * <li>application/x-card-counts+json, the card counts as a matrix of 4 suits by 13 face values:
+ * {"suits":[...],"faceValues":[...],"counts":[[...],...]}</li>
+ * </ul>
+ * Both are written straight to the response, without an intermediate tree or reflection
+ * @author Amir.Sassi
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CardsHttpMessageConverter
+    extends AbstractHttpMessageConverter<Object> {
+
+    public static final String CARDS_VALUE = "application/x-cards";
+
+    public static final String CARD_COUNTS_JSON_VALUE = "application/x-card-counts+json";
+
+    public static final MediaType CARDS = MediaType.valueOf(CARDS_VALUE);
+
+    public static final MediaType CARD_COUNTS_JSON = MediaType.valueOf(CARD_COUNTS_JSON_VALUE);
+
+    /**
+     * the constant head of the counts matrix
+     */
+    private static final byte[] COUNTS_JSON_HEAD = countsJsonHead();
+
+    public CardsHttpMessageConverter() {
+
+        super(CARDS, CARD_COUNTS_JSON);
+    }
+
+    private static byte[] countsJsonHead() {
+
+        final StringBuilder head = new StringBuilder("{\"suits\":[");
+        for (final Suit suit : Suit.values()) {
+            head.append(suit.ordinal() == 0 ? "\"" : ",\"").append(suit).append('"');
+        }
+        head.append("],\"faceValues\":[");
+        for (final FaceValue faceValue : FaceValue.values()) {
+            head.append(faceValue.ordinal() == 0 ? "\"" : ",\"").append(faceValue).append('"');
+        }
+        return head.append("],\"counts\":[").toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    protected boolean supports(
+        final Class<?> clazz) {
+
+        return CardCounts.class.isAssignableFrom(clazz) || PackedCards.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * the order of the cards of a hand does not fit the counts matrix
+     */
+    @Override
+    public boolean canWrite(
+        final Class<?> clazz,
+        final MediaType mediaType) {
+
+        return super.canWrite(clazz, mediaType)
+            && !(PackedCards.class.isAssignableFrom(clazz) && CARD_COUNTS_JSON.isCompatibleWith(mediaType));
+    }
+
+    @Override
+    public boolean canRead(
+        final Class<?> clazz,
+        final MediaType mediaType) {
+
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(
+        final Class<? extends Object> clazz,
+        final HttpInputMessage inputMessage)
+        throws HttpMessageNotReadableException {
+
+        throw new HttpMessageNotReadableException("The compact card representations are only written", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(
+        final Object object,
+        final HttpOutputMessage outputMessage)
+        throws IOException {
+
+        final boolean json = CARD_COUNTS_JSON.isCompatibleWith(outputMessage.getHeaders().getContentType());
+        final byte[] body = object instanceof CardCounts ? json ? countsJson((CardCounts) object)
+            : countsBinary((CardCounts) object) : cardsBinary((PackedCards) object);
+        outputMessage.getHeaders().setContentLength(body.length);
+        final OutputStream output = outputMessage.getBody();
+        output.write(body);
+    }
+
+    static byte[] cardsBinary(
+        final PackedCards cards) {
+
+        final byte[] body = new byte[5 + cards.size()];
+        int position = writeVarint(body, 0, cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            body[position++] = (byte) cards.ordinalAt(i);
+        }
+        return position == body.length ? body : Arrays.copyOf(body, position);
+    }
+
+    static byte[] countsBinary(
+        final CardCounts counts) {
+
+        final byte[] body = new byte[5 * Card.CARDS_PER_DECK];
+        int position = 0;
+        for (int ordinal = 0; ordinal < Card.CARDS_PER_DECK; ordinal++) {
+            position = writeVarint(body, position, counts.count(Card.valueOf(ordinal)));
+        }
+        return Arrays.copyOf(body, position);
+    }
+
+    static byte[] countsJson(
+        final CardCounts counts) {
+
+        final StringBuilder json = new StringBuilder(4 * Card.CARDS_PER_DECK);
+        for (int ordinal = 0; ordinal < Card.CARDS_PER_DECK; ordinal++) {
+            final int faceValue = ordinal % Card.CARDS_PER_SUIT;
+            json.append(faceValue == 0 ? ordinal == 0 ? "[" : ",[" : ",").append(counts.count(Card.valueOf(ordinal)));
+            if (faceValue == Card.CARDS_PER_SUIT - 1) {
+                json.append(']');
+            }
+        }
+        final byte[] tail = json.append("]}").toString().getBytes(StandardCharsets.US_ASCII);
+        final byte[] body = new byte[COUNTS_JSON_HEAD.length + tail.length];
+        System.arraycopy(COUNTS_JSON_HEAD, 0, body, 0, COUNTS_JSON_HEAD.length);
+        System.arraycopy(tail, 0, body, COUNTS_JSON_HEAD.length, tail.length);
+        return body;
+    }
+
+    /**
+     * writes an unsigned LEB128 varint, 7 bits per byte from the lowest, the high bit set on all but the last byte
+     */
+    private static int writeVarint(
+        final byte[] buffer,
+        final int offset,
+        final int value) {
+
+        int position = offset;
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            buffer[position++] = (byte) (remaining & 0x7F | 0x80);
+            remaining >>>= 7;
+        }
+        buffer[position++] = (byte) remaining;
+        return position;
+    }
+
+}
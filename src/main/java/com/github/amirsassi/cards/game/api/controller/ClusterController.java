@@ -0,0 +1,126 @@
+package com.github.amirsassi.cards.game.api.controller;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.amirsassi.cards.game.api.cluster.ClusterClient;
+import com.github.amirsassi.cards.game.api.cluster.ClusterView;
+import com.github.amirsassi.cards.game.api.cluster.GameCluster;
+
+/**
+ * REST controller of the membership of the cluster and of the games handed over between its nodes, served when
+ * game.cluster.enabled is true on the servlet stack
+ * @author Amir.Sassi
+ */
+@RestController
+@RequestMapping(ClusterClient.CLUSTER_PATH)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "game.cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+    @Autowired
+    private GameCluster cluster;
+
+    public ClusterController() {
+
+        super();
+    }
+
+    /**
+     * GET method to get the view of the cluster of this node
+     * @return HTTP status 200 and the epoch, the nodes and the nodes still handing games over
+     */
+    @GetMapping
+    public ResponseEntity<ClusterView> getView() {
+
+        return ResponseEntity.status(HttpStatus.OK).body(this.cluster.getView());
+    }
+
+    /**
+     * POST method to add a node to the cluster, sent by a starting node to a seed
+     * @param node the url of the joining node
+     * @return HTTP status 200 and the new view, or HTTP status 502 if the coordinator cannot be reached
+     */
+    @PostMapping("/members")
+    public ResponseEntity<?> join(
+        @RequestParam(name = "node") final String node) {
+
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(this.cluster.join(node));
+        } catch (final IOException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(exception.getMessage());
+        }
+    }
+
+    /**
+     * DELETE method to remove a node from the cluster, sent by a stopping node or for a node that crashed
+     * @param node the url of the leaving node
+     * @return HTTP status 200 and the new view, or HTTP status 502 if the coordinator cannot be reached
+     */
+    @DeleteMapping("/members")
+    public ResponseEntity<?> leave(
+        @RequestParam(name = "node") final String node) {
+
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(this.cluster.leave(node));
+        } catch (final IOException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(exception.getMessage());
+        }
+    }
+
+    /**
+     * PUT method to apply a view of the cluster, sent by the coordinator
+     * @param view the view
+     * @return HTTP status 204
+     */
+    @PutMapping("/members")
+    public ResponseEntity<Void> apply(
+        @RequestBody final ClusterView view) {
+
+        this.cluster.apply(view);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+
+    /**
+     * POST method to receive the games handed over by another node
+     * @param body the games, as sent by {@link ClusterClient#sendGames(String, java.util.List)}
+     * @return HTTP status 200 and the ids of the games refused because they already exist here, the sender keeps them
+     */
+    @PostMapping(value = "/games", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<List<Integer>> receive(
+        @RequestBody final byte[] body) {
+
+        return ResponseEntity.status(HttpStatus.OK).body(this.cluster.receive(ClusterClient.readGames(body)));
+    }
+
+    /**
+     * POST method to record that a node handed over the games it no longer owns
+     * @param node the url of the node
+     * @param epoch the epoch of the view
+     * @return HTTP status 204
+     */
+    @PostMapping("/handover")
+    public ResponseEntity<Void> handedOver(
+        @RequestParam(name = "node") final String node,
+        @RequestParam(name = "epoch") final long epoch) {
+
+        this.cluster.handedOver(node, epoch);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+
+}
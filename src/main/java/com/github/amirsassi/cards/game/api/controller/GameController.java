@@ -1,34 +1,80 @@
 package com.github.amirsassi.cards.game.api.controller;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.github.amirsassi.cards.game.api.cluster.ClusterClient;
+import com.github.amirsassi.cards.game.api.cluster.GameCluster;
 import com.github.amirsassi.cards.game.api.domain.Deck;
 import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Hand;
 import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.event.GameEventSubscription;
 import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
 import com.github.amirsassi.cards.game.api.exception.GameDoesNotHavePlayersException;
 import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.PlayerAlreadyExistsException;
 import com.github.amirsassi.cards.game.api.exception.PlayerNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.SnapshotNotFoundException;
+import com.github.amirsassi.cards.game.api.service.BulkResult;
 import com.github.amirsassi.cards.game.api.service.GameService;
 
+/**
+ * REST controller of the servlet stack, {@link GameRouter} serves the same API on the reactive stack. The read
+ * endpoints of a game are tagged with the version of the game: a request whose If-None-Match matches it gets a 304
+ * without reading the game, and the other ones share the responses serialized by the {@link ViewCache}
+ * @author Amir.Sassi
+ */
 @RestController
 @RequestMapping("/gameapi")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GameController {
 
     @Autowired
     private GameService gameService;
 
+    /**
+     * the events are written on the task executor, a slow client never blocks a request thread
+     */
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor eventExecutor;
+
+    @Autowired
+    private ViewCache viewCache;
+
+    /**
+     * the bulk operations are split by node when the games are partitioned across a cluster
+     */
+    @Autowired(required = false)
+    private GameCluster cluster;
+
+    private static final String INVALID_ROUNDS = "Invalid number of rounds %d";
+
+    private static final String INVALID_PROVISION = "Invalid game provision %s";
+
     private final AtomicInteger atomicInteger = new AtomicInteger(1);
 
     public GameController() {
@@ -38,14 +84,16 @@ public class GameController {
 
     /**
      * POST method to create a Game
-     * @param game the game
+     * @param gameId the game id
      * @return HTTP status 201 if OK or HTTP status 400 with a message with the error
      */
-    @PostMapping("/{game}")
+    @PostMapping("/{gameId}")
     public ResponseEntity<String> createGame(
-        @PathVariable final Game game) {
+        @PathVariable final Integer gameId) {
 
         try {
+            final Game game = new Game();
+            game.setGameId(gameId);
             this.gameService.createGame(game);
             return ResponseEntity.status(HttpStatus.CREATED).build();
         } catch (final GameAlreadyExistsException exception) {
@@ -70,6 +118,50 @@ public class GameController {
         }
     }
 
+    /**
+     * POST method to create many games with their decks and players, in parallel: each game is created whole or not
+     * at all, whatever happens to the other games
+     * @param provisions the games to create
+     * @param forwardedBy the node that forwarded the request, whose games are all created here
+     * @return HTTP status 200 and the result of each game in the order of the request, or HTTP status 400 if a game
+     *         has no id, a negative count or more decks or players than {@link GameProvision} allows, then no game is
+     *         created
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createGames(
+        @RequestBody final List<GameProvision> provisions,
+        @RequestHeader(name = ClusterClient.FORWARDED_BY, required = false) final String forwardedBy) {
+
+        for (final GameProvision provision : provisions) {
+            if (!provision.isValid()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(String.format(INVALID_PROVISION, provision));
+            }
+        }
+        if (this.cluster != null && forwardedBy == null) {
+            return ResponseEntity.status(HttpStatus.OK).body(this.cluster.bulk(provisions,
+                GameProvision::getGameId, "/gameapi/bulk", this::createLocalGames));
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(createLocalGames(provisions));
+    }
+
+    /**
+     * POST method to delete many games in parallel
+     * @param gameIds the game ids
+     * @param forwardedBy the node that forwarded the request, whose games are all deleted here
+     * @return HTTP status 200 and the result of each game in the order of the request
+     */
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<List<BulkResult>> deleteGames(
+        @RequestBody final List<Integer> gameIds,
+        @RequestHeader(name = ClusterClient.FORWARDED_BY, required = false) final String forwardedBy) {
+
+        if (this.cluster != null && forwardedBy == null) {
+            return ResponseEntity.status(HttpStatus.OK).body(this.cluster.bulk(gameIds, Integer::intValue,
+                "/gameapi/bulk/delete", this.gameService::deleteGames));
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(this.gameService.deleteGames(gameIds));
+    }
+
     /**
      * POST method to create a Deck and add it to the Game
      * @param gameId the game id
@@ -103,6 +195,8 @@ public class GameController {
 
         } catch (final GameNotFoundException exception) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
+        } catch (final PlayerAlreadyExistsException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exception.getMessage());
         }
     }
 
@@ -148,19 +242,53 @@ public class GameController {
         }
     }
 
+    /**
+     * POST method to deal several rounds of cards to a list of players in one atomic operation
+     * @param gameId the game id
+     * @param playerIds the player ids in dealing order, all the players of the game if absent
+     * @param rounds the number of cards dealt to each player, 1 by default
+     * @return HTTP status 200 and the cards dealt to each player, HTTP status 400 if the number of rounds is not
+     *         between 1 and {@link Game#MAX_HAND_SIZE} or HTTP status 404 if the game or a player passed is not found
+     *         (with message error)
+     */
+    @PostMapping("/{gameId}/deal")
+    public ResponseEntity<?> dealCards(
+        @PathVariable final Integer gameId,
+        @RequestParam(name = "players", required = false) final List<Integer> playerIds,
+        @RequestParam(name = "rounds", defaultValue = "1") final int rounds) {
+
+        if (rounds < 1 || rounds > Game.MAX_HAND_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(String.format(INVALID_ROUNDS, rounds));
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(this.gameService.dealCards(gameId, playerIds, rounds));
+        } catch (final GameNotFoundException | PlayerNotFoundException exception) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
+        }
+    }
+
     /**
      * GET method to get player cards
      * @param gameId the game id
      * @param playerId the player id
-     * @return HTTP status 200 or HTTP status 404
+     * @param request the request, for its If-None-Match header
+     * @return HTTP status 200, HTTP status 304 if the game did not change or HTTP status 404
      */
-    @GetMapping("/{gameId}/cards")
+    @GetMapping("/{gameId}/player/{playerId}/cards")
     public ResponseEntity<?> getPlayerCards(
         @PathVariable final Integer gameId,
-        @PathVariable final Integer playerId) {
+        @PathVariable final Integer playerId,
+        final WebRequest request) {
 
         try {
-            return ResponseEntity.status(HttpStatus.OK).body(this.gameService.getPlayerCards(gameId, playerId));
+            final String version = this.gameService.getVersionTag(gameId);
+            if (request.checkNotModified(version)) {
+                return null;
+            }
+            final String view = "cards/" + playerId;
+            final byte[] json = this.viewCache.get(gameId, view, version);
+            return json(json != null ? json
+                : this.viewCache.put(gameId, view, version, this.gameService.getPlayerCards(gameId, playerId)));
         } catch (final GameNotFoundException | PlayerNotFoundException exception) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
         }
@@ -188,17 +316,31 @@ public class GameController {
     }
 
     /**
-     * GET method to get all players
+     * GET method to get all players sorted by score, or only the best ones
      * @param gameId the game id
-     * @return HTTP status 200 or HTTP status 404
+     * @param top the maximum number of players, all the players if absent
+     * @param request the request, for its If-None-Match header
+     * @return HTTP status 200, HTTP status 304 if the game did not change or HTTP status 404
      */
     @GetMapping("/{gameId}/players")
     public ResponseEntity<?> getPlayers(
-        @PathVariable final Integer gameId) {
+        @PathVariable final Integer gameId,
+        @RequestParam(name = "top", required = false) final Integer top,
+        final WebRequest request) {
 
         try {
-            final List<Player> players = this.gameService.getSortedPlayers(gameId);
-            return ResponseEntity.status(HttpStatus.OK).body(players);
+            final String version = this.gameService.getVersionTag(gameId);
+            if (request.checkNotModified(version)) {
+                return null;
+            }
+            final String view = top == null ? "players" : "players/" + top;
+            final byte[] json = this.viewCache.get(gameId, view, version);
+            if (json != null) {
+                return json(json);
+            }
+            final List<Player> players = top == null ? this.gameService.getSortedPlayers(gameId)
+                : this.gameService.getTopPlayers(gameId, top);
+            return json(this.viewCache.put(gameId, view, version, players));
         } catch (final GameDoesNotHavePlayersException | GameNotFoundException exception) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
         }
@@ -208,14 +350,22 @@ public class GameController {
     /**
      * GET method to get all undealt cards
      * @param gameId the game id
-     * @return HTTP status 200 or HTTP status 404
+     * @param request the request, for its If-None-Match header
+     * @return HTTP status 200, HTTP status 304 if the game did not change or HTTP status 404
      */
     @GetMapping("/{gameId}/undealt/cards")
     public ResponseEntity<?> getUndealtCards(
-        @PathVariable final Integer gameId) {
+        @PathVariable final Integer gameId,
+        final WebRequest request) {
 
         try {
-            return ResponseEntity.status(HttpStatus.OK).body(this.gameService.getUndealtCards(gameId));
+            final String version = this.gameService.getVersionTag(gameId);
+            if (request.checkNotModified(version)) {
+                return null;
+            }
+            final byte[] json = this.viewCache.get(gameId, "undealt", version);
+            return json(json != null ? json
+                : this.viewCache.put(gameId, "undealt", version, this.gameService.getUndealtCards(gameId)));
         } catch (final GameNotFoundException exception) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
         }
@@ -225,20 +375,85 @@ public class GameController {
     /**
      * GET method to get all remaining undealt cards
      * @param gameId the game id
-     * @return HTTP status 200 or HTTP status 404
+     * @param request the request, for its If-None-Match header
+     * @return HTTP status 200, HTTP status 304 if the game did not change or HTTP status 404
      */
     @GetMapping("/{gameId}/remaining/cards")
     public ResponseEntity<?> getSortedRemainingUndealtCards(
-        @PathVariable final Integer gameId) {
+        @PathVariable final Integer gameId,
+        final WebRequest request) {
 
         try {
-            return ResponseEntity.status(HttpStatus.OK).body(this.gameService.getSortedRemainingUndealtCards(gameId));
+            final String version = this.gameService.getVersionTag(gameId);
+            if (request.checkNotModified(version)) {
+                return null;
+            }
+            final byte[] json = this.viewCache.get(gameId, "remaining", version);
+            return json(json != null ? json
+                : this.viewCache.put(gameId, "remaining", version,
+                    this.gameService.getSortedRemainingUndealtCards(gameId)));
         } catch (final GameNotFoundException exception) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
         }
 
     }
 
+    /**
+     * GET method to get the count of each undealt card in binary, see {@link CardsHttpMessageConverter}
+     * @param gameId the game id
+     * @param request the request, for its If-None-Match header
+     * @return HTTP status 200, HTTP status 304 if the game did not change or HTTP status 404
+     */
+    @GetMapping(value = { "/{gameId}/undealt/cards", "/{gameId}/remaining/cards" },
+        produces = CardsHttpMessageConverter.CARDS_VALUE)
+    public ResponseEntity<?> getUndealtCardCounts(
+        @PathVariable final Integer gameId,
+        final WebRequest request) {
+
+        return getUndealtCardCounts(gameId, request, "binary");
+    }
+
+    /**
+     * GET method to get the count of each undealt card as a matrix of suits by face values, see
+     * {@link CardsHttpMessageConverter}
+     * @param gameId the game id
+     * @param request the request, for its If-None-Match header
+     * @return HTTP status 200, HTTP status 304 if the game did not change or HTTP status 404
+     */
+    @GetMapping(value = { "/{gameId}/undealt/cards", "/{gameId}/remaining/cards" },
+        produces = CardsHttpMessageConverter.CARD_COUNTS_JSON_VALUE)
+    public ResponseEntity<?> getUndealtCardCountsMatrix(
+        @PathVariable final Integer gameId,
+        final WebRequest request) {
+
+        return getUndealtCardCounts(gameId, request, "matrix");
+    }
+
+    /**
+     * GET method to get player cards in binary, see {@link CardsHttpMessageConverter}
+     * @param gameId the game id
+     * @param playerId the player id
+     * @param request the request, for its If-None-Match header
+     * @return HTTP status 200, HTTP status 304 if the game did not change or HTTP status 404
+     */
+    @GetMapping(value = "/{gameId}/player/{playerId}/cards", produces = CardsHttpMessageConverter.CARDS_VALUE)
+    public ResponseEntity<?> getPlayerCardsBinary(
+        @PathVariable final Integer gameId,
+        @PathVariable final Integer playerId,
+        final WebRequest request) {
+
+        try {
+            final String version = this.gameService.getVersionTag(gameId);
+            if (request.checkNotModified(version + "-binary")) {
+                return null;
+            }
+            return ResponseEntity.status(HttpStatus.OK).varyBy(HttpHeaders.ACCEPT)
+                .body(new Hand(this.gameService.getPlayerCards(gameId, playerId)));
+        } catch (final GameNotFoundException | PlayerNotFoundException exception) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
+        }
+    }
+
     /**
      * POST method to shuffle all cards in a game
      * @param gameId the game id
@@ -257,4 +472,127 @@ public class GameController {
 
     }
 
+    /**
+     * GET method to stream the changes of a game as server-sent events, named by event type. The stream starts with a
+     * SYNC event and ends after the DELETED event; a SYNC event is also sent in place of the changes a slow client
+     * could not keep up with, the client then reloads the game
+     * @param gameId the game id
+     * @return HTTP status 200 and the event stream or HTTP status 404
+     */
+    @GetMapping(value = "/{gameId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(
+        @PathVariable final Integer gameId) {
+
+        try {
+            final GameEventSubscription subscription = this.gameService.subscribe(gameId);
+            // no timeout, the stream lasts until the client leaves or the game is deleted
+            final SseEmitter emitter = new SseEmitter(0L);
+            emitter.onCompletion(subscription::close);
+            emitter.onTimeout(subscription::close);
+            emitter.onError(error -> subscription.close());
+            subscription.listen(this.eventExecutor, () -> true, event -> {
+                try {
+                    emitter.send(SseEmitter.event().name(event.getType().name()).data(event));
+                } catch (final IOException exception) {
+                    subscription.close();
+                }
+            }, emitter::complete);
+            return ResponseEntity.status(HttpStatus.OK).body(emitter);
+        } catch (final GameNotFoundException exception) {
+            // an event stream has no error message
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * POST method to shuffle the cards of many games in parallel
+     * @param gameIds the game ids
+     * @param forwardedBy the node that forwarded the request, whose games are all shuffled here
+     * @return HTTP status 200 and the number of shuffled games, the games that don't exist are ignored
+     */
+    @PostMapping("/shuffle")
+    public ResponseEntity<Integer> shuffleGames(
+        @RequestParam(name = "games") final List<Integer> gameIds,
+        @RequestHeader(name = ClusterClient.FORWARDED_BY, required = false) final String forwardedBy) {
+
+        if (this.cluster != null && forwardedBy == null) {
+            return ResponseEntity.status(HttpStatus.OK)
+                .body(this.cluster.shuffleGames(gameIds, this.gameService::shuffleGames));
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(this.gameService.shuffleGames(gameIds));
+    }
+
+    /**
+     * POST method to write a snapshot of all the games
+     * @return HTTP status 201 and the snapshot name or HTTP status 500 if the snapshot cannot be written
+     */
+    @PostMapping("/admin/snapshot")
+    public ResponseEntity<String> snapshot() {
+
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(this.gameService.snapshot());
+        } catch (final IOException exception) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(exception.getMessage());
+        }
+    }
+
+    /**
+     * POST method to replace all the games by the games of a snapshot
+     * @param name the snapshot name
+     * @return HTTP status 200 and the number of restored games, HTTP status 404 if the snapshot is not found or HTTP
+     *         status 500 if the snapshot cannot be read
+     */
+    @PostMapping("/admin/restore/{name}")
+    public ResponseEntity<?> restore(
+        @PathVariable final String name) {
+
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(this.gameService.restore(name));
+        } catch (final SnapshotNotFoundException exception) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
+        } catch (final IOException exception) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(exception.getMessage());
+        }
+    }
+
+    /**
+     * the compact views are small, they are computed on every request instead of being cached
+     */
+    private ResponseEntity<?> getUndealtCardCounts(
+        final Integer gameId,
+        final WebRequest request,
+        final String representation) {
+
+        try {
+            final String version = this.gameService.getVersionTag(gameId);
+            if (request.checkNotModified(version + '-' + representation)) {
+                return null;
+            }
+            return ResponseEntity.status(HttpStatus.OK).varyBy(HttpHeaders.ACCEPT)
+                .body(this.gameService.getUndealtCardCounts(gameId));
+        } catch (final GameNotFoundException exception) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exception.getMessage());
+        }
+    }
+
+    /**
+     * a cached view, its ETag header is already set by the version check
+     */
+    private static ResponseEntity<byte[]> json(
+        final byte[] json) {
+
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).varyBy(HttpHeaders.ACCEPT)
+            .body(json);
+    }
+
+    private List<BulkResult> createLocalGames(
+        final List<GameProvision> provisions) {
+
+        final List<Game> games = new ArrayList<>(provisions.size());
+        for (final GameProvision provision : provisions) {
+            games.add(provision.toGame(this.atomicInteger::getAndIncrement));
+        }
+        return this.gameService.createGames(games);
+    }
+
 }
@@ -0,0 +1,305 @@
+package com.github.amirsassi.cards.game.api.controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.event.GameEvent;
+import com.github.amirsassi.cards.game.api.event.GameEventSubscription;
+import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.GameDoesNotHavePlayersException;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.PlayerAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.PlayerNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.SnapshotNotFoundException;
+import com.github.amirsassi.cards.game.api.service.GameService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Handler functions of the reactive stack, with the statuses of {@link GameController}. The game operations only hold
+ * a game lock for a few microseconds and run on the event loop, unless {@link GameRouter} offloads them because the
+ * evicted games are spilled, the snapshots do file I/O and the bulk operations
+ * fork on the common pool, so they run on the bounded elastic scheduler. The game events are emitted on the parallel
+ * scheduler as long as the client requests them. A malformed game id, player id or number answers HTTP status 400
+ * through the filter of {@link GameRouter}
+ * @author Amir.Sassi
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class GameHandler {
+
+    @Autowired
+    private GameService gameService;
+
+    private static final String INVALID_ROUNDS = "Invalid number of rounds %d";
+
+    private static final String INVALID_PROVISION = "Invalid game provision %s";
+
+    private final AtomicInteger atomicInteger = new AtomicInteger(1);
+
+    public GameHandler() {
+
+        super();
+    }
+
+    public Mono<ServerResponse> createGame(
+        final ServerRequest request) {
+
+        try {
+            final Game game = new Game();
+            game.setGameId(gameId(request));
+            this.gameService.createGame(game);
+            return ServerResponse.status(HttpStatus.CREATED).build();
+        } catch (final GameAlreadyExistsException exception) {
+            return error(HttpStatus.BAD_REQUEST, exception);
+        }
+    }
+
+    public Mono<ServerResponse> deleteGame(
+        final ServerRequest request) {
+
+        try {
+            this.gameService.deleteGame(gameId(request));
+            return ServerResponse.noContent().build();
+        } catch (final GameNotFoundException exception) {
+            return error(HttpStatus.NOT_FOUND, exception);
+        }
+    }
+
+    public Mono<ServerResponse> createGames(
+        final ServerRequest request) {
+
+        return request.bodyToFlux(GameProvision.class).collectList().flatMap(provisions -> {
+            for (final GameProvision provision : provisions) {
+                if (!provision.isValid()) {
+                    return ServerResponse.badRequest().bodyValue(String.format(INVALID_PROVISION, provision));
+                }
+            }
+            final List<Game> games = new ArrayList<>(provisions.size());
+            for (final GameProvision provision : provisions) {
+                games.add(provision.toGame(this.atomicInteger::getAndIncrement));
+            }
+            return Mono.fromCallable(() -> this.gameService.createGames(games))
+                .subscribeOn(Schedulers.boundedElastic()).flatMap(results -> ServerResponse.ok().bodyValue(results));
+        });
+    }
+
+    public Mono<ServerResponse> deleteGames(
+        final ServerRequest request) {
+
+        return request.bodyToFlux(Integer.class).collectList().publishOn(Schedulers.boundedElastic())
+            .map(this.gameService::deleteGames).flatMap(results -> ServerResponse.ok().bodyValue(results));
+    }
+
+    public Mono<ServerResponse> addDeck(
+        final ServerRequest request) {
+
+        try {
+            this.gameService.addDeckToGameDeck(gameId(request), new Deck());
+            return ServerResponse.status(HttpStatus.CREATED).build();
+        } catch (final GameNotFoundException exception) {
+            return error(HttpStatus.NOT_FOUND, exception);
+        }
+    }
+
+    public Mono<ServerResponse> addPlayer(
+        final ServerRequest request) {
+
+        try {
+            final Player player = new Player(this.atomicInteger.getAndIncrement());
+            this.gameService.addPlayer(gameId(request), player);
+            return ServerResponse.status(HttpStatus.CREATED).bodyValue(player);
+        } catch (final GameNotFoundException exception) {
+            return error(HttpStatus.NOT_FOUND, exception);
+        } catch (final PlayerAlreadyExistsException exception) {
+            return error(HttpStatus.BAD_REQUEST, exception);
+        }
+    }
+
+    public Mono<ServerResponse> deletePlayer(
+        final ServerRequest request) {
+
+        try {
+            this.gameService.removePlayer(gameId(request), playerId(request));
+            return ServerResponse.noContent().build();
+        } catch (final GameNotFoundException | PlayerNotFoundException exception) {
+            return error(HttpStatus.NOT_FOUND, exception);
+        }
+    }
+
+    public Mono<ServerResponse> dealCardsToAPlayer(
+        final ServerRequest request) {
+
+        try {
+            this.gameService.dealCardsToAPlayer(gameId(request), playerId(request));
+            return ServerResponse.ok().build();
+        } catch (final GameNotFoundException | PlayerNotFoundException exception) {
+            return error(HttpStatus.NOT_FOUND, exception);
+        }
+    }
+
+    public Mono<ServerResponse> dealCards(
+        final ServerRequest request) {
+
+        final int rounds = request.queryParam("rounds").map(Integer::valueOf).orElse(1);
+        if (rounds < 1 || rounds > Game.MAX_HAND_SIZE) {
+            return ServerResponse.badRequest().bodyValue(String.format(INVALID_ROUNDS, rounds));
+        }
+        final List<Integer> playerIds = request.queryParams().getOrDefault("players", List.of()).stream()
+            .flatMap(players -> Stream.of(players.split(","))).map(Integer::valueOf).collect(Collectors.toList());
+        try {
+            return ServerResponse.ok().bodyValue(this.gameService.dealCards(gameId(request), playerIds, rounds));
+        } catch (final GameNotFoundException | PlayerNotFoundException exception) {
+            return error(HttpStatus.NOT_FOUND, exception);
+        }
+    }
+
+    public Mono<ServerResponse> getPlayerCards(
+        final ServerRequest request) {
+
+        try {
+            return ServerResponse.ok().bodyValue(this.gameService.getPlayerCards(gameId(request), playerId(request)));
+        } catch (final GameNotFoundException | PlayerNotFoundException exception) {
+            return error(HttpStatus.NOT_FOUND, exception);
+        }
+    }
+
+    public Mono<ServerResponse> getPlayer(
+        final ServerRequest request) {
+
+        try {
+            return ServerResponse.ok().bodyValue(this.gameService.getPlayer(gameId(request)));
+        } catch (final GameNotFoundException | PlayerNotFoundException exception) {
+            return error(HttpStatus.NOT_FOUND, exception);
+        }
+    }
+
+    public Mono<ServerResponse> getPlayers(
+        final ServerRequest request) {
+
+        try {
+            final Integer gameId = gameId(request);
+            final List<Player> players = request.queryParam("top").isPresent()
+                ? this.gameService.getTopPlayers(gameId, Integer.parseInt(request.queryParam("top").get()))
+                : this.gameService.getSortedPlayers(gameId);
+            return ServerResponse.ok().bodyValue(players);
+        } catch (final GameDoesNotHavePlayersException | GameNotFoundException exception) {
+            return error(HttpStatus.NOT_FOUND, exception);
+        }
+    }
+
+    public Mono<ServerResponse> getUndealtCards(
+        final ServerRequest request) {
+
+        try {
+            return ServerResponse.ok().bodyValue(this.gameService.getUndealtCards(gameId(request)));
+        } catch (final GameNotFoundException exception) {
+            return error(HttpStatus.NOT_FOUND, exception);
+        }
+    }
+
+    public Mono<ServerResponse> getSortedRemainingUndealtCards(
+        final ServerRequest request) {
+
+        try {
+            return ServerResponse.ok().bodyValue(this.gameService.getSortedRemainingUndealtCards(gameId(request)));
+        } catch (final GameNotFoundException exception) {
+            return error(HttpStatus.NOT_FOUND, exception);
+        }
+    }
+
+    public Mono<ServerResponse> shuffle(
+        final ServerRequest request) {
+
+        try {
+            this.gameService.shuffle(gameId(request));
+            return ServerResponse.noContent().build();
+        } catch (final GameNotFoundException exception) {
+            return error(HttpStatus.NOT_FOUND, exception);
+        }
+    }
+
+    public Mono<ServerResponse> streamEvents(
+        final ServerRequest request) {
+
+        try {
+            final GameEventSubscription subscription = this.gameService.subscribe(gameId(request));
+            final Flux<ServerSentEvent<GameEvent>> events = Flux.create(sink -> {
+                sink.onRequest(requested -> subscription.drain());
+                sink.onDispose(subscription::close);
+                subscription.listen(task -> Schedulers.parallel().schedule(task),
+                    () -> sink.requestedFromDownstream() > 0,
+                    event -> sink.next(ServerSentEvent.builder(event).event(event.getType().name()).build()),
+                    sink::complete);
+            });
+            return ServerResponse.ok().body(BodyInserters.fromServerSentEvents(events));
+        } catch (final GameNotFoundException exception) {
+            return error(HttpStatus.NOT_FOUND, exception);
+        }
+    }
+
+    public Mono<ServerResponse> shuffleGames(
+        final ServerRequest request) {
+
+        final List<Integer> gameIds = request.queryParams().getOrDefault("games", List.of()).stream()
+            .flatMap(games -> Stream.of(games.split(","))).map(Integer::valueOf).collect(Collectors.toList());
+        return Mono.fromCallable(() -> this.gameService.shuffleGames(gameIds)).subscribeOn(Schedulers.boundedElastic())
+            .flatMap(shuffled -> ServerResponse.ok().bodyValue(shuffled));
+    }
+
+    public Mono<ServerResponse> snapshot(
+        final ServerRequest request) {
+
+        return Mono.fromCallable(this.gameService::snapshot).subscribeOn(Schedulers.boundedElastic())
+            .flatMap(name -> ServerResponse.status(HttpStatus.CREATED).bodyValue(name))
+            .onErrorResume(IOException.class, exception -> error(HttpStatus.INTERNAL_SERVER_ERROR, exception));
+    }
+
+    public Mono<ServerResponse> restore(
+        final ServerRequest request) {
+
+        final String name = request.pathVariable("name");
+        return Mono.fromCallable(() -> this.gameService.restore(name)).subscribeOn(Schedulers.boundedElastic())
+            .flatMap(count -> ServerResponse.ok().bodyValue(count))
+            .onErrorResume(SnapshotNotFoundException.class, exception -> error(HttpStatus.NOT_FOUND, exception))
+            .onErrorResume(IOException.class, exception -> error(HttpStatus.INTERNAL_SERVER_ERROR, exception));
+    }
+
+    private static Integer gameId(
+        final ServerRequest request) {
+
+        return Integer.valueOf(request.pathVariable("gameId"));
+    }
+
+    private static Integer playerId(
+        final ServerRequest request) {
+
+        return Integer.valueOf(request.pathVariable("playerId"));
+    }
+
+    private static Mono<ServerResponse> error(
+        final HttpStatus status,
+        final Exception exception) {
+
+        return ServerResponse.status(status).bodyValue(exception.getMessage());
+    }
+
+}
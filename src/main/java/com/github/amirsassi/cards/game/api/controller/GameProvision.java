@@ -0,0 +1,99 @@
+package com.github.amirsassi.cards.game.api.controller;
+
+import java.util.function.IntSupplier;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+
+/**
+ * A game to create by the bulk endpoint: {"gameId":1,"decks":2,"players":4}
+ * @author Amir.Sassi
+ */
+public class GameProvision {
+
+    /**
+     * the most decks of a provisioned game, a shoe of casino size
+     */
+    public static final int MAX_DECKS = 8;
+
+    /**
+     * the most players of a provisioned game
+     */
+    public static final int MAX_PLAYERS = 16;
+
+    private Integer gameId;
+
+    private int decks;
+
+    private int players;
+
+    public Integer getGameId() {
+
+        return this.gameId;
+    }
+
+    public void setGameId(
+        final Integer pGameId) {
+
+        this.gameId = pGameId;
+    }
+
+    public int getDecks() {
+
+        return this.decks;
+    }
+
+    public void setDecks(
+        final int pDecks) {
+
+        this.decks = pDecks;
+    }
+
+    public int getPlayers() {
+
+        return this.players;
+    }
+
+    public void setPlayers(
+        final int pPlayers) {
+
+        this.players = pPlayers;
+    }
+
+    /**
+     * method to validate the provision
+     * @return true if the game has an id, at most {@link #MAX_DECKS} decks and at most {@link #MAX_PLAYERS} players
+     */
+    public boolean isValid() {
+
+        return this.gameId != null && this.decks >= 0 && this.decks <= MAX_DECKS && this.players >= 0
+            && this.players <= MAX_PLAYERS;
+    }
+
+    /**
+     * method to build the game, not shared yet so it is filled without its lock
+     * @param playerIds the generator of the player ids
+     * @return the game with its new decks and seated players
+     */
+    public Game toGame(
+        final IntSupplier playerIds) {
+
+        final Game game = new Game();
+        game.setGameId(this.gameId);
+        for (int i = 0; i < this.decks; i++) {
+            game.addDeck(new Deck());
+        }
+        for (int i = 0; i < this.players; i++) {
+            game.addPlayer(new Player(playerIds.getAsInt()));
+        }
+        return game;
+    }
+
+    @Override
+    public String toString() {
+
+        return "{gameId=" + this.gameId + ", decks=" + this.decks + ", players=" + this.players + "}";
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.github.amirsassi.cards.game.api.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Routes of the reactive stack, the same API as {@link GameController}. The reactive stack is started instead of the
+ * servlet one with spring.main.web-application-type=reactive. When the evicted games are spilled, a lookup may load a
+ * game from the spill under a registry lock, so every route runs on the bounded elastic scheduler instead of the event
+ * loop
+ * @author Amir.Sassi
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class GameRouter {
+
+    @Value("${game.store.eviction.enabled:false}")
+    private boolean eviction;
+
+    @Value("${game.store.spill.enabled:false}")
+    private boolean spill;
+
+    @Bean
+    public RouterFunction<ServerResponse> gameRoutes(
+        final GameHandler handler) {
+
+        final boolean offloaded = this.eviction && this.spill;
+        return RouterFunctions.route().path("/gameapi", builder -> builder
+            .POST("/admin/snapshot", handler::snapshot)
+            .POST("/admin/restore/{name}", handler::restore)
+            .POST("/shuffle", handler::shuffleGames)
+            .POST("/bulk", handler::createGames)
+            .POST("/bulk/delete", handler::deleteGames)
+            .POST("/{gameId}", handler::createGame)
+            .DELETE("/{gameId}", handler::deleteGame)
+            .POST("/{gameId}/deck", handler::addDeck)
+            .POST("/{gameId}/player", handler::addPlayer)
+            .POST("/{gameId}/player/{playerId}", handler::deletePlayer)
+            .POST("/{gameId}/player/{playerId}/deal", handler::dealCardsToAPlayer)
+            .POST("/{gameId}/deal", handler::dealCards)
+            .GET("/{gameId}/player/{playerId}/cards", handler::getPlayerCards)
+            .GET("/{gameId}/player/{playerId}", handler::getPlayer)
+            .GET("/{gameId}/players", handler::getPlayers)
+            .GET("/{gameId}/undealt/cards", handler::getUndealtCards)
+            .GET("/{gameId}/remaining/cards", handler::getSortedRemainingUndealtCards)
+            .GET("/{gameId}/events", handler::streamEvents)
+            .POST("/{gameId}/shuffle", handler::shuffle))
+            .filter((request, next) -> Mono.defer(() -> next.handle(request)).onErrorResume(
+                NumberFormatException.class, exception -> ServerResponse.badRequest().bodyValue(exception.getMessage())))
+            .filter((request, next) -> offloaded
+                ? Mono.defer(() -> next.handle(request)).subscribeOn(Schedulers.boundedElastic()) : next.handle(request))
+            .build();
+    }
+
+    /**
+     * Tomcat is on the classpath for the servlet stack and would otherwise be preferred to Netty
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+
+        return new NettyReactiveWebServerFactory();
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.github.amirsassi.cards.game.api.controller;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.amirsassi.cards.game.api.replication.FollowerReadOnlyFilter;
+import com.github.amirsassi.cards.game.api.replication.GameReplication;
+import com.github.amirsassi.cards.game.api.replication.ReplicationStatus;
+
+/**
+ * REST controller of the replication role of this node, served when game.replication.enabled is true
+ * @author Amir.Sassi
+ */
+@RestController
+@RequestMapping(FollowerReadOnlyFilter.REPLICATION_PATH)
+@ConditionalOnProperty(name = "game.replication.enabled", havingValue = "true")
+public class ReplicationController {
+
+    @Autowired
+    private GameReplication replication;
+
+    public ReplicationController() {
+
+        super();
+    }
+
+    /**
+     * GET method to get the replication state of this node
+     * @return HTTP status 200 and the role, the sequence number, the lag, the followers and the connection to the
+     *         primary
+     */
+    @GetMapping
+    public ResponseEntity<ReplicationStatus> getStatus() {
+
+        return ResponseEntity.status(HttpStatus.OK).body(this.replication.getStatus());
+    }
+
+    /**
+     * POST method to promote a follower to primary, once its primary is gone
+     * @return HTTP status 200 and the replication state, or HTTP status 500 if the games cannot be snapshot or the
+     *         replication port cannot be bound
+     */
+    @PostMapping("/promote")
+    public ResponseEntity<?> promote() {
+
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(this.replication.promote());
+        } catch (final IOException exception) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(exception.getMessage());
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.github.amirsassi.cards.game.api.controller;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The serialized responses of the read endpoints, by game id, view and game version tag. The cache is direct-mapped:
+ * each game and view hashes to one slot that keeps the last serialized version, so a newer version or another view
+ * hashing to the same slot replaces it and the cache never holds more than its size. A stale entry is never served,
+ * its version tag no longer matches the game
+ * @author Amir.Sassi
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ViewCache {
+
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReferenceArray<Entry> entries;
+
+    private final int mask;
+
+    /**
+     * @param pSize the number of slots, rounded up to a power of 2
+     */
+    public ViewCache(final ObjectMapper pObjectMapper, @Value("${game.view-cache.size:4096}") final int pSize) {
+
+        super();
+        this.objectMapper = pObjectMapper;
+        final int size = Integer.highestOneBit(Math.max(1, pSize - 1)) << 1;
+        this.entries = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * method to get a serialized response
+     * @param gameId the game id
+     * @param view the name of the view, with its parameters
+     * @param versionTag the current version tag of the game
+     * @return the serialized response or null if it is not cached
+     */
+    public byte[] get(
+        final int gameId,
+        final String view,
+        final String versionTag) {
+
+        final Entry entry = this.entries.get(slot(gameId, view));
+        return entry != null && entry.gameId == gameId && entry.view.equals(view)
+            && entry.versionTag.equals(versionTag) ? entry.json : null;
+    }
+
+    /**
+     * method to serialize and cache a response
+     * @param gameId the game id
+     * @param view the name of the view, with its parameters
+     * @param versionTag the version tag of the game read before the response was computed
+     * @param response the response
+     * @return the serialized response
+     */
+    public byte[] put(
+        final int gameId,
+        final String view,
+        final String versionTag,
+        final Object response) {
+
+        try {
+            final byte[] json = this.objectMapper.writeValueAsBytes(response);
+            this.entries.set(slot(gameId, view), new Entry(gameId, view, versionTag, json));
+            return json;
+        } catch (final JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private int slot(
+        final int gameId,
+        final String view) {
+
+        final int hash = gameId * 0x9E3779B9 + view.hashCode();
+        return (hash ^ hash >>> 16) & this.mask;
+    }
+
+    /**
+     * a serialized response, immutable so that it is safely published by the array
+     */
+    private static final class Entry {
+
+        private final int gameId;
+
+        private final String view;
+
+        private final String versionTag;
+
+        private final byte[] json;
+
+        private Entry(final int pGameId, final String pView, final String pVersionTag, final byte[] pJson) {
+
+            this.gameId = pGameId;
+            this.view = pView;
+            this.versionTag = pVersionTag;
+            this.json = pJson;
+        }
+    }
+
+}
@@ -1,19 +1,81 @@
 package com.github.amirsassi.cards.game.api.domain;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
-public class Card {
+/**
+ * An immutable card, packed as an ordinal between 0 and 51 (suit ordinal * 13 + face value ordinal) in decks and
+ * hands. The 52 cards are interned and can only be obtained through {@link #of(Suit, FaceValue)} or
+ * {@link #valueOf(int)}, so two cards are equal only if they are the same instance
+ * @author Amir.Sassi
+ */
+public final class Card {
 
-    private Suit suit;
+    public static final int CARDS_PER_SUIT = FaceValue.values().length;
 
-    private FaceValue faceValue;
+    public static final int CARDS_PER_DECK = Suit.values().length * CARDS_PER_SUIT;
 
-    public Card(final Suit pSuit, final FaceValue pFaceValue) {
+    private static final Card[] CARDS = new Card[CARDS_PER_DECK];
+
+    static {
+        for (final Suit suit : Suit.values()) {
+            for (final FaceValue faceValue : FaceValue.values()) {
+                final int ordinal = ordinal(suit, faceValue);
+                CARDS[ordinal] = new Card(suit, faceValue, ordinal);
+            }
+        }
+    }
+
+    private final Suit suit;
+
+    private final FaceValue faceValue;
+
+    private final int ordinal;
+
+    private Card(final Suit pSuit, final FaceValue pFaceValue, final int pOrdinal) {
 
         super();
         this.suit = pSuit;
         this.faceValue = pFaceValue;
+        this.ordinal = pOrdinal;
+    }
+
+    /**
+     * method to get the interned card of a suit and a face value
+     * @param suit the suit
+     * @param faceValue the face value
+     * @return the shared card instance
+     */
+    @JsonCreator
+    public static Card of(
+        @JsonProperty("suit") final Suit suit,
+        @JsonProperty("faceValue") final FaceValue faceValue) {
+
+        return CARDS[ordinal(suit, faceValue)];
+    }
+
+    /**
+     * method to get the interned card of an ordinal
+     * @param ordinal the card ordinal, between 0 and 51
+     * @return the shared card instance
+     */
+    public static Card valueOf(
+        final int ordinal) {
+
+        return CARDS[ordinal];
+    }
+
+    /**
+     * method to pack a suit and a face value
+     * @param suit the suit
+     * @param faceValue the face value
+     * @return the card ordinal, between 0 and 51
+     */
+    public static int ordinal(
+        final Suit suit,
+        final FaceValue faceValue) {
+
+        return suit.ordinal() * CARDS_PER_SUIT + faceValue.ordinal();
     }
 
     public Suit getSuit() {
@@ -26,33 +88,27 @@ public class Card {
         return this.faceValue;
     }
 
-    public void setSuit(
-        final Suit pSuit) {
-
-        this.suit = pSuit;
-    }
-
-    public void setFaceValue(
-        final FaceValue pFaceValue) {
+    public int ordinal() {
 
-        this.faceValue = pFaceValue;
+        return this.ordinal;
     }
 
     @Override
     public boolean equals(
         final Object other) {
 
-        if (!(other instanceof Card)) {
-            return false;
-        }
-        final Card castOther = (Card) other;
-        return new EqualsBuilder().append(this.suit, castOther.suit).append(this.faceValue, castOther.faceValue)
-            .isEquals();
+        return this == other;
     }
 
     @Override
     public int hashCode() {
 
-        return new HashCodeBuilder().append(this.suit).append(this.faceValue).toHashCode();
+        return this.ordinal;
+    }
+
+    @Override
+    public String toString() {
+
+        return this.faceValue.getFace() + " of " + this.suit;
     }
 }
@@ -0,0 +1,101 @@
+package com.github.amirsassi.cards.game.api.domain;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Counters of cards by card ordinal and by suit, maintained incrementally so that counting the undealt cards of a game
+ * never walks its decks
+ * @author Amir.Sassi
+ */
+public class CardCounts {
+
+    private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final int[] cards;
+
+    private final int[] suits;
+
+    public CardCounts() {
+
+        super();
+        this.cards = new int[Card.CARDS_PER_DECK];
+        this.suits = new int[Suit.values().length];
+    }
+
+    /**
+     * copy constructor
+     * @param pCardCounts the counters to copy
+     */
+    public CardCounts(final CardCounts pCardCounts) {
+
+        super();
+        this.cards = pCardCounts.cards.clone();
+        this.suits = pCardCounts.suits.clone();
+    }
+
+    /**
+     * method to count a card
+     * @param ordinal the card ordinal
+     */
+    public void add(
+        final int ordinal) {
+
+        this.cards[ordinal]++;
+        this.suits[ordinal / Card.CARDS_PER_SUIT]++;
+    }
+
+    /**
+     * method to count every card of a container
+     * @param packedCards the cards
+     */
+    public void addAll(
+        final PackedCards packedCards) {
+
+        for (int i = 0; i < packedCards.size(); i++) {
+            add(packedCards.ordinalAt(i));
+        }
+    }
+
+    /**
+     * method to uncount a card
+     * @param ordinal the card ordinal
+     */
+    public void remove(
+        final int ordinal) {
+
+        this.cards[ordinal]--;
+        this.suits[ordinal / Card.CARDS_PER_SUIT]--;
+    }
+
+    /**
+     * method to uncount a card while other threads uncount cards too, the counters are read once the game lock is held
+     * @param ordinal the card ordinal
+     */
+    public void removeConcurrently(
+        final int ordinal) {
+
+        COUNTS.getAndAdd(this.cards, ordinal, -1);
+        COUNTS.getAndAdd(this.suits, ordinal / Card.CARDS_PER_SUIT, -1);
+    }
+
+    public int count(
+        final Card card) {
+
+        return this.cards[card.ordinal()];
+    }
+
+    public int count(
+        final Suit suit) {
+
+        return this.suits[suit.ordinal()];
+    }
+
+    public void clear() {
+
+        Arrays.fill(this.cards, 0);
+        Arrays.fill(this.suits, 0);
+    }
+
+}
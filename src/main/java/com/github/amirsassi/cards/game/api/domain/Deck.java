@@ -1,32 +1,78 @@
 package com.github.amirsassi.cards.game.api.domain;
 
-import java.util.ArrayList;
 import java.util.List;
 
-public class Deck {
+/**
+ * A deck of 52 cards packed as a byte array of card ordinals. A new deck only allocates its backing array, copied from
+ * an ordered prototype, the cards themselves are the interned instances. A deck is never dealt from: its cards are
+ * added to the {@link Shoe} of the game, which deals them
+ * @author Amir.Sassi
+ */
+public class Deck
+    extends PackedCards {
 
-    private final List<Card> cards = new ArrayList<>(52);
+    private static final byte[] ORDERED_DECK = initCards();
+
+    private final byte[] cards;
 
     public Deck() {
 
         super();
-        initCards();
+        this.cards = ORDERED_DECK.clone();
+    }
+
+    /**
+     * restores a deck from its cards
+     * @param pCards the ordinals of the cards from the top of the deck
+     */
+    public Deck(final byte[] pCards) {
+
+        super();
+        this.cards = pCards.clone();
     }
 
-    private void initCards() {
+    private static byte[] initCards() {
 
+        final byte[] cards = new byte[Card.CARDS_PER_DECK];
         for (final Suit suit : Suit.values()) {
             for (final FaceValue faceValue : FaceValue.values()) {
 
-                this.cards.add(new Card(suit, faceValue));
+                cards[Card.ordinal(suit, faceValue)] = (byte) Card.ordinal(suit, faceValue);
 
             }
         }
+        return cards;
+    }
+
+    /**
+     * method to get the number of cards
+     * @return the number of cards
+     */
+    @Override
+    public int size() {
+
+        return this.cards.length;
+    }
+
+    /**
+     * method to get the ordinal of a card
+     * @param index the position from the top of the deck
+     * @return the card ordinal
+     */
+    @Override
+    public int ordinalAt(
+        final int index) {
+
+        return this.cards[index];
     }
 
+    /**
+     * method to get a read-only view of the cards
+     * @return the list of cards
+     */
     public List<Card> getCards() {
 
-        return this.cards;
+        return asList();
     }
 
 }
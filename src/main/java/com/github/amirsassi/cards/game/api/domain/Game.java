@@ -1,15 +1,75 @@
 package com.github.amirsassi.cards.game.api.domain;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * A game, its players and decks are not thread-safe by themselves: every access must happen while holding the game
+ * lock, so that operations on the same game are serialized while operations on different games never contend. The
+ * deals to single players are the exception, see {@link #dealConcurrently(Player)}: they hold the game shared lock
+ * and run in parallel with each other, never with the other operations
+ * @author Amir.Sassi
+ */
 public class Game {
 
+    /**
+     * the maximum number of cards in a hand, a player holding them is not dealt anymore
+     */
+    public static final int MAX_HAND_SIZE = 52;
+
+    /**
+     * estimated bytes of a game without decks nor players: the game, its seats, counters and leaderboard
+     */
+    private static final int GAME_FOOTPRINT = 1024;
+
+    /**
+     * estimated bytes of a deck and of the dealt cards it can fill the hands with
+     */
+    private static final int DECK_FOOTPRINT = 192;
+
+    /**
+     * estimated bytes of a player, its hand and its leaderboard entry
+     */
+    private static final int PLAYER_FOOTPRINT = 256;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
     private Integer gameId;
 
-    private List<Player> players = new ArrayList<>();
+    private final Seats players = new Seats();
+
+    private Shoe shoe = new Shoe();
+
+    private final CardCounts undealtCards = new CardCounts();
+
+    private final Leaderboard leaderboard = new Leaderboard();
+
+    private long nextSeat;
+
+    private long shuffles;
+
+    private final AtomicLong journalSequence = new AtomicLong();
+
+    private long replicationSequence;
+
+    private boolean deleted;
 
-    private List<Deck> decks;
+    /**
+     * identifies this instance of the game, so that a game deleted then created again never repeats a version tag
+     */
+    private final long epoch = ThreadLocalRandom.current().nextLong();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile long lastAccess;
+
+    private final AtomicInteger footprint = new AtomicInteger();
 
     public Game() {
 
@@ -21,9 +81,13 @@ public class Game {
         return this.gameId;
     }
 
+    /**
+     * method to get the players in seat order
+     * @return a read-only list of the players
+     */
     public List<Player> getPlayers() {
 
-        return this.players;
+        return Collections.unmodifiableList(this.players);
     }
 
     public void setGameId(
@@ -35,18 +99,355 @@ public class Game {
     public void setPlayers(
         final List<Player> pPlayers) {
 
-        this.players = pPlayers;
+        this.players.clear();
+        this.leaderboard.clear();
+        for (final Player player : pPlayers) {
+            addPlayer(player);
+        }
+    }
+
+    /**
+     * method to seat a player after the current players and rank it
+     * @param player the player
+     * @return false if a player with the same id is already seated
+     */
+    public boolean addPlayer(
+        final Player player) {
+
+        if (!this.players.add(player)) {
+            return false;
+        }
+        player.setSeat(this.nextSeat++);
+        this.leaderboard.add(player);
+        return true;
+    }
+
+    /**
+     * method to find a player
+     * @param playerId the player id
+     * @return the player or null if the player is not seated
+     */
+    public Player getPlayer(
+        final int playerId) {
+
+        return this.players.find(playerId);
+    }
+
+    /**
+     * method to remove a player from the seats and the ranking
+     * @param playerId the player id
+     * @return the removed player or null if the player is not seated
+     */
+    public Player removePlayer(
+        final int playerId) {
+
+        final Player player = this.players.removePlayer(playerId);
+        if (player != null) {
+            this.leaderboard.remove(player);
+        }
+        return player;
+    }
+
+    /**
+     * method to get the ranking of the players, to be updated on every change of a player hand
+     * @return the leaderboard
+     */
+    public Leaderboard getLeaderboard() {
+
+        return this.leaderboard;
+    }
+
+    /**
+     * method to get the shoe holding the cards of all the decks of the game
+     * @return the shoe
+     */
+    @JsonIgnore
+    public Shoe getShoe() {
+
+        return this.shoe;
+    }
+
+    /**
+     * method to replace the shoe, for instance by its shuffled order, and count its undealt cards
+     * @param pShoe the shoe
+     */
+    public void setShoe(
+        final Shoe pShoe) {
+
+        this.shoe = pShoe;
+        this.undealtCards.clear();
+        this.undealtCards.addAll(pShoe);
+    }
+
+    /**
+     * method to add a deck to the shoe and count its undealt cards
+     * @param deck the deck
+     */
+    public void addDeck(
+        final Deck deck) {
+
+        this.shoe.addDeck(deck);
+        this.undealtCards.addAll(deck);
+    }
+
+    /**
+     * method to deal the top card of the shoe to a player whose hand is not full, the counters and the ranking are
+     * updated
+     * @param player the player
+     * @return the number of dealt cards, 0 or 1
+     */
+    public int deal(
+        final Player player) {
+
+        final Hand hand = player.getHand();
+        if (hand.size() >= MAX_HAND_SIZE || this.shoe.isEmpty()) {
+            return 0;
+        }
+        final int ordinal = this.shoe.deal();
+        this.undealtCards.remove(ordinal);
+        hand.add(ordinal);
+        this.leaderboard.update(player);
+        return 1;
+    }
+
+    /**
+     * method to deal the top card of the shoe to a player whose hand is not full, while other threads deal to the
+     * other players: the card is claimed by a CAS on the shoe cursor and appended to the hand by its single writer.
+     * The game shared lock and the player hand lock must be held
+     * @param player the player
+     * @return the dealt card ordinal, -1 if none was dealt
+     */
+    public int dealConcurrently(
+        final Player player) {
+
+        final Hand hand = player.getHand();
+        if (hand.size() >= MAX_HAND_SIZE) {
+            return -1;
+        }
+        final int ordinal = this.shoe.claim();
+        if (ordinal >= 0) {
+            this.undealtCards.removeConcurrently(ordinal);
+            hand.add(ordinal);
+            this.leaderboard.update(player);
+        }
+        return ordinal;
+    }
+
+    /**
+     * method to replay the deal of a given card to a player, as dealt by {@link #dealConcurrently(Player)}
+     * @param player the player
+     * @param ordinal the card ordinal
+     * @return the number of dealt cards, 0 if the hand is full or the shoe does not hold the card
+     */
+    public int deal(
+        final Player player,
+        final int ordinal) {
+
+        final Hand hand = player.getHand();
+        if (hand.size() >= MAX_HAND_SIZE || !this.shoe.deal(ordinal)) {
+            return 0;
+        }
+        this.undealtCards.remove(ordinal);
+        hand.add(ordinal);
+        this.leaderboard.update(player);
+        return 1;
+    }
+
+    /**
+     * method to get the counters of the undealt cards, to be updated on every deal
+     * @return the undealt card counters
+     */
+    public CardCounts getUndealtCards() {
+
+        return this.undealtCards;
+    }
+
+    /**
+     * method to count a shuffle of the game
+     * @return the number of shuffles done before this one
+     */
+    public long nextShuffle() {
+
+        return this.shuffles++;
+    }
+
+    @JsonIgnore
+    public long getShuffles() {
+
+        return this.shuffles;
+    }
+
+    public void setShuffles(
+        final long pShuffles) {
+
+        this.shuffles = pShuffles;
+    }
+
+    /**
+     * method to get the sequence number of the last journal record of the game
+     * @return the journal sequence number, 0 if the game was never journaled
+     */
+    @JsonIgnore
+    public long getJournalSequence() {
+
+        return this.journalSequence.get();
+    }
+
+    public void setJournalSequence(
+        final long pJournalSequence) {
+
+        this.journalSequence.set(pJournalSequence);
+    }
+
+    /**
+     * method to raise the sequence number of the last journal record of the game, the concurrent deals may record
+     * their changes in another order than they return
+     * @param pJournalSequence the sequence number of a record of the game
+     */
+    public void advanceJournalSequence(
+        final long pJournalSequence) {
+
+        this.journalSequence.accumulateAndGet(pJournalSequence, Math::max);
+    }
+
+    /**
+     * method to get the sequence number of the last replication record of the game
+     * @return the replication sequence number, 0 if the game was never replicated
+     */
+    @JsonIgnore
+    public long getReplicationSequence() {
+
+        return this.replicationSequence;
+    }
+
+    public void setReplicationSequence(
+        final long pReplicationSequence) {
+
+        this.replicationSequence = pReplicationSequence;
+    }
+
+    /**
+     * method to know if the game was deleted, an operation that locked a deleted game must not change it
+     * @return true if the game was removed from the registry
+     */
+    @JsonIgnore
+    public boolean isDeleted() {
+
+        return this.deleted;
+    }
+
+    public void setDeleted(
+        final boolean pDeleted) {
+
+        this.deleted = pDeleted;
+    }
+
+    /**
+     * method to count a change of the game, the game lock or the game shared lock must be held
+     * @return the version of the game after this change
+     */
+    public long changed() {
+
+        return this.version.incrementAndGet();
+    }
+
+    /**
+     * method to get the number of changes of the game, it can be read without the game lock
+     * @return the version, increased by every change
+     */
+    @JsonIgnore
+    public long getVersion() {
+
+        return this.version.get();
+    }
+
+    /**
+     * method to get a tag of the state of the game, it can be read without the game lock
+     * @return a tag that changes whenever the game changes, different for two games created with the same id
+     */
+    @JsonIgnore
+    public String getVersionTag() {
+
+        return Long.toHexString(this.epoch) + '-' + this.version.get();
+    }
+
+    /**
+     * method to get the time of the last lookup of the game, it can be read without the game lock
+     * @return the time in milliseconds
+     */
+    @JsonIgnore
+    public long getLastAccess() {
+
+        return this.lastAccess;
+    }
+
+    /**
+     * method to record a lookup of the game, the time is only written when it changes so that the lookups of a busy
+     * game do not keep invalidating the cache line
+     * @param time the time in milliseconds
+     */
+    public void touch(
+        final long time) {
+
+        if (this.lastAccess != time) {
+            this.lastAccess = time;
+        }
+    }
+
+    /**
+     * method to estimate the bytes held by the game, it can be called without the game lock
+     * @return the estimated size in bytes
+     */
+    public int estimateFootprint() {
+
+        return GAME_FOOTPRINT + this.shoe.getDecks() * DECK_FOOTPRINT + this.players.size() * PLAYER_FOOTPRINT;
+    }
+
+    /**
+     * method to replace the footprint accounted for the game, the registry sums the returned differences
+     * @param pFootprint the new footprint in bytes
+     * @return the previous footprint in bytes
+     */
+    public int swapFootprint(
+        final int pFootprint) {
+
+        return this.footprint.getAndSet(pFootprint);
+    }
+
+    /**
+     * acquires the game lock, each lock must be released by a call to unlock in a finally block
+     */
+    public void lock() {
+
+        this.lock.writeLock().lock();
+    }
+
+    /**
+     * acquires the game lock only if no other thread holds it, nor its shared lock
+     * @return true if the lock was acquired, it must then be released by a call to unlock
+     */
+    public boolean tryLock() {
+
+        return this.lock.writeLock().tryLock();
+    }
+
+    public void unlock() {
+
+        this.lock.writeLock().unlock();
     }
 
-    public List<Deck> getDecks() {
+    /**
+     * acquires the game shared lock, held by the concurrent deals while the game lock is not held. Each lock must be
+     * released by a call to unlockShared in a finally block
+     */
+    public void lockShared() {
 
-        return this.decks;
+        this.lock.readLock().lock();
     }
 
-    public void setDecks(
-        final List<Deck> pDecks) {
+    public void unlockShared() {
 
-        this.decks = pDecks;
+        this.lock.readLock().unlock();
     }
 
 }
@@ -0,0 +1,88 @@
+package com.github.amirsassi.cards.game.api.domain;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The cards held by a player, a growable byte array of card ordinals. The total face value of the hand is maintained
+ * on every added card
+ * @author Amir.Sassi
+ */
+public class Hand
+    extends PackedCards {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private byte[] cards;
+
+    private int size;
+
+    private int value;
+
+    public Hand() {
+
+        super();
+        this.cards = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * copy constructor
+     * @param pHand the hand to copy
+     */
+    public Hand(final Hand pHand) {
+
+        super();
+        this.cards = Arrays.copyOf(pHand.cards, Math.max(pHand.size, INITIAL_CAPACITY));
+        this.size = pHand.size;
+        this.value = pHand.value;
+    }
+
+    /**
+     * @param pCards the cards of the hand
+     */
+    public Hand(final Collection<Card> pCards) {
+
+        super();
+        this.cards = new byte[Math.max(pCards.size(), INITIAL_CAPACITY)];
+        for (final Card card : pCards) {
+            add(card.ordinal());
+        }
+    }
+
+    @Override
+    public int size() {
+
+        return this.size;
+    }
+
+    @Override
+    public int ordinalAt(
+        final int index) {
+
+        return this.cards[index];
+    }
+
+    /**
+     * method to add a card at the end of the hand
+     * @param ordinal the card ordinal
+     */
+    public void add(
+        final int ordinal) {
+
+        if (this.size == this.cards.length) {
+            this.cards = Arrays.copyOf(this.cards, this.cards.length << 1);
+        }
+        this.cards[this.size++] = (byte) ordinal;
+        this.value += Card.valueOf(ordinal).getFaceValue().getValue();
+    }
+
+    /**
+     * method to get the total face value of the hand
+     * @return the sum of the face values of the cards
+     */
+    public int getValue() {
+
+        return this.value;
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.github.amirsassi.cards.game.api.domain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Players of a game ranked by score, from the highest to the lowest, ties broken by seat order. The ranking is a skip
+ * list updated on every score change in O(log N), so reading the ranking is O(N) and reading the top k players is
+ * O(k + log N)
+ * @author Amir.Sassi
+ */
+public class Leaderboard {
+
+    private static final Comparator<Rank> ORDER =
+        Comparator.comparingInt(Rank::getScore).reversed().thenComparingLong(Rank::getSeat);
+
+    private final ConcurrentSkipListSet<Rank> ranks = new ConcurrentSkipListSet<>(ORDER);
+
+    /**
+     * method to rank a new player
+     * @param player the player
+     */
+    public void add(
+        final Player player) {
+
+        player.setRankedScore(player.getScore());
+        this.ranks.add(new Rank(player.getRankedScore(), player.getSeat(), player));
+    }
+
+    /**
+     * method to remove a player from the ranking
+     * @param player the player
+     */
+    public void remove(
+        final Player player) {
+
+        this.ranks.remove(new Rank(player.getRankedScore(), player.getSeat(), null));
+    }
+
+    /**
+     * method to move a player after a change of its score
+     * @param player the player
+     */
+    public void update(
+        final Player player) {
+
+        if (player.getRankedScore() != player.getScore()) {
+            remove(player);
+            add(player);
+        }
+    }
+
+    public void clear() {
+
+        this.ranks.clear();
+    }
+
+    /**
+     * method to get the best players
+     * @param count the maximum number of players
+     * @return the players from the highest to the lowest score
+     */
+    public List<Player> top(
+        final int count) {
+
+        final List<Player> players = new ArrayList<>(Math.max(0, Math.min(count, this.ranks.size())));
+        final Iterator<Rank> iterator = this.ranks.iterator();
+        while (players.size() < count && iterator.hasNext()) {
+            players.add(iterator.next().getPlayer());
+        }
+        return players;
+    }
+
+    /**
+     * An immutable entry of the ranking, its score is the score of the player when it was ranked
+     */
+    private static final class Rank {
+
+        private final int score;
+
+        private final long seat;
+
+        private final Player player;
+
+        Rank(final int pScore, final long pSeat, final Player pPlayer) {
+
+            this.score = pScore;
+            this.seat = pSeat;
+            this.player = pPlayer;
+        }
+
+        int getScore() {
+
+            return this.score;
+        }
+
+        long getSeat() {
+
+            return this.seat;
+        }
+
+        Player getPlayer() {
+
+            return this.player;
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.github.amirsassi.cards.game.api.domain;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Base class of the card containers backed by a byte array, one byte per card holding the card ordinal
+ * @author Amir.Sassi
+ */
+public abstract class PackedCards {
+
+    /**
+     * method to get the number of cards
+     * @return the number of cards
+     */
+    public abstract int size();
+
+    /**
+     * method to get the ordinal of a card
+     * @param index the card position
+     * @return the card ordinal, between 0 and 51
+     */
+    public abstract int ordinalAt(
+        int index);
+
+    public boolean isEmpty() {
+
+        return size() == 0;
+    }
+
+    /**
+     * method to get a read-only view of the cards, the view reflects later changes and allocates no card
+     * @return a list of the interned cards
+     */
+    public List<Card> asList() {
+
+        return new AbstractList<Card>() {
+
+            @Override
+            public Card get(
+                final int index) {
+
+                if (index < 0 || index >= PackedCards.this.size()) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+                }
+                return Card.valueOf(ordinalAt(index));
+            }
+
+            @Override
+            public int size() {
+
+                return PackedCards.this.size();
+            }
+        };
+    }
+
+}
@@ -1,7 +1,9 @@
 package com.github.amirsassi.cards.game.api.domain;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class Player {
 
@@ -9,13 +11,36 @@ public class Player {
 
     private String playerName;
 
-    private List<Card> cards = new ArrayList<>();
+    private Hand hand = new Hand();
+
+    private long seat;
+
+    private int rankedScore;
+
+    private int seatIndex;
+
+    /**
+     * makes the concurrent deals to the player single-writer, the deals to other players do not contend for it
+     */
+    private final ReentrantLock handLock = new ReentrantLock();
 
     public Player(final Integer pPlayerId) {
 
         this.playerId = pPlayerId;
     }
 
+    /**
+     * copy constructor, used to hand out a snapshot of a player that is not modified by later deals
+     * @param pPlayer the player to copy
+     */
+    public Player(final Player pPlayer) {
+
+        this.playerId = pPlayer.playerId;
+        this.playerName = pPlayer.playerName;
+        this.hand = new Hand(pPlayer.hand);
+        this.seat = pPlayer.seat;
+    }
+
     public Integer getPlayerId() {
 
         return this.playerId;
@@ -38,15 +63,87 @@ public class Player {
         this.playerName = pPlayerName;
     }
 
+    /**
+     * method to get a read-only view of the player cards
+     * @return the list of cards
+     */
     public List<Card> getCards() {
 
-        return this.cards;
+        return this.hand.asList();
     }
 
     public void setCards(
         final List<Card> pCards) {
 
-        this.cards = pCards;
+        this.hand = new Hand(pCards);
+    }
+
+    @JsonIgnore
+    public Hand getHand() {
+
+        return this.hand;
+    }
+
+    /**
+     * method to get the total face value of the player cards
+     * @return the score of the player
+     */
+    @JsonIgnore
+    public int getScore() {
+
+        return this.hand.getValue();
+    }
+
+    /**
+     * method to get the order in which the player joined the game, used to break score ties
+     * @return the seat number
+     */
+    @JsonIgnore
+    public long getSeat() {
+
+        return this.seat;
+    }
+
+    void setSeat(
+        final long pSeat) {
+
+        this.seat = pSeat;
+    }
+
+    int getSeatIndex() {
+
+        return this.seatIndex;
+    }
+
+    void setSeatIndex(
+        final int pSeatIndex) {
+
+        this.seatIndex = pSeatIndex;
+    }
+
+    /**
+     * acquires the hand lock, for a deal under the game shared lock. The lock must be released by a call to unlockHand
+     * in a finally block
+     */
+    public void lockHand() {
+
+        this.handLock.lock();
+    }
+
+    public void unlockHand() {
+
+        this.handLock.unlock();
+    }
+
+    int getRankedScore() {
+
+        return this.rankedScore;
+    }
+
+    void setRankedScore(
+        final int pRankedScore) {
+
+        this.rankedScore = pRankedScore;
     }
 
 }
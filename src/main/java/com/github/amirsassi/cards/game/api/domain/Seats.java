@@ -0,0 +1,160 @@
+package com.github.amirsassi.cards.game.api.domain;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.github.amirsassi.cards.game.api.util.IntHashMap;
+
+/**
+ * The players of a game in seat order, indexed by player id. A player is found, seated or removed in O(1): the ids
+ * are indexed by an {@link IntHashMap} and a removal only leaves a hole in the seat array, the holes being compacted
+ * once they outnumber the players, so the dealing rotation keeps the seat order. The players are seated and removed
+ * through {@link #add(Player)} and {@link #removePlayer(int)}, any other change of the list is not supported
+ * @author Amir.Sassi
+ */
+public class Seats
+    extends AbstractList<Player> {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final IntHashMap<Player> players = new IntHashMap<>();
+
+    private Player[] seats = new Player[INITIAL_CAPACITY];
+
+    private int end;
+
+    /**
+     * method to seat a player after the current players
+     * @param player the player
+     * @return false if a player with the same id is already seated
+     */
+    public boolean add(
+        final Player player) {
+
+        if (this.players.putIfAbsent(player.getPlayerId(), player) != null) {
+            return false;
+        }
+        if (this.end == this.seats.length) {
+            compact();
+            if (this.end == this.seats.length) {
+                this.seats = Arrays.copyOf(this.seats, this.seats.length << 1);
+            }
+        }
+        player.setSeatIndex(this.end);
+        this.seats[this.end++] = player;
+        return true;
+    }
+
+    /**
+     * method to find a player
+     * @param playerId the player id
+     * @return the player or null if the player is not seated
+     */
+    public Player find(
+        final int playerId) {
+
+        return this.players.get(playerId);
+    }
+
+    /**
+     * method to remove a player
+     * @param playerId the player id
+     * @return the removed player or null if the player is not seated
+     */
+    public Player removePlayer(
+        final int playerId) {
+
+        final Player player = this.players.remove(playerId);
+        if (player != null) {
+            this.seats[player.getSeatIndex()] = null;
+            if (this.end - this.players.size() > Math.max(INITIAL_CAPACITY, this.players.size())) {
+                compact();
+            }
+        }
+        return player;
+    }
+
+    @Override
+    public void clear() {
+
+        this.players.clear();
+        Arrays.fill(this.seats, 0, this.end, null);
+        this.end = 0;
+    }
+
+    @Override
+    public int size() {
+
+        return this.players.size();
+    }
+
+    @Override
+    public Player get(
+        final int index) {
+
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        compact();
+        return this.seats[index];
+    }
+
+    @Override
+    public Iterator<Player> iterator() {
+
+        return new Iterator<Player>() {
+
+            private int next = skipHoles(0);
+
+            @Override
+            public boolean hasNext() {
+
+                return this.next < Seats.this.end;
+            }
+
+            @Override
+            public Player next() {
+
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Player player = Seats.this.seats[this.next];
+                this.next = skipHoles(this.next + 1);
+                return player;
+            }
+        };
+    }
+
+    private int skipHoles(
+        final int from) {
+
+        int index = from;
+        while (index < this.end && this.seats[index] == null) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * moves the players over the holes left by the removed players, keeping the seat order
+     */
+    private void compact() {
+
+        if (this.end == this.players.size()) {
+            return;
+        }
+        int seated = 0;
+        for (int i = 0; i < this.end; i++) {
+            final Player player = this.seats[i];
+            if (player != null) {
+                player.setSeatIndex(seated);
+                this.seats[seated++] = player;
+            }
+        }
+        Arrays.fill(this.seats, seated, this.end, null);
+        this.end = seated;
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.github.amirsassi.cards.game.api.domain;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The shoe of a game: the cards of all its decks in one contiguous byte array of card ordinals, dealt from a single
+ * cursor, so dealing from an 8-deck shoe costs the same as from one deck and the cards of the decks mix when the shoe
+ * is shuffled. The cards before the cursor are dealt, the undealt cards are the slice from the cursor to the end.
+ * <p>
+ * A shuffle can place a cut card after a share of the undealt cards, the penetration: once the cut card is reached the
+ * shoe is due for a reshuffle. The last deck of a shoe is always dealt without cut card.
+ * <p>
+ * The shoe is not thread-safe, except {@link #claim()}: several threads holding the game shared lock can claim cards
+ * concurrently, each card is claimed once. The other methods need the game lock
+ * @author Amir.Sassi
+ */
+public class Shoe
+    extends PackedCards {
+
+    private static final VarHandle TOP;
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(Shoe.class, "top", int.class);
+        } catch (final ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    private byte[] cards;
+
+    private int top;
+
+    private int end;
+
+    /**
+     * the position of the cut card, the end of the shoe when there is none
+     */
+    private int cutCard;
+
+    private int decks;
+
+    public Shoe() {
+
+        super();
+        this.cards = new byte[Card.CARDS_PER_DECK];
+    }
+
+    /**
+     * restores a partially dealt shoe, the dealt cards are not kept
+     * @param pDecks the number of decks added to the shoe
+     * @param pUndealtCards the ordinals of the undealt cards from the top of the shoe
+     * @param pCutCard the number of undealt cards before the cut card, or the number of undealt cards without cut card
+     */
+    public Shoe(final int pDecks, final byte[] pUndealtCards, final int pCutCard) {
+
+        super();
+        this.decks = pDecks;
+        this.cards = pUndealtCards.clone();
+        this.end = pUndealtCards.length;
+        this.cutCard = Math.min(pCutCard, this.end);
+    }
+
+    /**
+     * method to add the cards of a deck under the undealt cards of the shoe, the cut card does not move
+     * @param deck the deck
+     */
+    public void addDeck(
+        final Deck deck) {
+
+        final int size = deck.size();
+        if (this.end + size > this.cards.length) {
+            // the dealt cards are dropped rather than copied
+            final byte[] grown = new byte[Math.max(size() + size, this.cards.length << 1)];
+            System.arraycopy(this.cards, this.top, grown, 0, size());
+            this.cutCard -= this.top;
+            this.end -= this.top;
+            this.top = 0;
+            this.cards = grown;
+        }
+        final boolean withoutCutCard = this.cutCard == this.end;
+        for (int i = 0; i < size; i++) {
+            this.cards[this.end++] = (byte) deck.ordinalAt(i);
+        }
+        if (withoutCutCard) {
+            this.cutCard = this.end;
+        }
+        this.decks++;
+    }
+
+    /**
+     * method to get the number of decks added to the shoe
+     * @return the number of decks
+     */
+    public int getDecks() {
+
+        return this.decks;
+    }
+
+    /**
+     * method to get the number of undealt cards
+     * @return the number of undealt cards
+     */
+    @Override
+    public int size() {
+
+        return this.end - this.top;
+    }
+
+    /**
+     * method to get the ordinal of an undealt card
+     * @param index the position from the top of the shoe
+     * @return the card ordinal
+     */
+    @Override
+    public int ordinalAt(
+        final int index) {
+
+        return this.cards[this.top + index];
+    }
+
+    /**
+     * method to get the card on top of the shoe without dealing it, the shoe must not be empty
+     * @return the card ordinal
+     */
+    public int peek() {
+
+        return this.cards[this.top];
+    }
+
+    /**
+     * method to deal the card on top of the shoe, the shoe must not be empty
+     * @return the card ordinal
+     */
+    public int deal() {
+
+        return this.cards[this.top++];
+    }
+
+    /**
+     * method to deal the card on top of the shoe while other threads deal from it, the cursor is moved by a CAS so
+     * each card is claimed by one thread
+     * @return the card ordinal, -1 if the shoe is empty
+     */
+    public int claim() {
+
+        int claimed;
+        do {
+            claimed = (int) TOP.getVolatile(this);
+            if (claimed >= this.end) {
+                return -1;
+            }
+        } while (!TOP.compareAndSet(this, claimed, claimed + 1));
+        return this.cards[claimed];
+    }
+
+    /**
+     * method to deal a given undealt card, moved to the top of the shoe first, to replay a claimed card: the cards
+     * claimed concurrently may be replayed in another order, or some of them not at all after a crash
+     * @param ordinal the card ordinal
+     * @return true if the card was dealt, false if the shoe does not hold it
+     */
+    public boolean deal(
+        final int ordinal) {
+
+        for (int i = this.top; i < this.end; i++) {
+            if (this.cards[i] == ordinal) {
+                this.cards[i] = this.cards[this.top];
+                this.cards[this.top++] = (byte) ordinal;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * method to swap two undealt cards of the shoe
+     * @param index the first card position from the top of the shoe
+     * @param other the second card position from the top of the shoe
+     */
+    public void swap(
+        final int index,
+        final int other) {
+
+        final byte ordinal = this.cards[this.top + index];
+        this.cards[this.top + index] = this.cards[this.top + other];
+        this.cards[this.top + other] = ordinal;
+    }
+
+    /**
+     * method to place the cut card after a share of the undealt cards, after a shuffle. No cut card is placed when
+     * one deck or less is left, nor with a penetration of 1
+     * @param penetration the share of the undealt cards dealt before the cut card, between 0 and 1
+     */
+    public void placeCutCard(
+        final double penetration) {
+
+        if (size() <= Card.CARDS_PER_DECK || penetration >= 1) {
+            this.cutCard = this.end;
+        } else {
+            this.cutCard = this.top + Math.max(1, (int) (size() * penetration));
+        }
+    }
+
+    /**
+     * method to get the position of the cut card
+     * @return the number of undealt cards before the cut card, 0 once reached, the number of undealt cards without cut
+     *         card
+     */
+    public int getCutCard() {
+
+        return Math.max(0, this.cutCard - this.top);
+    }
+
+    /**
+     * method to know if the shoe is due for a reshuffle
+     * @return true if the cut card is reached and cards are left
+     */
+    public boolean isCutCardReached() {
+
+        return this.top >= this.cutCard && this.top < this.end;
+    }
+
+    /**
+     * method to get a copy of the undealt cards
+     * @return the ordinals of the undealt cards from the top of the shoe
+     */
+    public byte[] getUndealtOrdinals() {
+
+        return Arrays.copyOfRange(this.cards, this.top, this.end);
+    }
+
+    /**
+     * method to get a read-only view of the undealt cards
+     * @return the list of undealt cards
+     */
+    public List<Card> getCards() {
+
+        return asList();
+    }
+
+}
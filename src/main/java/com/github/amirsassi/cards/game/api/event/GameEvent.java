@@ -0,0 +1,182 @@
+package com.github.amirsassi.cards.game.api.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.amirsassi.cards.game.api.domain.Card;
+
+/**
+ * A change of a game, as a delta of its state: the cards dealt to each player, the number of added decks or the player
+ * who joined or left. Each event carries the version of the game after its change, so a client that reloads the state
+ * of the game on a SYNC event drops the deltas whose version is not greater than the version it loaded, the number
+ * after the dash of the ETag. The events are immutable, two successive events of the same type are merged by
+ * {@link #merge(GameEvent)} when a subscriber lags behind, the merged event carries the greater version
+ * @author Amir.Sassi
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class GameEvent {
+
+    private final GameEventType type;
+
+    private final int gameId;
+
+    private final long version;
+
+    private final Integer playerId;
+
+    private final Integer decks;
+
+    private final Map<Integer, List<Card>> cards;
+
+    private GameEvent(final GameEventType pType, final int pGameId, final long pVersion, final Integer pPlayerId,
+        final Integer pDecks, final Map<Integer, List<Card>> pCards) {
+
+        this.type = pType;
+        this.gameId = pGameId;
+        this.version = pVersion;
+        this.playerId = pPlayerId;
+        this.decks = pDecks;
+        this.cards = pCards;
+    }
+
+    public static GameEvent sync(
+        final int gameId,
+        final long version) {
+
+        return new GameEvent(GameEventType.SYNC, gameId, version, null, null, null);
+    }
+
+    /**
+     * @param version the version of the game after the deal
+     * @param cards the dealt cards by player id, owned by the event
+     */
+    public static GameEvent dealt(
+        final int gameId,
+        final long version,
+        final Map<Integer, List<Card>> cards) {
+
+        return new GameEvent(GameEventType.DEALT, gameId, version, null, null, cards);
+    }
+
+    public static GameEvent shuffled(
+        final int gameId,
+        final long version) {
+
+        return new GameEvent(GameEventType.SHUFFLED, gameId, version, null, null, null);
+    }
+
+    public static GameEvent deckAdded(
+        final int gameId,
+        final long version) {
+
+        return new GameEvent(GameEventType.DECK_ADDED, gameId, version, null, 1, null);
+    }
+
+    public static GameEvent joined(
+        final int gameId,
+        final long version,
+        final int playerId) {
+
+        return new GameEvent(GameEventType.JOINED, gameId, version, playerId, null, null);
+    }
+
+    public static GameEvent left(
+        final int gameId,
+        final long version,
+        final int playerId) {
+
+        return new GameEvent(GameEventType.LEFT, gameId, version, playerId, null, null);
+    }
+
+    public static GameEvent deleted(
+        final int gameId,
+        final long version) {
+
+        return new GameEvent(GameEventType.DELETED, gameId, version, null, null, null);
+    }
+
+    public static GameEvent moved(
+        final int gameId,
+        final long version) {
+
+        return new GameEvent(GameEventType.MOVED, gameId, version, null, null, null);
+    }
+
+    /**
+     * method to merge the next event of the game into this one, if the merged event has the same effect as both
+     * @param next the event that follows this one
+     * @return the merged event or null if the events cannot be merged
+     */
+    public GameEvent merge(
+        final GameEvent next) {
+
+        if (next.type != this.type) {
+            return null;
+        }
+        switch (this.type) {
+            case SYNC:
+            case SHUFFLED:
+                return next.version >= this.version ? next : this;
+            case DECK_ADDED:
+                return new GameEvent(this.type, this.gameId, Math.max(this.version, next.version), null,
+                    this.decks + next.decks, null);
+            case DEALT:
+                final Map<Integer, List<Card>> merged = new LinkedHashMap<>(this.cards);
+                next.cards.forEach((player, dealt) -> merged.merge(player, dealt, (previous, added) -> {
+                    final List<Card> all = new ArrayList<>(previous.size() + added.size());
+                    all.addAll(previous);
+                    all.addAll(added);
+                    return all;
+                }));
+                // the concurrent deals to different players may be offered out of version order
+                return new GameEvent(this.type, this.gameId, Math.max(this.version, next.version), null, null, merged);
+            default:
+                return null;
+        }
+    }
+
+    public GameEventType getType() {
+
+        return this.type;
+    }
+
+    public int getGameId() {
+
+        return this.gameId;
+    }
+
+    /**
+     * method to get the version of the game after the change
+     * @return the version, the number after the dash of the ETag of the game
+     */
+    public long getVersion() {
+
+        return this.version;
+    }
+
+    public Integer getPlayerId() {
+
+        return this.playerId;
+    }
+
+    public Integer getDecks() {
+
+        return this.decks;
+    }
+
+    public Map<Integer, List<Card>> getCards() {
+
+        return this.cards;
+    }
+
+    @Override
+    public String toString() {
+
+        return "GameEvent [type=" + this.type + ", gameId=" + this.gameId + ", version=" + this.version + ", playerId="
+            + this.playerId + ", decks=" + this.decks + ", cards=" + this.cards + "]";
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.github.amirsassi.cards.game.api.event;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The subscribers of the game changes, by game id. The game service publishes the changes of a game while holding its
+ * lock exclusively, so they are offered to every subscriber in the order they were made, except the deals to one
+ * player: they are published under the shared lock of the game and the lock of the hand, so the DEALT events of
+ * concurrent deals to different players may be offered concurrently and reach two subscribers in different orders.
+ * The deals to one player still reach every subscriber in order, and all the deals published before or after an
+ * exclusive change stay on their side of it. The subscribers buffer and deliver the events on their own threads, see
+ * {@link GameEventSubscription}. A game without subscribers costs a lookup in an empty map
+ * @author Amir.Sassi
+ */
+public class GameEventBus {
+
+    private final ConcurrentHashMap<Integer, List<GameEventSubscription>> subscriptions = new ConcurrentHashMap<>();
+
+    /**
+     * method to subscribe to the changes of a game, the caller must hold the game lock so that no change is missed
+     * between the first SYNC event and the next events
+     * @param gameId the game id
+     * @param version the version of the game, carried by the first SYNC event
+     * @param capacity the maximum number of pending events
+     * @return the subscription, to close when the subscriber leaves
+     */
+    public GameEventSubscription subscribe(
+        final int gameId,
+        final long version,
+        final int capacity) {
+
+        final GameEventSubscription subscription = new GameEventSubscription(this, gameId, version, capacity);
+        this.subscriptions.compute(gameId, (id, subscribers) -> {
+            final List<GameEventSubscription> added = subscribers == null ? new CopyOnWriteArrayList<>() : subscribers;
+            added.add(subscription);
+            return added;
+        });
+        return subscription;
+    }
+
+    /**
+     * method to tell if a game has subscribers, so that no event is built for nobody
+     * @param gameId the game id
+     * @return true if the changes of the game must be published
+     */
+    public boolean hasSubscribers(
+        final int gameId) {
+
+        return !this.subscriptions.isEmpty() && this.subscriptions.containsKey(gameId);
+    }
+
+    /**
+     * method to offer an event to the subscribers of its game, the caller must hold the game lock, or its shared lock
+     * and the hand lock of the player for a deal to one player
+     * @param event the event
+     */
+    public void publish(
+        final GameEvent event) {
+
+        final List<GameEventSubscription> subscribers = this.subscriptions.get(event.getGameId());
+        if (subscribers != null) {
+            for (final GameEventSubscription subscription : subscribers) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    /**
+     * method to count the subscribers of all the games
+     * @return the number of subscriptions
+     */
+    public int size() {
+
+        int size = 0;
+        for (final List<GameEventSubscription> subscribers : this.subscriptions.values()) {
+            size += subscribers.size();
+        }
+        return size;
+    }
+
+    void unsubscribe(
+        final GameEventSubscription subscription) {
+
+        this.subscriptions.computeIfPresent(subscription.getGameId(), (gameId, subscribers) -> {
+            subscribers.remove(subscription);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+}
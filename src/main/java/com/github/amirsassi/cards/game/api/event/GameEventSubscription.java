@@ -0,0 +1,190 @@
+package com.github.amirsassi.cards.game.api.event;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * The events of a game pending for one subscriber, in a bounded buffer. A publisher never waits for the subscriber:
+ * <ul>
+ * <li>an event is merged into the last pending event when they have the same type, so a burst of deals or shuffles
+ * takes one slot</li>
+ * <li>when the buffer is full, the pending events are dropped and replaced by a single SYNC event, and the next events
+ * are dropped until it is delivered: the subscriber reloads the state of the game instead of replaying the changes</li>
+ * </ul>
+ * The events are delivered one at a time on the executor given to {@link #listen}, in order, as long as the subscriber
+ * is ready. A SYNC event carries the version of the last change it stands for, and the deltas after it the versions of
+ * their own changes. The stream starts with a SYNC event and ends after a DELETED or MOVED event or when
+ * {@link #close()} is called
+ * @author Amir.Sassi
+ */
+public class GameEventSubscription
+    implements AutoCloseable {
+
+    private final GameEventBus bus;
+
+    private final int gameId;
+
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final ArrayDeque<GameEvent> pending;
+
+    /**
+     * the drain requests, only the request that raises it from 0 runs the delivery loop
+     */
+    private final AtomicInteger drains = new AtomicInteger();
+
+    private volatile Executor executor;
+
+    private volatile BooleanSupplier ready;
+
+    private volatile Consumer<GameEvent> consumer;
+
+    private volatile Runnable completion;
+
+    private volatile boolean completed;
+
+    private volatile boolean closed;
+
+    GameEventSubscription(final GameEventBus pBus, final int pGameId, final long pVersion, final int pCapacity) {
+
+        this.bus = pBus;
+        this.gameId = pGameId;
+        this.capacity = pCapacity;
+        this.pending = new ArrayDeque<>(pCapacity);
+        this.pending.add(GameEvent.sync(pGameId, pVersion));
+    }
+
+    public int getGameId() {
+
+        return this.gameId;
+    }
+
+    /**
+     * method to start the delivery of the events
+     * @param pExecutor the executor of the delivery loop
+     * @param pReady tells if the subscriber can take an event now, the delivery resumes on the next call to
+     *            {@link #drain()} otherwise
+     * @param pConsumer the subscriber, called in order and never concurrently
+     * @param pCompletion called once after the DELETED or MOVED event or when the subscription is closed
+     */
+    public void listen(
+        final Executor pExecutor,
+        final BooleanSupplier pReady,
+        final Consumer<GameEvent> pConsumer,
+        final Runnable pCompletion) {
+
+        this.executor = pExecutor;
+        this.ready = pReady;
+        this.consumer = pConsumer;
+        this.completion = pCompletion;
+        drain();
+    }
+
+    /**
+     * method to deliver the pending events, called when events are published and when the subscriber becomes ready
+     */
+    public void drain() {
+
+        if (this.consumer != null && this.drains.getAndIncrement() == 0) {
+            this.executor.execute(this::deliver);
+        }
+    }
+
+    /**
+     * method to stop the delivery and to unsubscribe, the pending events are dropped
+     */
+    @Override
+    public void close() {
+
+        this.closed = true;
+        this.bus.unsubscribe(this);
+        drain();
+    }
+
+    public boolean isClosed() {
+
+        return this.closed;
+    }
+
+    int size() {
+
+        this.lock.lock();
+        try {
+            return this.pending.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    void offer(
+        final GameEvent event) {
+
+        this.lock.lock();
+        try {
+            if (this.completed) {
+                return;
+            }
+            final GameEvent last = this.pending.peekLast();
+            if (last != null && last.getType() == GameEventType.SYNC && !event.getType().isLast()) {
+                // the state reloaded on the SYNC event will include this change
+                this.pending.pollLast();
+                this.pending.addLast(last.merge(GameEvent.sync(this.gameId, event.getVersion())));
+                return;
+            }
+            final GameEvent merged = last == null ? null : last.merge(event);
+            if (merged != null) {
+                this.pending.pollLast();
+                this.pending.addLast(merged);
+            } else if (this.pending.size() < this.capacity || event.getType().isLast()) {
+                this.pending.addLast(event);
+            } else {
+                this.pending.clear();
+                this.pending.addLast(GameEvent.sync(this.gameId, event.getVersion()));
+            }
+            this.completed = event.getType().isLast();
+        } finally {
+            this.lock.unlock();
+        }
+        drain();
+    }
+
+    private GameEvent poll() {
+
+        this.lock.lock();
+        try {
+            return this.pending.pollFirst();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void deliver() {
+
+        int missed = 1;
+        do {
+            if (this.completion != null) {
+                while (!this.closed && this.ready.getAsBoolean()) {
+                    final GameEvent event = poll();
+                    if (event == null) {
+                        break;
+                    }
+                    this.consumer.accept(event);
+                }
+                if (this.closed || this.completed && size() == 0) {
+                    final Runnable done = this.completion;
+                    this.completion = null;
+                    this.bus.unsubscribe(this);
+                    done.run();
+                }
+            }
+            missed = this.drains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.github.amirsassi.cards.game.api.event;
+
+/**
+ * The changes of a game pushed to its subscribers
+ * @author Amir.Sassi
+ */
+public enum GameEventType {
+
+    /**
+     * the subscriber must reload the state of the game: sent first, then in place of the events a slow subscriber lost
+     */
+    SYNC,
+
+    /**
+     * cards were dealt, by player id
+     */
+    DEALT,
+
+    /**
+     * the undealt cards were shuffled
+     */
+    SHUFFLED,
+
+    /**
+     * decks were added to the undealt cards
+     */
+    DECK_ADDED,
+
+    /**
+     * a player joined the game
+     */
+    JOINED,
+
+    /**
+     * a player left the game
+     */
+    LEFT,
+
+    /**
+     * the game was deleted, the last event of the stream
+     */
+    DELETED,
+
+    /**
+     * the game moved to another node of the cluster, the last event of the stream: the client subscribes again to
+     * follow the game on its new node
+     */
+    MOVED;
+
+    /**
+     * method to know if the event ends the stream of the game
+     * @return true for DELETED and MOVED
+     */
+    public boolean isLast() {
+
+        return this == DELETED || this == MOVED;
+    }
+
+}
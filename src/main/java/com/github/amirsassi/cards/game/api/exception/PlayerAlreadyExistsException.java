@@ -0,0 +1,13 @@
+package com.github.amirsassi.cards.game.api.exception;
+
+public class PlayerAlreadyExistsException
+    extends Exception {
+
+    private static final String PLAYER_ALREADY_EXISTS = "Player %d already exists";
+
+    public PlayerAlreadyExistsException(final Integer playerId) {
+
+        super(String.format(PLAYER_ALREADY_EXISTS, playerId));
+
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.amirsassi.cards.game.api.exception;
+
+public class SnapshotNotFoundException
+    extends Exception {
+
+    private static final String SNAPSHOT_NOT_FOUND = "Snapshot %s not found";
+
+    public SnapshotNotFoundException(final String name) {
+
+        super(String.format(SNAPSHOT_NOT_FOUND, name));
+
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.amirsassi.cards.game.api.persistence;
+
+import java.util.List;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.registry.GameRegistry;
+
+/**
+ * Journal that records nothing, the games only live in memory
+ * @author Amir.Sassi
+ */
+public class DisabledGameJournal
+    implements GameJournal {
+
+    @Override
+    public void open(
+        final GameRegistry games) {
+
+        // nothing to restore
+    }
+
+    @Override
+    public void created(
+        final Game game) {
+
+        // not journaled
+    }
+
+    @Override
+    public void deleted(
+        final Game game) {
+
+        // not journaled
+    }
+
+    @Override
+    public void deckAdded(
+        final Game game,
+        final Deck deck) {
+
+        // not journaled
+    }
+
+    @Override
+    public void playerAdded(
+        final Game game,
+        final Player player) {
+
+        // not journaled
+    }
+
+    @Override
+    public void playerRemoved(
+        final Game game,
+        final int playerId) {
+
+        // not journaled
+    }
+
+    @Override
+    public void dealt(
+        final Game game,
+        final int playerId,
+        final int ordinal) {
+
+        // not journaled
+    }
+
+    @Override
+    public void dealtRounds(
+        final Game game,
+        final List<Player> players,
+        final int rounds) {
+
+        // not journaled
+    }
+
+    @Override
+    public void shuffled(
+        final Game game) {
+
+        // not journaled
+    }
+
+    @Override
+    public void snapshot() {
+
+        // nothing to write
+    }
+
+    @Override
+    public void close() {
+
+        // nothing to write
+    }
+
+}
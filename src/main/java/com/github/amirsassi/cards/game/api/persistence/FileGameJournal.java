@@ -0,0 +1,277 @@
+package com.github.amirsassi.cards.game.api.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.FileSystemUtils;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.registry.GameRegistry;
+
+/**
+ * Game journal on the local disk: an append-only log of the game changes written with group commit (see
+ * {@link JournalWriter}) and periodic snapshots of all the games.
+ * <p>
+ * Each game remembers the sequence number of its last record. A snapshot first starts a new journal segment then
+ * copies the games one at a time under their lock, so it is not atomic: on restart the latest snapshot is loaded and
+ * the segments written since are replayed, skipping the records a game already holds. Deals are replayed, since they
+ * only depend on the order of the shoe, and shuffles, including the reshuffles at the cut card, record the resulting
+ * order of the undealt cards and the cut card
+ * @author Amir.Sassi
+ */
+public class FileGameJournal
+    extends RecordingGameJournal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileGameJournal.class);
+
+    private static final String SNAPSHOT = "snapshot-%020d";
+
+    private final Path directory;
+
+    private final int bufferSize;
+
+    private final boolean fsync;
+
+    private final Duration snapshotInterval;
+
+    private final ThreadFactory threadFactory;
+
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private GameRegistry games;
+
+    private JournalWriter writer;
+
+    private ScheduledExecutorService snapshots;
+
+    /**
+     * @param pDirectory the directory of the segments and snapshots
+     * @param pBufferSize the size of the group commit buffers
+     * @param pFsync true to force every batch to the disk, false to leave the writes to the operating system
+     * @param pSnapshotInterval the period of the snapshots, zero to only snapshot on close
+     * @param pThreadFactory the factory of the writer and snapshot threads
+     */
+    public FileGameJournal(final Path pDirectory, final int pBufferSize, final boolean pFsync,
+        final Duration pSnapshotInterval, final ThreadFactory pThreadFactory) {
+
+        super();
+        this.directory = pDirectory;
+        this.bufferSize = pBufferSize;
+        this.fsync = pFsync;
+        this.snapshotInterval = pSnapshotInterval;
+        this.threadFactory = pThreadFactory;
+    }
+
+    @Override
+    public void open(
+        final GameRegistry pGames)
+        throws IOException {
+
+        this.games = pGames;
+        Files.createDirectories(this.directory);
+
+        final long start = System.nanoTime();
+        long nextSequence = 1;
+        MappedSnapshot.recoverAll(this.directory);
+        final Path snapshot = latestSnapshot();
+        if (snapshot != null) {
+            nextSequence = readSnapshot(snapshot);
+        }
+        for (final Path segment : segments()) {
+            if (JournalWriter.firstSequence(segment) >= nextSequence) {
+                nextSequence = replay(segment, JournalWriter.firstSequence(segment));
+            }
+        }
+        LOGGER.info("Restored {} games from {} in {} ms", pGames.size(), this.directory,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        this.writer = new JournalWriter(this.directory, nextSequence, this.bufferSize, this.fsync, this.threadFactory);
+        if (!this.snapshotInterval.isZero()) {
+            this.snapshots = Executors.newSingleThreadScheduledExecutor(this.threadFactory);
+            final long period = this.snapshotInterval.toMillis();
+            this.snapshots.scheduleWithFixedDelay(() -> {
+                try {
+                    snapshot();
+                } catch (final IOException | UncheckedIOException exception) {
+                    LOGGER.error("Snapshot of the games failed", exception);
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * one snapshot at a time: the periodic snapshots and the final snapshot may overlap
+     */
+    @Override
+    public void snapshot()
+        throws IOException {
+
+        this.snapshotLock.lock();
+        try {
+            final long boundary = this.writer.rotate();
+            final Path snapshot = this.directory.resolve(String.format(SNAPSHOT, boundary));
+            MappedSnapshot.write(snapshot, this.games, boundary);
+
+            // the snapshot holds every record before the boundary
+            for (final Path older : snapshots()) {
+                if (!older.equals(snapshot)) {
+                    FileSystemUtils.deleteRecursively(older);
+                }
+            }
+            for (final Path segment : segments()) {
+                if (JournalWriter.firstSequence(segment) < boundary) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+        } finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void close()
+        throws IOException {
+
+        if (this.snapshots != null) {
+            this.snapshots.shutdownNow();
+        }
+        if (this.writer != null) {
+            snapshot();
+            this.writer.close();
+        }
+    }
+
+    @Override
+    protected void record(
+        final Game game,
+        final byte type,
+        final byte[] payload,
+        final int length) {
+
+        game.advanceJournalSequence(this.writer.append(type, payload, length));
+    }
+
+    /**
+     * method to wait until the records appended before the call are written
+     */
+    void flush() {
+
+        this.writer.flush();
+    }
+
+    /**
+     * loads the games of a snapshot
+     * @return the sequence number of the first record not held by the snapshot
+     */
+    private long readSnapshot(
+        final Path snapshot)
+        throws IOException {
+
+        return MappedSnapshot.read(snapshot, this.games::putIfAbsent);
+    }
+
+    /**
+     * replays the records of a segment until its end or its first torn record
+     * @return the sequence number following the last replayed record
+     */
+    private long replay(
+        final Path segment,
+        final long firstSequence)
+        throws IOException {
+
+        long expected = firstSequence;
+        try (FileChannel channel = FileChannel.open(segment)) {
+            final MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            final CRC32C crc = new CRC32C();
+            while (in.remaining() >= JournalWriter.HEADER_SIZE) {
+                final int bodySize = in.getInt();
+                final int checksum = in.getInt();
+                if (bodySize < JournalWriter.BODY_HEADER_SIZE || bodySize > in.remaining()) {
+                    break;
+                }
+                final ByteBuffer body = in.slice();
+                body.limit(bodySize);
+                crc.reset();
+                crc.update(body);
+                body.rewind();
+                if ((int) crc.getValue() != checksum || body.getLong() != expected) {
+                    break;
+                }
+                apply(expected++, body.get(), body);
+                in.position(in.position() + bodySize);
+            }
+            if (in.hasRemaining()) {
+                LOGGER.warn("Journal segment {} ends with a torn record after {}", segment, expected - 1);
+            }
+        }
+        return expected;
+    }
+
+    private void apply(
+        final long sequence,
+        final byte type,
+        final ByteBuffer in) {
+
+        if (type == CREATED) {
+            final Game game = GameCodec.readGame(in);
+            game.setJournalSequence(sequence);
+            this.games.putIfAbsent(game);
+            return;
+        }
+
+        final Game game = this.games.get(in.getInt());
+        if (game == null || game.getJournalSequence() >= sequence) {
+            // the game was deleted or the snapshot already holds the record
+            return;
+        }
+        game.setJournalSequence(sequence);
+        if (type == DELETED) {
+            this.games.remove(game.getGameId());
+        } else {
+            apply(game, type, in);
+        }
+    }
+
+    private Path latestSnapshot()
+        throws IOException {
+
+        final List<Path> snapshots = snapshots();
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+
+    private List<Path> snapshots()
+        throws IOException {
+
+        try (Stream<Path> files = Files.list(this.directory)) {
+            return files.filter(file -> file.getFileName().toString().matches("snapshot-\\d{20}")).sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private List<Path> segments()
+        throws IOException {
+
+        try (Stream<Path> files = Files.list(this.directory)) {
+            return files.filter(file -> JournalWriter.firstSequence(file) >= 0).sorted().collect(Collectors.toList());
+        }
+    }
+
+
+}
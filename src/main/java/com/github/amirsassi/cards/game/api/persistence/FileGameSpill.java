@@ -0,0 +1,122 @@
+package com.github.amirsassi.cards.game.api.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.registry.GameSpill;
+
+/**
+ * Directory of the evicted games, one file per game: the journal sequence number of the game as a long, then the
+ * game encoded by {@link GameCodec}. A file is written aside then renamed, so a crash leaves either the previous or the
+ * new file. The files outlive the process, the games evicted before a restart are found again
+ * @author Amir.Sassi
+ */
+public class FileGameSpill
+    implements GameSpill {
+
+    private static final String FILE = "game-%d.bin";
+
+    private static final String TEMPORARY_FILE = "game-%d.tmp";
+
+    private static final Pattern NAME = Pattern.compile("game-(-?\\d+)\\.bin");
+
+    private final Path directory;
+
+    private final boolean fsync;
+
+    /**
+     * @param pDirectory the directory of the evicted games
+     * @param pFsync true to force every file to the disk before it replaces the previous one
+     */
+    public FileGameSpill(final Path pDirectory, final boolean pFsync) {
+
+        super();
+        this.directory = pDirectory;
+        this.fsync = pFsync;
+    }
+
+    @Override
+    public int[] open()
+        throws IOException {
+
+        Files.createDirectories(this.directory);
+        int[] gameIds = new int[16];
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)) {
+            for (final Path file : files) {
+                final Matcher matcher = NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    if (count == gameIds.length) {
+                        gameIds = Arrays.copyOf(gameIds, count << 1);
+                    }
+                    gameIds[count++] = Integer.parseInt(matcher.group(1));
+                } else if (file.getFileName().toString().endsWith(".tmp")) {
+                    // left by a crash before its rename, the previous file or the journal holds the game
+                    Files.delete(file);
+                }
+            }
+        }
+        return Arrays.copyOf(gameIds, count);
+    }
+
+    @Override
+    public void write(
+        final Game game)
+        throws IOException {
+
+        final Path temporary = this.directory.resolve(String.format(TEMPORARY_FILE, game.getGameId()));
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(
+                channel)));
+            out.writeLong(game.getJournalSequence());
+            GameCodec.writeGame(out, game);
+            out.flush();
+            if (this.fsync) {
+                channel.force(false);
+            }
+        }
+        Files.move(temporary, fileOf(game.getGameId()), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public Game read(
+        final int gameId)
+        throws IOException {
+
+        final ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(fileOf(gameId)));
+        final long journalSequence = in.getLong();
+        final Game game = GameCodec.readGame(in);
+        game.setJournalSequence(journalSequence);
+        return game;
+    }
+
+    @Override
+    public void delete(
+        final int gameId)
+        throws IOException {
+
+        Files.deleteIfExists(fileOf(gameId));
+    }
+
+    private Path fileOf(
+        final int gameId) {
+
+        return this.directory.resolve(String.format(FILE, gameId));
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.github.amirsassi.cards.game.api.persistence;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Hand;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.domain.Shoe;
+
+/**
+ * Binary encoding of the games shared by the journal and the snapshots, the cards are written as one byte ordinal:
+ * <ul>
+ * <li>game: int id, long shuffles, the shoe, int player count, the players in seat order</li>
+ * <li>shoe: int deck count, int undealt card count, int undealt cards before the cut card, the undealt cards from the
+ * top of the shoe</li>
+ * <li>deck: byte card count, the cards from the top of the deck</li>
+ * <li>player: int id, int name length in bytes or -1 without name, UTF-8 name, int card count, the cards</li>
+ * </ul>
+ * The games are written while holding their lock and read before being shared
+ * @author Amir.Sassi
+ */
+public final class GameCodec {
+
+    private static final int NO_NAME = -1;
+
+    private GameCodec() {
+
+        super();
+    }
+
+    /**
+     * method to write a game with its decks and players
+     * @param out the output
+     * @param game the game
+     * @throws IOException if the output fails
+     */
+    public static void writeGame(
+        final DataOutput out,
+        final Game game)
+        throws IOException {
+
+        out.writeInt(game.getGameId());
+        out.writeLong(game.getShuffles());
+        writeShoe(out, game.getShoe());
+        out.writeInt(game.getPlayers().size());
+        for (final Player player : game.getPlayers()) {
+            writePlayer(out, player);
+        }
+    }
+
+    /**
+     * method to read a game written by {@link #writeGame(DataOutput, Game)}
+     * @param in the input
+     * @return the game, seated and ranked
+     */
+    public static Game readGame(
+        final ByteBuffer in) {
+
+        final Game game = new Game();
+        game.setGameId(in.getInt());
+        game.setShuffles(in.getLong());
+        game.setShoe(readShoe(in));
+        final int players = in.getInt();
+        for (int i = 0; i < players; i++) {
+            game.addPlayer(readPlayer(in));
+        }
+        return game;
+    }
+
+    /**
+     * method to write the undealt cards of a shoe and its cut card
+     * @param out the output
+     * @param shoe the shoe
+     * @throws IOException if the output fails
+     */
+    public static void writeShoe(
+        final DataOutput out,
+        final Shoe shoe)
+        throws IOException {
+
+        out.writeInt(shoe.getDecks());
+        out.writeInt(shoe.size());
+        out.writeInt(shoe.getCutCard());
+        for (int i = 0; i < shoe.size(); i++) {
+            out.writeByte(shoe.ordinalAt(i));
+        }
+    }
+
+    /**
+     * method to read a shoe written by {@link #writeShoe(DataOutput, Shoe)}
+     * @param in the input
+     * @return the shoe
+     */
+    public static Shoe readShoe(
+        final ByteBuffer in) {
+
+        final int decks = in.getInt();
+        final byte[] undealtCards = new byte[in.getInt()];
+        final int cutCard = in.getInt();
+        in.get(undealtCards);
+        return new Shoe(decks, undealtCards, cutCard);
+    }
+
+    /**
+     * method to write the cards of a deck
+     * @param out the output
+     * @param deck the deck
+     * @throws IOException if the output fails
+     */
+    public static void writeDeck(
+        final DataOutput out,
+        final Deck deck)
+        throws IOException {
+
+        out.writeByte(deck.size());
+        for (int i = 0; i < deck.size(); i++) {
+            out.writeByte(deck.ordinalAt(i));
+        }
+    }
+
+    /**
+     * method to read a deck written by {@link #writeDeck(DataOutput, Deck)}
+     * @param in the input
+     * @return the deck
+     */
+    public static Deck readDeck(
+        final ByteBuffer in) {
+
+        final byte[] cards = new byte[in.get()];
+        in.get(cards);
+        return new Deck(cards);
+    }
+
+    /**
+     * method to write a player and its cards
+     * @param out the output
+     * @param player the player
+     * @throws IOException if the output fails
+     */
+    public static void writePlayer(
+        final DataOutput out,
+        final Player player)
+        throws IOException {
+
+        out.writeInt(player.getPlayerId());
+        if (player.getPlayerName() == null) {
+            out.writeInt(NO_NAME);
+        } else {
+            final byte[] name = player.getPlayerName().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(name.length);
+            out.write(name);
+        }
+        final Hand hand = player.getHand();
+        out.writeInt(hand.size());
+        for (int i = 0; i < hand.size(); i++) {
+            out.writeByte(hand.ordinalAt(i));
+        }
+    }
+
+    /**
+     * method to read a player written by {@link #writePlayer(DataOutput, Player)}
+     * @param in the input
+     * @return the player, not seated
+     */
+    public static Player readPlayer(
+        final ByteBuffer in) {
+
+        final Player player = new Player(in.getInt());
+        final int nameLength = in.getInt();
+        if (nameLength != NO_NAME) {
+            final byte[] name = new byte[nameLength];
+            in.get(name);
+            player.setPlayerName(new String(name, StandardCharsets.UTF_8));
+        }
+        final Hand hand = player.getHand();
+        final int cards = in.getInt();
+        for (int i = 0; i < cards; i++) {
+            hand.add(in.get());
+        }
+        return player;
+    }
+
+}
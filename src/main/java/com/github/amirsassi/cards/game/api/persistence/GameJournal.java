@@ -0,0 +1,113 @@
+package com.github.amirsassi.cards.game.api.persistence;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.registry.GameRegistry;
+
+/**
+ * Journal of the changes of the games. Every change is recorded after it is applied, while the lock of the game is
+ * held, so the records of a game are in the order of its changes. A record failure is reported by an
+ * {@link java.io.UncheckedIOException}
+ * @author Amir.Sassi
+ */
+public interface GameJournal {
+
+    /**
+     * method to restore the games from the journal and start journaling, called once before the first change
+     * @param games the empty registry to restore the games to, later snapshots are taken from it
+     * @throws IOException if the journal cannot be read or opened
+     */
+    void open(
+        GameRegistry games)
+        throws IOException;
+
+    /**
+     * method to record a created game with its players and decks
+     * @param game the game
+     */
+    void created(
+        Game game);
+
+    /**
+     * method to record a deleted game
+     * @param game the game
+     */
+    void deleted(
+        Game game);
+
+    /**
+     * method to record a deck added to a game
+     * @param game the game
+     * @param deck the added deck
+     */
+    void deckAdded(
+        Game game,
+        Deck deck);
+
+    /**
+     * method to record a player added to a game
+     * @param game the game
+     * @param player the added player
+     */
+    void playerAdded(
+        Game game,
+        Player player);
+
+    /**
+     * method to record a player removed from a game
+     * @param game the game
+     * @param playerId the player id
+     */
+    void playerRemoved(
+        Game game,
+        int playerId);
+
+    /**
+     * method to record the deal of a card to a player. The concurrent deals to the players of a game may be recorded in
+     * another order than their cards were taken from the shoe, so the card is recorded
+     * @param game the game
+     * @param playerId the player id
+     * @param ordinal the dealt card ordinal
+     */
+    void dealt(
+        Game game,
+        int playerId,
+        int ordinal);
+
+    /**
+     * method to record several rounds of deals
+     * @param game the game
+     * @param players the players in dealing order
+     * @param rounds the number of rounds
+     */
+    void dealtRounds(
+        Game game,
+        List<Player> players,
+        int rounds);
+
+    /**
+     * method to record a shuffle with the resulting order of the undealt cards
+     * @param game the game
+     */
+    void shuffled(
+        Game game);
+
+    /**
+     * method to write a snapshot of the games, the journal older than the snapshot is then deleted
+     * @throws IOException if the snapshot cannot be written
+     */
+    void snapshot()
+        throws IOException;
+
+    /**
+     * method to write the pending records and stop journaling
+     * @throws IOException if the pending records cannot be written
+     */
+    void close()
+        throws IOException;
+
+}
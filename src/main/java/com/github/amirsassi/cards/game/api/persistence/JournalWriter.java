@@ -0,0 +1,315 @@
+package com.github.amirsassi.cards.game.api.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only writer of the journal segments with group commit. The appenders only copy their record to the active
+ * buffer, a single writer thread swaps it with the spare buffer then writes and forces the batch to the segment while
+ * the next batch fills, so an append costs a buffer copy and the fsync cost is shared by all the records of a batch.
+ * <p>
+ * A segment is named after the sequence number of its first record, each record is framed as:
+ * int length, int CRC-32C, then the CRC-protected body: long sequence number, byte type, payload
+ * @author Amir.Sassi
+ */
+final class JournalWriter {
+
+    static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+
+    static final int BODY_HEADER_SIZE = Long.BYTES + Byte.BYTES;
+
+    private static final String SEGMENT = "journal-%020d.log";
+
+    private final Path directory;
+
+    private final boolean fsync;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition flushNeeded = this.lock.newCondition();
+
+    private final Condition bufferFree = this.lock.newCondition();
+
+    private final Condition written = this.lock.newCondition();
+
+    private final CRC32C crc = new CRC32C();
+
+    private final Thread thread;
+
+    private ByteBuffer active;
+
+    private ByteBuffer spare;
+
+    private long nextSequence;
+
+    private long writtenSequence;
+
+    private boolean rotateRequested;
+
+    private long rotatedAt;
+
+    private boolean closed;
+
+    private IOException failure;
+
+    private FileChannel channel;
+
+    /**
+     * opens a new segment and starts the writer thread
+     * @param pDirectory the journal directory
+     * @param pFirstSequence the sequence number of the first record
+     * @param pBufferSize the size of each of the two buffers
+     * @param pFsync true to force every batch to the disk
+     * @param pThreadFactory the factory of the writer thread
+     * @throws IOException if the segment cannot be created
+     */
+    JournalWriter(final Path pDirectory, final long pFirstSequence, final int pBufferSize, final boolean pFsync,
+        final ThreadFactory pThreadFactory)
+        throws IOException {
+
+        this.directory = pDirectory;
+        this.fsync = pFsync;
+        this.active = ByteBuffer.allocate(pBufferSize);
+        this.spare = ByteBuffer.allocate(pBufferSize);
+        this.nextSequence = pFirstSequence;
+        this.writtenSequence = pFirstSequence;
+        this.channel = openSegment(pFirstSequence);
+        this.thread = pThreadFactory.newThread(this::run);
+        this.thread.start();
+    }
+
+    static Path segment(
+        final Path directory,
+        final long firstSequence) {
+
+        return directory.resolve(String.format(SEGMENT, firstSequence));
+    }
+
+    /**
+     * method to parse the first sequence number of a segment from its name
+     * @param segment the segment path
+     * @return the first sequence number or -1 if the file is not a segment
+     */
+    static long firstSequence(
+        final Path segment) {
+
+        final String name = segment.getFileName().toString();
+        if (!name.startsWith("journal-") || !name.endsWith(".log")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length()));
+        } catch (final NumberFormatException exception) {
+            return -1;
+        }
+    }
+
+    /**
+     * method to append a record to the active buffer, waits only if the buffer is full
+     * @param type the record type
+     * @param payload the array holding the payload
+     * @param length the payload length
+     * @return the sequence number of the record
+     */
+    long append(
+        final byte type,
+        final byte[] payload,
+        final int length) {
+
+        final int bodySize = BODY_HEADER_SIZE + length;
+        final int size = HEADER_SIZE + bodySize;
+        this.lock.lock();
+        try {
+            checkOpen();
+            while (this.active.remaining() < size) {
+                if (this.active.position() == 0) {
+                    // larger than a whole buffer
+                    this.active = ByteBuffer.allocate(size);
+                    break;
+                }
+                this.flushNeeded.signal();
+                this.bufferFree.awaitUninterruptibly();
+                checkOpen();
+            }
+            final long sequence = this.nextSequence++;
+            final int position = this.active.position();
+            this.active.putInt(bodySize).putInt(0).putLong(sequence).put(type).put(payload, 0, length);
+            this.crc.reset();
+            this.crc.update(this.active.array(), position + HEADER_SIZE, bodySize);
+            this.active.putInt(position + Integer.BYTES, (int) this.crc.getValue());
+            this.flushNeeded.signal();
+            return sequence;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * method to start a new segment, the records appended before the call are written to the previous segments
+     * @return the sequence number of the first record of the new segment
+     */
+    long rotate() {
+
+        this.lock.lock();
+        try {
+            checkOpen();
+            this.rotateRequested = true;
+            this.flushNeeded.signal();
+            while (this.rotateRequested) {
+                this.written.awaitUninterruptibly();
+                checkOpen();
+            }
+            return this.rotatedAt;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * method to wait until the records appended before the call are written
+     */
+    void flush() {
+
+        this.lock.lock();
+        try {
+            final long target = this.nextSequence;
+            while (this.writtenSequence < target) {
+                checkOpen();
+                this.flushNeeded.signal();
+                this.written.awaitUninterruptibly();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * method to write the pending records and stop the writer thread
+     * @throws IOException if a batch could not be written
+     */
+    void close()
+        throws IOException {
+
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.flushNeeded.signal();
+        } finally {
+            this.lock.unlock();
+        }
+        try {
+            this.thread.join();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        this.channel.close();
+        if (this.failure != null) {
+            throw this.failure;
+        }
+    }
+
+    private void run() {
+
+        while (true) {
+            final ByteBuffer batch;
+            final boolean rotate;
+            final long next;
+            this.lock.lock();
+            try {
+                while (this.active.position() == 0 && !this.rotateRequested && !this.closed) {
+                    this.flushNeeded.awaitUninterruptibly();
+                }
+                if (this.active.position() == 0 && !this.rotateRequested) {
+                    return;
+                }
+                batch = this.active;
+                this.active = this.spare;
+                this.spare = null;
+                rotate = this.rotateRequested;
+                next = this.nextSequence;
+                this.bufferFree.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    this.channel.write(batch);
+                }
+                if (this.fsync) {
+                    this.channel.force(false);
+                }
+                if (rotate) {
+                    this.channel.close();
+                    this.channel = openSegment(next);
+                }
+            } catch (final IOException exception) {
+                fail(exception);
+                return;
+            }
+
+            batch.clear();
+            this.lock.lock();
+            try {
+                this.spare = batch;
+                this.writtenSequence = next;
+                if (rotate) {
+                    this.rotateRequested = false;
+                    this.rotatedAt = next;
+                }
+                this.written.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    private void fail(
+        final IOException exception) {
+
+        this.lock.lock();
+        try {
+            this.failure = exception;
+            this.bufferFree.signalAll();
+            this.written.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void checkOpen() {
+
+        if (this.failure != null) {
+            throw new UncheckedIOException(this.failure);
+        }
+        if (this.closed) {
+            throw new UncheckedIOException(new ClosedChannelException());
+        }
+    }
+
+    private FileChannel openSegment(
+        final long firstSequence)
+        throws IOException {
+
+        final FileChannel segment = FileChannel.open(segment(this.directory, firstSequence), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        if (this.fsync) {
+            segment.force(true);
+        }
+        return segment;
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.github.amirsassi.cards.game.api.persistence;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sequential writer of a file through a window of the file mapped in memory, the window is moved forward when it is
+ * full so the writes are plain memory copies. The file is truncated to the written size and forced on close
+ * @author Amir.Sassi
+ */
+final class MappedFileWriter
+    implements AutoCloseable {
+
+    private static final int WINDOW_SIZE = 1 << 24;
+
+    private final FileChannel channel;
+
+    private MappedByteBuffer window;
+
+    private long windowStart;
+
+    MappedFileWriter(final Path pFile)
+        throws IOException {
+
+        this.channel = FileChannel.open(pFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        this.window = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, WINDOW_SIZE);
+    }
+
+    MappedFileWriter putInt(
+        final int value)
+        throws IOException {
+
+        ensure(Integer.BYTES).putInt(value);
+        return this;
+    }
+
+    MappedFileWriter putLong(
+        final long value)
+        throws IOException {
+
+        ensure(Long.BYTES).putLong(value);
+        return this;
+    }
+
+    MappedFileWriter put(
+        final byte value)
+        throws IOException {
+
+        ensure(Byte.BYTES).put(value);
+        return this;
+    }
+
+    MappedFileWriter put(
+        final byte[] values)
+        throws IOException {
+
+        ensure(values.length).put(values);
+        return this;
+    }
+
+    /**
+     * method to get the number of written bytes
+     * @return the position in the file
+     */
+    long position() {
+
+        return this.windowStart + this.window.position();
+    }
+
+    @Override
+    public void close()
+        throws IOException {
+
+        final long size = position();
+        this.window.force();
+        this.window = null;
+        this.channel.truncate(size);
+        this.channel.force(true);
+        this.channel.close();
+    }
+
+    private MappedByteBuffer ensure(
+        final int length)
+        throws IOException {
+
+        if (this.window.remaining() < length) {
+            this.window.force();
+            this.windowStart = position();
+            this.window = this.channel.map(FileChannel.MapMode.READ_WRITE, this.windowStart,
+                Math.max(WINDOW_SIZE, length));
+        }
+        return this.window;
+    }
+
+}
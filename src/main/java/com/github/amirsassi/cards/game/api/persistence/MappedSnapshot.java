@@ -0,0 +1,265 @@
+package com.github.amirsassi.cards.game.api.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.util.FileSystemUtils;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Hand;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.domain.Shoe;
+import com.github.amirsassi.cards.game.api.registry.GameRegistry;
+
+/**
+ * Binary snapshot of the games, a directory of files written and read through memory mappings:
+ * <ul>
+ * <li>games.bin: int magic, int version, long journal boundary, then one 36 bytes record per game: int id, int deck
+ * count, int undealt card count, int undealt cards before the cut card, int player count, long shuffles, long journal
+ * sequence</li>
+ * <li>shoes.bin: the undealt cards of the shoes as ordinals, in game order</li>
+ * <li>players.bin: one 12 bytes record per player, in game and seat order: int id, int card count, int name length in
+ * bytes or -1 without name</li>
+ * <li>cards.bin, names.bin: the cards of the hands as ordinals and the UTF-8 names, in player order</li>
+ * </ul>
+ * The game and player records have a fixed width, so the number of games is known from the file size and restoring a game never
+ * parses more than its own records. A snapshot is written to a temporary directory renamed once complete, the snapshot
+ * it replaces is moved aside first and deleted once the new one is in place
+ * @author Amir.Sassi
+ */
+public final class MappedSnapshot {
+
+    private static final int MAGIC = 0x47534e50;
+
+    private static final int VERSION = 3;
+
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    private static final int GAME_RECORD_SIZE = 5 * Integer.BYTES + 2 * Long.BYTES;
+
+    private static final int NO_NAME = -1;
+
+    private static final String GAMES = "games.bin";
+
+    private static final String SHOES = "shoes.bin";
+
+    private static final String PLAYERS = "players.bin";
+
+    private static final String CARDS = "cards.bin";
+
+    private static final String NAMES = "names.bin";
+
+    /**
+     * the suffix of a snapshot moved aside while the snapshot of the same name replaces it
+     */
+    private static final String REPLACED = ".old";
+
+    private MappedSnapshot() {
+
+        super();
+    }
+
+    /**
+     * method to write a snapshot of the games, each game is copied while holding its lock
+     * @param snapshot the snapshot directory, replaced if it exists
+     * @param games the games
+     * @param boundary the sequence number of the first journal record not held by the snapshot, 0 without journal
+     * @return the number of games written
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static int write(
+        final Path snapshot,
+        final GameRegistry games,
+        final long boundary)
+        throws IOException {
+
+        recover(snapshot);
+        final Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        FileSystemUtils.deleteRecursively(temporary);
+        Files.createDirectories(temporary);
+
+        final int[] count = new int[1];
+        try (MappedFileWriter gameRecords = new MappedFileWriter(temporary.resolve(GAMES));
+            MappedFileWriter shoes = new MappedFileWriter(temporary.resolve(SHOES));
+            MappedFileWriter playerRecords = new MappedFileWriter(temporary.resolve(PLAYERS));
+            MappedFileWriter cards = new MappedFileWriter(temporary.resolve(CARDS));
+            MappedFileWriter names = new MappedFileWriter(temporary.resolve(NAMES))) {
+
+            gameRecords.putInt(MAGIC).putInt(VERSION).putLong(boundary);
+            games.forEach(game -> {
+                game.lock();
+                try {
+                    if (!game.isDeleted()) {
+                        writeGame(game, gameRecords, shoes, playerRecords, cards, names);
+                        count[0]++;
+                    }
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(exception);
+                } finally {
+                    game.unlock();
+                }
+            });
+        } catch (final UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+
+        // a crash between the two moves leaves the previous snapshot aside, put back by recover
+        final Path replaced = snapshot.resolveSibling(snapshot.getFileName() + REPLACED);
+        if (Files.exists(snapshot)) {
+            Files.move(snapshot, replaced, StandardCopyOption.ATOMIC_MOVE);
+        }
+        try {
+            Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException exception) {
+            recover(snapshot);
+            throw exception;
+        }
+        FileSystemUtils.deleteRecursively(replaced);
+        return count[0];
+    }
+
+    /**
+     * method to put back the snapshots of a directory moved aside by a write that did not complete
+     * @param directory the directory of the snapshots
+     * @throws IOException if the directory cannot be listed or a snapshot cannot be moved back
+     */
+    public static void recoverAll(
+        final Path directory)
+        throws IOException {
+
+        final List<Path> replaced;
+        try (Stream<Path> files = Files.list(directory)) {
+            replaced = files.filter(file -> file.getFileName().toString().endsWith(REPLACED))
+                .collect(Collectors.toList());
+        }
+        for (final Path each : replaced) {
+            final String name = each.getFileName().toString();
+            recover(each.resolveSibling(name.substring(0, name.length() - REPLACED.length())));
+        }
+    }
+
+    /**
+     * puts back a snapshot moved aside if the new one did not take its place, deletes it otherwise
+     */
+    private static void recover(
+        final Path snapshot)
+        throws IOException {
+
+        final Path replaced = snapshot.resolveSibling(snapshot.getFileName() + REPLACED);
+        if (!Files.isDirectory(replaced)) {
+            return;
+        }
+        if (Files.exists(snapshot)) {
+            FileSystemUtils.deleteRecursively(replaced);
+        } else {
+            Files.move(replaced, snapshot, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * method to read the games of a snapshot
+     * @param snapshot the snapshot directory
+     * @param action the action applied to each game, the games are seated and ranked but not registered
+     * @return the sequence number of the first journal record not held by the snapshot
+     * @throws IOException if the snapshot cannot be read
+     */
+    public static long read(
+        final Path snapshot,
+        final Consumer<Game> action)
+        throws IOException {
+
+        final MappedByteBuffer gameRecords = map(snapshot.resolve(GAMES));
+        if (gameRecords.remaining() < HEADER_SIZE || gameRecords.getInt() != MAGIC
+            || gameRecords.getInt() != VERSION) {
+            throw new IOException("Not a game snapshot: " + snapshot);
+        }
+        final long boundary = gameRecords.getLong();
+        final MappedByteBuffer shoes = map(snapshot.resolve(SHOES));
+        final MappedByteBuffer playerRecords = map(snapshot.resolve(PLAYERS));
+        final MappedByteBuffer cards = map(snapshot.resolve(CARDS));
+        final MappedByteBuffer names = map(snapshot.resolve(NAMES));
+
+        while (gameRecords.remaining() >= GAME_RECORD_SIZE) {
+            final Game game = new Game();
+            game.setGameId(gameRecords.getInt());
+            final int decks = gameRecords.getInt();
+            final byte[] undealtCards = new byte[gameRecords.getInt()];
+            final int cutCard = gameRecords.getInt();
+            final int players = gameRecords.getInt();
+            game.setShuffles(gameRecords.getLong());
+            final long journalSequence = gameRecords.getLong();
+
+            shoes.get(undealtCards);
+            game.setShoe(new Shoe(decks, undealtCards, cutCard));
+            for (int i = 0; i < players; i++) {
+                final Player player = new Player(playerRecords.getInt());
+                final int handSize = playerRecords.getInt();
+                final int nameLength = playerRecords.getInt();
+                if (nameLength != NO_NAME) {
+                    final byte[] name = new byte[nameLength];
+                    names.get(name);
+                    player.setPlayerName(new String(name, StandardCharsets.UTF_8));
+                }
+                final Hand hand = player.getHand();
+                for (int card = 0; card < handSize; card++) {
+                    hand.add(cards.get());
+                }
+                game.addPlayer(player);
+            }
+            game.setJournalSequence(journalSequence);
+            action.accept(game);
+        }
+        return boundary;
+    }
+
+    private static void writeGame(
+        final Game game,
+        final MappedFileWriter gameRecords,
+        final MappedFileWriter shoes,
+        final MappedFileWriter playerRecords,
+        final MappedFileWriter cards,
+        final MappedFileWriter names)
+        throws IOException {
+
+        final Shoe shoe = game.getShoe();
+        gameRecords.putInt(game.getGameId()).putInt(shoe.getDecks()).putInt(shoe.size()).putInt(shoe.getCutCard())
+            .putInt(game.getPlayers().size()).putLong(game.getShuffles()).putLong(game.getJournalSequence());
+        shoes.put(shoe.getUndealtOrdinals());
+        for (final Player player : game.getPlayers()) {
+            final Hand hand = player.getHand();
+            playerRecords.putInt(player.getPlayerId()).putInt(hand.size());
+            if (player.getPlayerName() == null) {
+                playerRecords.putInt(NO_NAME);
+            } else {
+                final byte[] name = player.getPlayerName().getBytes(StandardCharsets.UTF_8);
+                playerRecords.putInt(name.length);
+                names.put(name);
+            }
+            final byte[] handCards = new byte[hand.size()];
+            for (int i = 0; i < handCards.length; i++) {
+                handCards[i] = (byte) hand.ordinalAt(i);
+            }
+            cards.put(handCards);
+        }
+    }
+
+    private static MappedByteBuffer map(
+        final Path file)
+        throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+}
@@ -0,0 +1,271 @@
+package com.github.amirsassi.cards.game.api.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+
+/**
+ * Base of the journals that encode each game change as a binary record, a record type and a payload:
+ * <ul>
+ * <li>CREATED: the game encoded by {@link GameCodec}</li>
+ * <li>DELETED: int game id</li>
+ * <li>DECK_ADDED: int game id, the deck</li>
+ * <li>PLAYER_ADDED: int game id, the player</li>
+ * <li>PLAYER_REMOVED: int game id, int player id</li>
+ * <li>DEALT_ROUNDS: int game id, int rounds, int player count, the player ids in dealing order</li>
+ * <li>SHUFFLED: int game id, the shoe</li>
+ * <li>DEALT_CARD: int game id, int player id, byte card ordinal</li>
+ * </ul>
+ * The payloads are encoded in a buffer of the calling thread, the subclass copies them before returning
+ * @author Amir.Sassi
+ */
+public abstract class RecordingGameJournal
+    implements GameJournal {
+
+    public static final byte CREATED = 1;
+
+    public static final byte DELETED = 2;
+
+    public static final byte DECK_ADDED = 3;
+
+    public static final byte PLAYER_ADDED = 4;
+
+    public static final byte PLAYER_REMOVED = 5;
+
+    public static final byte DEALT_ROUNDS = 7;
+
+    public static final byte SHUFFLED = 8;
+
+    public static final byte DEALT_CARD = 9;
+
+    private static final ThreadLocal<RecordOutput> RECORDS = ThreadLocal.withInitial(RecordOutput::new);
+
+    protected RecordingGameJournal() {
+
+        super();
+    }
+
+    /**
+     * method to record an encoded change, called while holding the lock of the game
+     * @param game the changed game
+     * @param type the record type
+     * @param payload the array holding the payload, reused once the method returns
+     * @param length the payload length
+     */
+    protected abstract void record(
+        Game game,
+        byte type,
+        byte[] payload,
+        int length);
+
+    @Override
+    public void created(
+        final Game game) {
+
+        final RecordOutput out = RECORDS.get().reset();
+        try {
+            GameCodec.writeGame(out.data, game);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        append(game, CREATED, out);
+    }
+
+    @Override
+    public void deleted(
+        final Game game) {
+
+        append(game, DELETED, RECORDS.get().reset().writeInt(game.getGameId()));
+    }
+
+    @Override
+    public void deckAdded(
+        final Game game,
+        final Deck deck) {
+
+        final RecordOutput out = RECORDS.get().reset().writeInt(game.getGameId());
+        try {
+            GameCodec.writeDeck(out.data, deck);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        append(game, DECK_ADDED, out);
+    }
+
+    @Override
+    public void playerAdded(
+        final Game game,
+        final Player player) {
+
+        final RecordOutput out = RECORDS.get().reset().writeInt(game.getGameId());
+        try {
+            GameCodec.writePlayer(out.data, player);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        append(game, PLAYER_ADDED, out);
+    }
+
+    @Override
+    public void playerRemoved(
+        final Game game,
+        final int playerId) {
+
+        append(game, PLAYER_REMOVED, RECORDS.get().reset().writeInt(game.getGameId()).writeInt(playerId));
+    }
+
+    @Override
+    public void dealt(
+        final Game game,
+        final int playerId,
+        final int ordinal) {
+
+        append(game, DEALT_CARD, RECORDS.get().reset().writeInt(game.getGameId()).writeInt(playerId)
+            .writeByte(ordinal));
+    }
+
+    @Override
+    public void dealtRounds(
+        final Game game,
+        final List<Player> players,
+        final int rounds) {
+
+        final RecordOutput out = RECORDS.get().reset().writeInt(game.getGameId()).writeInt(rounds)
+            .writeInt(players.size());
+        for (final Player player : players) {
+            out.writeInt(player.getPlayerId());
+        }
+        append(game, DEALT_ROUNDS, out);
+    }
+
+    @Override
+    public void shuffled(
+        final Game game) {
+
+        final RecordOutput out = RECORDS.get().reset().writeInt(game.getGameId());
+        try {
+            GameCodec.writeShoe(out.data, game.getShoe());
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        append(game, SHUFFLED, out);
+    }
+
+    /**
+     * method to apply a change record to its game, the game id is already read. The deals of rounds are replayed,
+     * since they only depend on the order of the shoe
+     * @param game the game
+     * @param type the record type, neither CREATED nor DELETED
+     * @param in the payload after the game id
+     */
+    public static void apply(
+        final Game game,
+        final byte type,
+        final ByteBuffer in) {
+
+        switch (type) {
+            case DECK_ADDED:
+                game.addDeck(GameCodec.readDeck(in));
+                break;
+            case PLAYER_ADDED:
+                game.addPlayer(GameCodec.readPlayer(in));
+                break;
+            case PLAYER_REMOVED:
+                game.removePlayer(in.getInt());
+                break;
+            case DEALT_ROUNDS:
+                final int rounds = in.getInt();
+                final int count = in.getInt();
+                final List<Player> players = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    players.add(game.getPlayer(in.getInt()));
+                }
+                if (players.contains(null)) {
+                    break;
+                }
+                for (int round = 0; round < rounds; round++) {
+                    for (final Player each : players) {
+                        game.deal(each);
+                    }
+                }
+                break;
+            case SHUFFLED:
+                game.setShoe(GameCodec.readShoe(in));
+                game.nextShuffle();
+                break;
+            case DEALT_CARD:
+                final Player dealtTo = game.getPlayer(in.getInt());
+                if (dealtTo != null) {
+                    game.deal(dealtTo, in.get());
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    private void append(
+        final Game game,
+        final byte type,
+        final RecordOutput out) {
+
+        record(game, type, out.bytes.buffer(), out.bytes.size());
+    }
+
+    /**
+     * reusable encoder of a record payload
+     */
+    private static final class RecordOutput {
+
+        private final ExposedByteArrayOutputStream bytes = new ExposedByteArrayOutputStream();
+
+        private final DataOutputStream data = new DataOutputStream(this.bytes);
+
+        private RecordOutput reset() {
+
+            this.bytes.reset();
+            return this;
+        }
+
+        private RecordOutput writeByte(
+            final int value) {
+
+            this.bytes.write(value);
+            return this;
+        }
+
+        private RecordOutput writeInt(
+            final int value) {
+
+            try {
+                this.data.writeInt(value);
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            return this;
+        }
+    }
+
+    private static final class ExposedByteArrayOutputStream
+        extends ByteArrayOutputStream {
+
+        private ExposedByteArrayOutputStream() {
+
+            super(256);
+        }
+
+        private byte[] buffer() {
+
+            return this.buf;
+        }
+    }
+
+}
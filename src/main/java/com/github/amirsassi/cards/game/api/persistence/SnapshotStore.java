@@ -0,0 +1,76 @@
+package com.github.amirsassi.cards.game.api.persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.exception.SnapshotNotFoundException;
+import com.github.amirsassi.cards.game.api.registry.GameRegistry;
+
+/**
+ * Directory of the snapshots taken on demand, each snapshot is a {@link MappedSnapshot} named after the time it was
+ * taken. Only the names of this directory can be restored
+ * @author Amir.Sassi
+ */
+public class SnapshotStore {
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'games-'yyyyMMdd-HHmmss-SSS");
+
+    private static final Pattern NAME = Pattern.compile("games-\\d{8}-\\d{6}-\\d{3}");
+
+    private final Path directory;
+
+    public SnapshotStore(final Path pDirectory) {
+
+        super();
+        this.directory = pDirectory;
+    }
+
+    /**
+     * method to write a snapshot of the games
+     * @param games the games
+     * @return the snapshot name
+     * @throws IOException if the snapshot cannot be written
+     */
+    public String write(
+        final GameRegistry games)
+        throws IOException {
+
+        final String name = NAME_FORMAT.format(LocalDateTime.now());
+        MappedSnapshot.write(this.directory.resolve(name), games, 0);
+        return name;
+    }
+
+    /**
+     * method to read the games of a snapshot
+     * @param name the snapshot name
+     * @return the games, seated and ranked but not registered
+     * @throws SnapshotNotFoundException if the snapshot doesn't exist
+     * @throws IOException if the snapshot cannot be read
+     */
+    public List<Game> read(
+        final String name)
+        throws SnapshotNotFoundException,
+        IOException {
+
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new SnapshotNotFoundException(name);
+        }
+        if (Files.isDirectory(this.directory)) {
+            MappedSnapshot.recoverAll(this.directory);
+        }
+        if (!Files.isDirectory(this.directory.resolve(name))) {
+            throw new SnapshotNotFoundException(name);
+        }
+        final List<Game> games = new ArrayList<>();
+        MappedSnapshot.read(this.directory.resolve(name), games::add);
+        return games;
+    }
+
+}
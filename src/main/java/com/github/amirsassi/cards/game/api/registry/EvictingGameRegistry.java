@@ -0,0 +1,525 @@
+package com.github.amirsassi.cards.game.api.registry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.util.IntHashMap;
+
+/**
+ * Bounded game registry: the games are held by a {@link StripedGameRegistry} and a sweeper thread evicts the games
+ * idle for longer than the time to live, then the least recently looked up games while the registry holds more games
+ * or more estimated bytes than allowed. The games are never scanned: like a sampled LRU, the sweeper picks a few games
+ * at random and evicts the expired ones, or the least recently looked up one. The bounds are enforced by the sweeper,
+ * which a creation over the bounds wakes up, so a burst of creations exceeds them until the next sweep.
+ * <p>
+ * A game is evicted while holding its lock and marked as deleted, so an operation that locked it looks it up again.
+ * Without a {@link GameSpill} an evicted game is dropped, otherwise it is written to the spill and loaded again by the
+ * next lookup of its id, which then deletes it from the spill
+ * @author Amir.Sassi
+ */
+public class EvictingGameRegistry
+    implements GameRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EvictingGameRegistry.class);
+
+    /**
+     * the games sampled to find the least recently looked up one
+     */
+    private static final int CAPACITY_SAMPLES = 5;
+
+    /**
+     * the games sampled to find the expired ones, the sampling goes on while a quarter of them are expired
+     */
+    private static final int EXPIRY_SAMPLES = 20;
+
+    private static final int STRIPES = 64;
+
+    private static final Object SPILLED = Boolean.TRUE;
+
+    private final StripedGameRegistry games = new StripedGameRegistry();
+
+    private final long ttl;
+
+    private final int maxGames;
+
+    private final long maxBytes;
+
+    private final GameSpill spill;
+
+    /**
+     * the ids of the spilled games, striped by id, a stripe lock also serializes the spill and the reload of its ids
+     */
+    private final Stripe[] stripes;
+
+    private final long sweepInterval;
+
+    private final ThreadFactory threadFactory;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong residentBytes = new AtomicLong();
+
+    private final AtomicInteger spilledGames = new AtomicInteger();
+
+    private final LongAdder expiredEvictions = new LongAdder();
+
+    private final LongAdder capacityEvictions = new LongAdder();
+
+    private final LongAdder reloads = new LongAdder();
+
+    private volatile Consumer<Game> dropped;
+
+    private volatile Consumer<Game> reloaded;
+
+    private volatile Thread sweeper;
+
+    private volatile boolean closed;
+
+    /**
+     * @param pTtl the idle time after which a game is evicted, zero to keep the idle games
+     * @param pMaxGames the number of games held in memory, zero for no bound
+     * @param pMaxBytes the estimated bytes of the games held in memory, zero for no bound
+     * @param pSpill the store of the evicted games, null to drop them
+     * @param pSweepInterval the period of the sweeps
+     * @param pThreadFactory the factory of the sweeper thread
+     * @throws IOException if the spill cannot be opened
+     */
+    public EvictingGameRegistry(final Duration pTtl, final int pMaxGames, final long pMaxBytes, final GameSpill pSpill,
+        final Duration pSweepInterval, final ThreadFactory pThreadFactory)
+        throws IOException {
+
+        this(pTtl, pMaxGames, pMaxBytes, pSpill, pSweepInterval, pThreadFactory, System::currentTimeMillis);
+    }
+
+    /**
+     * @param pClock the clock of the lookups in milliseconds
+     */
+    EvictingGameRegistry(final Duration pTtl, final int pMaxGames, final long pMaxBytes, final GameSpill pSpill,
+        final Duration pSweepInterval, final ThreadFactory pThreadFactory, final LongSupplier pClock)
+        throws IOException {
+
+        super();
+        this.ttl = pTtl.toMillis();
+        this.maxGames = pMaxGames;
+        this.maxBytes = pMaxBytes;
+        this.spill = pSpill;
+        this.sweepInterval = pSweepInterval.toNanos();
+        this.threadFactory = pThreadFactory;
+        this.clock = pClock;
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        if (pSpill != null) {
+            for (final int gameId : pSpill.open()) {
+                stripeFor(gameId).spilled.putIfAbsent(gameId, SPILLED);
+                this.spilledGames.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * a spilled game keeps its id: a game created with the id of a spilled game is rejected
+     */
+    @Override
+    public boolean putIfAbsent(
+        final Game game) {
+
+        if (this.spill == null) {
+            return putResident(game);
+        }
+        final Stripe stripe = stripeFor(game.getGameId());
+        stripe.lock();
+        try {
+            return stripe.spilled.get(game.getGameId()) == null && putResident(game);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * a lookup records the access of the game, a spilled game is loaded again
+     */
+    @Override
+    public Game get(
+        final int gameId) {
+
+        Game game = this.games.get(gameId);
+        if (game == null && this.spill != null) {
+            game = reload(gameId);
+        }
+        if (game != null) {
+            game.touch(this.clock.getAsLong());
+        }
+        return game;
+    }
+
+    @Override
+    public Game remove(
+        final int gameId) {
+
+        if (this.spill == null) {
+            return removeResident(gameId);
+        }
+        final Stripe stripe = stripeFor(gameId);
+        stripe.lock();
+        try {
+            if (stripe.spilled.remove(gameId) != null) {
+                this.spilledGames.decrementAndGet();
+                this.spill.delete(gameId);
+            }
+            return removeResident(gameId);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+
+        return this.games.size() + this.spilledGames.get();
+    }
+
+    @Override
+    public void forEach(
+        final Consumer<Game> action) {
+
+        this.games.forEach(action);
+    }
+
+    @Override
+    public void forEachEvicted(
+        final IntConsumer action) {
+
+        for (final Stripe stripe : this.stripes) {
+            final int[] gameIds;
+            stripe.lock();
+            try {
+                gameIds = new int[stripe.spilled.size()];
+                final int[] count = new int[1];
+                stripe.spilled.forEachKey(gameId -> gameIds[count[0]++] = gameId);
+            } finally {
+                stripe.unlock();
+            }
+            for (final int gameId : gameIds) {
+                action.accept(gameId);
+            }
+        }
+    }
+
+    @Override
+    public void startEviction(
+        final Consumer<Game> pDropped,
+        final Consumer<Game> pReloaded) {
+
+        this.dropped = pDropped;
+        this.reloaded = pReloaded;
+        final Thread thread = this.threadFactory.newThread(this::run);
+        this.sweeper = thread;
+        thread.start();
+    }
+
+    /**
+     * method to stop the sweeper, the games in memory are not evicted
+     * @throws InterruptedException if interrupted while waiting for the sweeper
+     */
+    public void close()
+        throws InterruptedException {
+
+        this.closed = true;
+        final Thread thread = this.sweeper;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join();
+        }
+    }
+
+    /**
+     * method to get the number of games held in memory
+     * @return the number of resident games
+     */
+    public int getResidentGames() {
+
+        return this.games.size();
+    }
+
+    /**
+     * method to get the estimated bytes of the games held in memory, updated by their lookups
+     * @return the estimated size in bytes
+     */
+    public long getResidentBytes() {
+
+        return this.residentBytes.get();
+    }
+
+    /**
+     * method to get the number of games kept in the spill
+     * @return the number of spilled games
+     */
+    public int getSpilledGames() {
+
+        return this.spilledGames.get();
+    }
+
+    /**
+     * method to count the games evicted because they were idle for longer than the time to live
+     * @return the number of evictions
+     */
+    public long getExpiredEvictions() {
+
+        return this.expiredEvictions.sum();
+    }
+
+    /**
+     * method to count the games evicted because the registry was over its bounds
+     * @return the number of evictions
+     */
+    public long getCapacityEvictions() {
+
+        return this.capacityEvictions.sum();
+    }
+
+    /**
+     * method to count the games loaded again from the spill
+     * @return the number of reloads
+     */
+    public long getReloads() {
+
+        return this.reloads.sum();
+    }
+
+    /**
+     * method to evict the expired games then the least recently looked up ones while the registry is over its bounds,
+     * the sweep stops after a quarter of the sweep interval so that the next one starts on time
+     */
+    void sweep() {
+
+        final long deadline = System.nanoTime() + (this.sweepInterval >> 2);
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (this.ttl > 0) {
+            int expired;
+            do {
+                expired = 0;
+                final long now = this.clock.getAsLong();
+                for (int i = 0; i < EXPIRY_SAMPLES; i++) {
+                    final Game game = this.games.sample(random.nextInt());
+                    if (game == null) {
+                        break;
+                    }
+                    if (now - game.getLastAccess() < this.ttl) {
+                        refresh(game);
+                    } else if (evict(game, now, true)) {
+                        expired++;
+                    }
+                }
+            } while (expired << 2 > EXPIRY_SAMPLES && System.nanoTime() < deadline);
+        }
+        while (isOverBounds() && System.nanoTime() < deadline) {
+            Game oldest = null;
+            for (int i = 0; i < CAPACITY_SAMPLES; i++) {
+                final Game game = this.games.sample(random.nextInt());
+                if (game == null) {
+                    break;
+                }
+                refresh(game);
+                if (oldest == null || game.getLastAccess() < oldest.getLastAccess()) {
+                    oldest = game;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            evict(oldest, this.clock.getAsLong(), false);
+        }
+    }
+
+    private void run() {
+
+        while (!this.closed) {
+            LockSupport.parkNanos(this, this.sweepInterval);
+            if (this.closed) {
+                return;
+            }
+            try {
+                sweep();
+            } catch (final RuntimeException exception) {
+                LOGGER.error("Eviction of the games failed", exception);
+            }
+        }
+    }
+
+    private boolean isOverBounds() {
+
+        return this.maxGames > 0 && this.games.size() > this.maxGames
+            || this.maxBytes > 0 && this.residentBytes.get() > this.maxBytes;
+    }
+
+    /**
+     * evicts a game unless it is locked, deleted or, for an expiry, looked up since it was sampled
+     */
+    private boolean evict(
+        final Game game,
+        final long now,
+        final boolean expiry) {
+
+        if (!game.tryLock()) {
+            return false;
+        }
+        try {
+            if (game.isDeleted() || expiry && now - game.getLastAccess() < this.ttl) {
+                return false;
+            }
+            final int gameId = game.getGameId();
+            if (this.spill == null) {
+                removeResident(gameId);
+            } else {
+                // written before it is removed, a lookup meanwhile still finds the game in memory
+                this.spill.write(game);
+                final Stripe stripe = stripeFor(gameId);
+                stripe.lock();
+                try {
+                    stripe.spilled.putIfAbsent(gameId, SPILLED);
+                    this.spilledGames.incrementAndGet();
+                    removeResident(gameId);
+                } finally {
+                    stripe.unlock();
+                }
+            }
+            game.setDeleted(true);
+            game.changed();
+            if (this.spill == null && this.dropped != null) {
+                this.dropped.accept(game);
+            }
+            (expiry ? this.expiredEvictions : this.capacityEvictions).increment();
+            return true;
+        } catch (final IOException exception) {
+            LOGGER.warn("Game {} cannot be spilled, it is kept in memory", game.getGameId(), exception);
+            return false;
+        } finally {
+            game.unlock();
+        }
+    }
+
+    /**
+     * loads a spilled game again, the game is registered and deleted from the spill while holding its lock
+     */
+    private Game reload(
+        final int gameId) {
+
+        final Stripe stripe = stripeFor(gameId);
+        stripe.lock();
+        try {
+            Game game = this.games.get(gameId);
+            if (game != null || stripe.spilled.get(gameId) == null) {
+                return game;
+            }
+            game = this.spill.read(gameId);
+            game.lock();
+            try {
+                putResident(game);
+                if (this.reloaded != null) {
+                    this.reloaded.accept(game);
+                }
+                stripe.spilled.remove(gameId);
+                this.spilledGames.decrementAndGet();
+                this.spill.delete(gameId);
+            } finally {
+                game.unlock();
+            }
+            this.reloads.increment();
+            return game;
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private boolean putResident(
+        final Game game) {
+
+        game.touch(this.clock.getAsLong());
+        if (!this.games.putIfAbsent(game)) {
+            return false;
+        }
+        account(game);
+        final Thread thread = this.sweeper;
+        if (thread != null && isOverBounds()) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    private Game removeResident(
+        final int gameId) {
+
+        final Game game = this.games.remove(gameId);
+        if (game != null) {
+            this.residentBytes.addAndGet(-game.swapFootprint(0));
+        }
+        return game;
+    }
+
+    /**
+     * updates the estimated bytes of a sampled game unless it is locked
+     */
+    private void refresh(
+        final Game game) {
+
+        if (game.tryLock()) {
+            try {
+                if (!game.isDeleted()) {
+                    account(game);
+                }
+            } finally {
+                game.unlock();
+            }
+        }
+    }
+
+    /**
+     * updates the estimated bytes of a game, the game lock is held so the game cannot be removed meanwhile
+     */
+    private void account(
+        final Game game) {
+
+        final int footprint = game.estimateFootprint();
+        this.residentBytes.addAndGet(footprint - game.swapFootprint(footprint));
+    }
+
+    private Stripe stripeFor(
+        final int gameId) {
+
+        return this.stripes[IntHashMap.hash(gameId) & (STRIPES - 1)];
+    }
+
+    /**
+     * The ids of the spilled games of a stripe, guarded by the stripe lock
+     */
+    private static final class Stripe
+        extends ReentrantLock {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient IntHashMap<Object> spilled = new IntHashMap<>();
+
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.github.amirsassi.cards.game.api.registry;
+
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+
+/**
+ * Interface for the store of the live games, keyed by game id
+ * @author Amir.Sassi
+ */
+public interface GameRegistry {
+
+    /**
+     * method to register a game if no game is registered with the same id
+     * @param game the game object
+     * @return true if the game is registered, false if a game with the same id already exists
+     */
+    boolean putIfAbsent(
+        Game game);
+
+    /**
+     * method to get a game
+     * @param gameId the game id
+     * @return the game or null if the game doesn't exist
+     */
+    Game get(
+        int gameId);
+
+    /**
+     * method to remove a game
+     * @param gameId the game id
+     * @return the removed game or null if the game doesn't exist
+     */
+    Game remove(
+        int gameId);
+
+    /**
+     * method to get the number of registered games, evicted ones included
+     * @return the number of games
+     */
+    int size();
+
+    /**
+     * method to visit every registered game held in memory, the visit is weakly consistent with concurrent updates
+     * @param action the action applied to each game
+     */
+    void forEach(
+        Consumer<Game> action);
+
+    /**
+     * method to visit the ids of the games evicted out of memory, they are loaded again by {@link #get(int)}
+     * @param action the action applied to each game id
+     */
+    default void forEachEvicted(
+        final IntConsumer action) {
+
+        // nothing is evicted unless the registry is bounded
+    }
+
+    /**
+     * method to start evicting the idle games, called once the registry is restored. The listeners are called while
+     * holding the game lock
+     * @param dropped the listener of the games evicted without being kept on disk, they are deleted
+     * @param reloaded the listener of the games loaded again after being evicted to disk
+     */
+    default void startEviction(
+        final Consumer<Game> dropped,
+        final Consumer<Game> reloaded) {
+
+        // nothing is evicted unless the registry is bounded
+    }
+
+}
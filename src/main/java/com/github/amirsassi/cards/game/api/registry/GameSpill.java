@@ -0,0 +1,49 @@
+package com.github.amirsassi.cards.game.api.registry;
+
+import java.io.IOException;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+
+/**
+ * Interface for the store of the games evicted out of memory, each game is kept until it is loaded again or deleted
+ * @author Amir.Sassi
+ */
+public interface GameSpill {
+
+    /**
+     * method to open the store, called once before any other method
+     * @return the ids of the games already in the store
+     * @throws IOException if the store cannot be opened
+     */
+    int[] open()
+        throws IOException;
+
+    /**
+     * method to write an evicted game, replacing any previous write of the same game
+     * @param game the game, its lock is held
+     * @throws IOException if the game cannot be written
+     */
+    void write(
+        Game game)
+        throws IOException;
+
+    /**
+     * method to read an evicted game
+     * @param gameId the game id
+     * @return the game with its journal sequence number
+     * @throws IOException if the game cannot be read
+     */
+    Game read(
+        int gameId)
+        throws IOException;
+
+    /**
+     * method to delete an evicted game
+     * @param gameId the game id
+     * @throws IOException if the game cannot be deleted
+     */
+    void delete(
+        int gameId)
+        throws IOException;
+
+}
@@ -0,0 +1,195 @@
+package com.github.amirsassi.cards.game.api.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.util.IntHashMap;
+
+/**
+ * Lock-striped game registry: the game ids are spread over independent segments, each one being an
+ * {@link IntHashMap} guarded by its own lock, so create, lookup and delete are O(1) and two games only
+ * contend when they fall in the same segment
+ * @author Amir.Sassi
+ */
+public class StripedGameRegistry
+    implements GameRegistry {
+
+    private static final int DEFAULT_SEGMENTS = 64;
+
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments;
+
+    private final int segmentShift;
+
+    public StripedGameRegistry() {
+
+        this(DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * @param pSegments the number of segments, rounded up to a power of two
+     */
+    public StripedGameRegistry(final int pSegments) {
+
+        super();
+        final int count = pSegments <= 1 ? 1 : Integer.highestOneBit(pSegments - 1) << 1;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment();
+        }
+        this.segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(count);
+    }
+
+    @Override
+    public boolean putIfAbsent(
+        final Game game) {
+
+        final int gameId = game.getGameId();
+        return segmentFor(gameId).putIfAbsent(gameId, game);
+    }
+
+    @Override
+    public Game get(
+        final int gameId) {
+
+        return segmentFor(gameId).get(gameId);
+    }
+
+    @Override
+    public Game remove(
+        final int gameId) {
+
+        return segmentFor(gameId).remove(gameId);
+    }
+
+    @Override
+    public int size() {
+
+        int size = 0;
+        for (final Segment segment : this.segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void forEach(
+        final Consumer<Game> action) {
+
+        for (final Segment segment : this.segments) {
+            for (final Game game : segment.values()) {
+                action.accept(game);
+            }
+        }
+    }
+
+    /**
+     * method to pick a game at random without visiting the registry, used to sample the games to evict
+     * @param random a random int, its high bits pick the segment and its low bits the slot
+     * @return a game or null if the registry is empty
+     */
+    public Game sample(
+        final int random) {
+
+        final int first = this.segmentShift == Integer.SIZE ? 0 : random >>> this.segmentShift;
+        for (int i = 0; i < this.segments.length; i++) {
+            final Game game = this.segments[(first + i) & (this.segments.length - 1)].sample(random);
+            if (game != null) {
+                return game;
+            }
+        }
+        return null;
+    }
+
+    private Segment segmentFor(
+        final int gameId) {
+
+        // the high bits of the hash pick the segment, the low bits pick the slot inside the segment
+        return this.segmentShift == Integer.SIZE ? this.segments[0]
+            : this.segments[IntHashMap.hash(gameId) >>> this.segmentShift];
+    }
+
+    /**
+     * An int-keyed table guarded by its own lock, a ReentrantLock rather than a monitor so that a virtual thread
+     * waiting for the segment does not pin its carrier thread
+     */
+    private static final class Segment
+        extends ReentrantLock {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient IntHashMap<Game> games = new IntHashMap<>(INITIAL_SEGMENT_CAPACITY);
+
+        boolean putIfAbsent(
+            final int gameId,
+            final Game game) {
+
+            lock();
+            try {
+                return this.games.putIfAbsent(gameId, game) == null;
+            } finally {
+                unlock();
+            }
+        }
+
+        Game get(
+            final int gameId) {
+
+            lock();
+            try {
+                return this.games.get(gameId);
+            } finally {
+                unlock();
+            }
+        }
+
+        Game remove(
+            final int gameId) {
+
+            lock();
+            try {
+                return this.games.remove(gameId);
+            } finally {
+                unlock();
+            }
+        }
+
+        Game sample(
+            final int random) {
+
+            lock();
+            try {
+                return this.games.sample(random);
+            } finally {
+                unlock();
+            }
+        }
+
+        int size() {
+
+            lock();
+            try {
+                return this.games.size();
+            } finally {
+                unlock();
+            }
+        }
+
+        List<Game> values() {
+
+            lock();
+            try {
+                final List<Game> values = new ArrayList<>(this.games.size());
+                this.games.forEachValue(values::add);
+                return values;
+            } finally {
+                unlock();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,385 @@
+package com.github.amirsassi.cards.game.api.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.persistence.GameCodec;
+import com.github.amirsassi.cards.game.api.registry.GameRegistry;
+
+/**
+ * The connection of the primary to one follower, with group commit like the journal writer: the appenders copy their
+ * record to the active buffer, the sender thread swaps it with the spare buffer and sends the whole batch in one frame
+ * while the next batch fills. An appender never waits for the follower: when both buffers are full the follower is
+ * dropped, it connects again and gets a full sync. Each batch remembers when its first
+ * record was offered, so the lag of the follower is the age of its oldest record not acknowledged
+ * @author Amir.Sassi
+ */
+final class FollowerChannel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FollowerChannel.class);
+
+    /**
+     * a batch of records offered and not acknowledged yet
+     */
+    private static final class Batch {
+
+        private long lastSequence;
+
+        /**
+         * when its first record was offered, for the lag on this node
+         */
+        private final long offerNanos;
+
+        /**
+         * when its first record was offered, sent to the follower for its own lag
+         */
+        private final long offerMillis;
+
+        private Batch(final long pLastSequence) {
+
+            this.lastSequence = pLastSequence;
+            this.offerNanos = System.nanoTime();
+            this.offerMillis = System.currentTimeMillis();
+        }
+
+    }
+
+    private final Socket socket;
+
+    private final GameRegistry games;
+
+    private final long heartbeatNanos;
+
+    private final ThreadFactory threadFactory;
+
+    private final Consumer<FollowerChannel> closed;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = this.lock.newCondition();
+
+    private ByteBuffer active;
+
+    private ByteBuffer spare;
+
+    /**
+     * the batches not acknowledged yet, oldest first, the last one is the active buffer, guarded by the lock
+     */
+    private final ArrayDeque<Batch> unacknowledged = new ArrayDeque<>();
+
+    /**
+     * the sequence number of the last record offered, guarded by the lock
+     */
+    private long offeredSequence;
+
+    private boolean closing;
+
+    private volatile long syncSequence;
+
+    private volatile long ackedSequence;
+
+    /**
+     * @param pSocket the accepted connection
+     * @param pGames the games sent by the full sync
+     * @param pBufferSize the size of each of the two buffers
+     * @param pHeartbeatInterval the period of the heartbeats when no record is sent
+     * @param pThreadFactory the factory of the sender and acknowledgement threads
+     * @param pClosed called once when the channel is closed
+     */
+    FollowerChannel(final Socket pSocket, final GameRegistry pGames, final int pBufferSize,
+        final Duration pHeartbeatInterval, final ThreadFactory pThreadFactory, final Consumer<FollowerChannel> pClosed) {
+
+        this.socket = pSocket;
+        this.games = pGames;
+        this.active = ByteBuffer.allocate(pBufferSize);
+        this.spare = ByteBuffer.allocate(pBufferSize);
+        this.heartbeatNanos = pHeartbeatInterval.toNanos();
+        this.threadFactory = pThreadFactory;
+        this.closed = pClosed;
+    }
+
+    /**
+     * method to start streaming from a sequence number, the records after it must be offered
+     * @param sequence the sequence number of the last record before the full sync
+     */
+    void start(
+        final long sequence) {
+
+        this.syncSequence = sequence;
+        this.offeredSequence = sequence;
+        this.ackedSequence = sequence;
+        this.threadFactory.newThread(this::send).start();
+    }
+
+    /**
+     * method to queue a record for the follower, drops the follower instead of waiting when the buffers are full,
+     * called in sequence order
+     * @param sequence the record sequence number
+     * @param type the record type
+     * @param payload the array holding the payload
+     * @param length the payload length
+     */
+    void offer(
+        final long sequence,
+        final byte type,
+        final byte[] payload,
+        final int length) {
+
+        final int size = ReplicationProtocol.RECORD_HEADER_SIZE + length;
+        this.lock.lock();
+        try {
+            if (this.closing) {
+                return;
+            }
+            if (this.active.remaining() < size) {
+                if (this.active.position() > 0) {
+                    LOGGER.warn("Follower {} dropped, it lags {} records behind", this.socket.getRemoteSocketAddress(),
+                        sequence - this.ackedSequence);
+                    closeLocked();
+                    return;
+                }
+                // larger than a whole buffer
+                this.active = ByteBuffer.allocate(size);
+            }
+            if (this.active.position() == 0 || this.unacknowledged.isEmpty()) {
+                this.unacknowledged.addLast(new Batch(sequence));
+            } else {
+                this.unacknowledged.getLast().lastSequence = sequence;
+            }
+            this.active.putInt(Long.BYTES + Byte.BYTES + length).putLong(sequence).put(type).put(payload, 0, length);
+            this.offeredSequence = sequence;
+            this.notEmpty.signal();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * method to get the replication lag of the follower
+     * @param sequence the sequence number of the last record of the primary
+     * @return the number of records not acknowledged by the follower
+     */
+    long getLag(
+        final long sequence) {
+
+        return Math.max(0, sequence - this.ackedSequence);
+    }
+
+    /**
+     * method to get the replication lag of the follower in time
+     * @return the milliseconds since the oldest record not acknowledged by the follower was offered, 0 if it
+     *         acknowledged every record
+     */
+    long getLagMillis() {
+
+        this.lock.lock();
+        try {
+            final Batch oldest = acknowledged(this.ackedSequence);
+            return oldest == null ? 0 : (System.nanoTime() - oldest.offerNanos) / 1_000_000;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    void close() {
+
+        this.lock.lock();
+        try {
+            closeLocked();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void closeLocked() {
+
+        if (this.closing) {
+            return;
+        }
+        this.closing = true;
+        this.notEmpty.signalAll();
+        try {
+            this.socket.close();
+        } catch (final IOException exception) {
+            // closed anyway
+        }
+        this.closed.accept(this);
+    }
+
+    private void send() {
+
+        try {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(this.socket.getInputStream()));
+            if (in.readInt() != ReplicationProtocol.MAGIC || in.readInt() != ReplicationProtocol.VERSION) {
+                throw new IOException("Not a game follower");
+            }
+            this.threadFactory.newThread(() -> acknowledge(in)).start();
+
+            final DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(this.socket.getOutputStream(), 1 << 16));
+            final int synced = sync(out);
+            LOGGER.info("Follower {} synced with {} games at {}", this.socket.getRemoteSocketAddress(), synced,
+                this.syncSequence);
+            stream(out);
+        } catch (final IOException exception) {
+            if (!this.closing) {
+                LOGGER.info("Follower {} disconnected: {}", this.socket.getRemoteSocketAddress(),
+                    exception.getMessage());
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * sends every game, each one copied under its lock: a game changed during the sync is sent with its latest
+     * record, and the follower skips the records the copy already holds
+     */
+    private int sync(
+        final DataOutputStream out)
+        throws IOException {
+
+        out.writeByte(ReplicationProtocol.SYNC_BEGIN);
+        out.writeLong(this.syncSequence);
+        final List<Game> all = new ArrayList<>();
+        this.games.forEach(all::add);
+        this.games.forEachEvicted(gameId -> {
+            final Game game = this.games.get(gameId);
+            if (game != null) {
+                all.add(game);
+            }
+        });
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        final DataOutputStream encoded = new DataOutputStream(bytes);
+        int synced = 0;
+        for (final Game game : all) {
+            final long sequence;
+            bytes.reset();
+            game.lock();
+            try {
+                if (game.isDeleted()) {
+                    continue;
+                }
+                sequence = game.getReplicationSequence();
+                GameCodec.writeGame(encoded, game);
+            } finally {
+                game.unlock();
+            }
+            out.writeByte(ReplicationProtocol.SYNC_GAME);
+            out.writeLong(sequence);
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+            synced++;
+        }
+        out.writeByte(ReplicationProtocol.SYNC_END);
+        out.flush();
+        return synced;
+    }
+
+    private void stream(
+        final DataOutputStream out)
+        throws IOException {
+
+        while (true) {
+            final ByteBuffer batch;
+            final long sequence;
+            final long offerMillis;
+            this.lock.lock();
+            try {
+                long remaining = this.heartbeatNanos;
+                while (this.active.position() == 0 && !this.closing && remaining > 0) {
+                    remaining = this.notEmpty.awaitNanos(remaining);
+                }
+                if (this.closing) {
+                    return;
+                }
+                sequence = this.offeredSequence;
+                batch = this.active.position() == 0 ? null : this.active;
+                offerMillis = batch == null ? 0 : this.unacknowledged.getLast().offerMillis;
+                if (batch != null) {
+                    this.active = this.spare;
+                    this.spare = null;
+                }
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                this.lock.unlock();
+            }
+
+            if (batch == null) {
+                out.writeByte(ReplicationProtocol.HEARTBEAT);
+                out.writeLong(sequence);
+                out.flush();
+                continue;
+            }
+            batch.flip();
+            out.writeByte(ReplicationProtocol.RECORDS);
+            out.writeLong(offerMillis);
+            out.writeInt(batch.remaining());
+            out.write(batch.array(), 0, batch.remaining());
+            out.flush();
+            batch.clear();
+
+            this.lock.lock();
+            try {
+                this.spare = batch;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * drops the batches acknowledged up to a sequence number, the lock must be held
+     * @return the oldest batch not acknowledged, null if none
+     */
+    private Batch acknowledged(
+        final long sequence) {
+
+        while (!this.unacknowledged.isEmpty() && this.unacknowledged.getFirst().lastSequence <= sequence) {
+            this.unacknowledged.removeFirst();
+        }
+        return this.unacknowledged.peekFirst();
+    }
+
+    private void acknowledge(
+        final DataInputStream in) {
+
+        try {
+            while (in.readByte() == ReplicationProtocol.ACK) {
+                final long sequence = in.readLong();
+                this.ackedSequence = sequence;
+                this.lock.lock();
+                try {
+                    acknowledged(sequence);
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+        } catch (final IOException exception) {
+            // the sender sees the closed socket too
+        } finally {
+            close();
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.github.amirsassi.cards.game.api.replication;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filter of the requests of a follower: the games only change through the replication, so the requests that change
+ * them get HTTP status 503 until the follower is promoted. The replication endpoints are always served
+ * @author Amir.Sassi
+ */
+public class FollowerReadOnlyFilter
+    extends OncePerRequestFilter {
+
+    public static final String REPLICATION_PATH = "/gameapi/replication";
+
+    private final GameReplication replication;
+
+    public FollowerReadOnlyFilter(final GameReplication pReplication) {
+
+        super();
+        this.replication = pReplication;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        final HttpServletRequest request,
+        final HttpServletResponse response,
+        final FilterChain chain)
+        throws ServletException,
+        IOException {
+
+        final String method = request.getMethod();
+        if (this.replication.isFollower() && !"GET".equals(method) && !"HEAD".equals(method)
+            && !request.getRequestURI().substring(request.getContextPath().length()).startsWith(REPLICATION_PATH)) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                "Read-only follower, changes are served by the primary");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+}
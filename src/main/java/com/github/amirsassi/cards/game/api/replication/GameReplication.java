@@ -0,0 +1,161 @@
+package com.github.amirsassi.cards.game.api.replication;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * The replication role of this node. A primary streams its changes to the followers that connect to it, a follower
+ * applies the changes of its primary and serves the games read-only. A follower is promoted to primary by hand, once
+ * its primary is gone: it stops replicating, snapshots its games to its own journal and accepts followers from the
+ * sequence number of its last applied change
+ * @author Amir.Sassi
+ */
+public class GameReplication
+    implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GameReplication.class);
+
+    /**
+     * the replication roles
+     */
+    public enum Role {
+        PRIMARY,
+        FOLLOWER
+    }
+
+    private final ReplicationJournal journal;
+
+    private final ReplicationFollower follower;
+
+    private volatile Role role;
+
+    private volatile boolean running;
+
+    /**
+     * @param pRole the role the node starts with
+     * @param pJournal the journal streaming the changes of a primary
+     * @param pFollower the connection to the primary of a follower
+     */
+    public GameReplication(final Role pRole, final ReplicationJournal pJournal, final ReplicationFollower pFollower) {
+
+        super();
+        this.role = pRole;
+        this.journal = pJournal;
+        this.follower = pFollower;
+    }
+
+    @Override
+    public synchronized void start() {
+
+        if (this.role == Role.PRIMARY) {
+            try {
+                this.journal.listen(0);
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        } else {
+            this.follower.start();
+        }
+        this.running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+
+        try {
+            this.follower.stop();
+            this.journal.close();
+        } catch (final IOException exception) {
+            LOGGER.warn("Replication stopped with an error: {}", exception.getMessage());
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.running = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+
+        return this.running;
+    }
+
+    /**
+     * stopped after the cluster, the games handed over on shutdown still reach the followers
+     */
+    @Override
+    public int getPhase() {
+
+        return Integer.MAX_VALUE - 1;
+    }
+
+    public Role getRole() {
+
+        return this.role;
+    }
+
+    public boolean isFollower() {
+
+        return this.role == Role.FOLLOWER;
+    }
+
+    /**
+     * method to promote a follower to primary, does nothing on a primary
+     * @return the replication state after the promotion
+     * @throws IOException if the snapshot cannot be written or the replication port cannot be bound
+     * @throws InterruptedException if interrupted while waiting for the last change to be applied
+     */
+    public synchronized ReplicationStatus promote()
+        throws IOException,
+        InterruptedException {
+
+        if (this.role == Role.FOLLOWER) {
+            this.follower.stop();
+            final long applied = this.follower.getAppliedSequence();
+            this.journal.snapshot();
+            this.journal.listen(applied);
+            this.role = Role.PRIMARY;
+            LOGGER.info("Promoted to primary at sequence {}", applied);
+        }
+        return getStatus();
+    }
+
+    /**
+     * method to get the replication state of this node
+     * @return the role, the sequence number, the lag, the followers and the connection to the primary
+     */
+    public ReplicationStatus getStatus() {
+
+        if (this.role == Role.PRIMARY) {
+            return new ReplicationStatus(Role.PRIMARY, this.journal.getSequence(), this.journal.getLag(),
+                this.journal.getLagMillis(), this.journal.getFollowers(), false);
+        }
+        return new ReplicationStatus(Role.FOLLOWER, this.follower.getAppliedSequence(), this.follower.getLag(),
+            this.follower.getLagMillis(), 0, this.follower.isConnected());
+    }
+
+    /**
+     * method to get the replication lag of this node
+     * @return the changes not acknowledged by the slowest follower on a primary, the changes not applied yet on a
+     *         follower
+     */
+    public long getLag() {
+
+        return this.role == Role.PRIMARY ? this.journal.getLag() : this.follower.getLag();
+    }
+
+    /**
+     * method to get the replication lag of this node in time
+     * @return the age in milliseconds of the oldest change not acknowledged by the slowest follower on a primary, the
+     *         age of the last applied batch on a follower
+     */
+    public long getLagMillis() {
+
+        return this.role == Role.PRIMARY ? this.journal.getLagMillis() : this.follower.getLagMillis();
+    }
+
+}
@@ -0,0 +1,265 @@
+package com.github.amirsassi.cards.game.api.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.persistence.GameCodec;
+import com.github.amirsassi.cards.game.api.persistence.RecordingGameJournal;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+/**
+ * The connection of a follower to its primary: a single thread applies the full sync then the streamed records to
+ * the games, and acknowledges the sequence number of the last applied record after each batch and heartbeat. When the
+ * connection breaks it connects again after the retry interval and gets a full sync. The lag in time is the age of the
+ * last applied batch by the clock of the primary, so it includes the clock skew between the two nodes
+ * @author Amir.Sassi
+ */
+public class ReplicationFollower {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicationFollower.class);
+
+    private final InetSocketAddress primary;
+
+    private final GameServiceImpl gameService;
+
+    private final Duration retryInterval;
+
+    private final ThreadFactory threadFactory;
+
+    private volatile boolean running;
+
+    private volatile boolean connected;
+
+    private volatile Socket socket;
+
+    private volatile Thread thread;
+
+    private volatile long appliedSequence;
+
+    private volatile long primarySequence;
+
+    private volatile long lagMillis;
+
+    /**
+     * @param pPrimary the replication address of the primary
+     * @param pGameService the service the games are replicated to
+     * @param pRetryInterval the wait before connecting again
+     * @param pThreadFactory the factory of the replication thread
+     */
+    public ReplicationFollower(final InetSocketAddress pPrimary, final GameServiceImpl pGameService,
+        final Duration pRetryInterval, final ThreadFactory pThreadFactory) {
+
+        super();
+        this.primary = pPrimary;
+        this.gameService = pGameService;
+        this.retryInterval = pRetryInterval;
+        this.threadFactory = pThreadFactory;
+    }
+
+    public synchronized void start() {
+
+        if (this.running) {
+            return;
+        }
+        this.running = true;
+        this.thread = this.threadFactory.newThread(this::run);
+        this.thread.start();
+    }
+
+    /**
+     * method to stop replicating, waits for the last record to be applied
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized void stop()
+        throws InterruptedException {
+
+        this.running = false;
+        final Socket connection = this.socket;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (final IOException exception) {
+                // closed anyway
+            }
+        }
+        if (this.thread != null) {
+            this.thread.interrupt();
+            this.thread.join();
+            this.thread = null;
+        }
+    }
+
+    public boolean isConnected() {
+
+        return this.connected;
+    }
+
+    /**
+     * method to get the sequence number of the last record applied
+     * @return the sequence number
+     */
+    public long getAppliedSequence() {
+
+        return this.appliedSequence;
+    }
+
+    /**
+     * method to get the replication lag of the follower
+     * @return the number of records of the primary not applied yet
+     */
+    public long getLag() {
+
+        return Math.max(0, this.primarySequence - this.appliedSequence);
+    }
+
+    /**
+     * method to get the replication lag of the follower in time
+     * @return the milliseconds between the offer of the first record of the last applied batch on the primary and its
+     *         application, 0 once a heartbeat tells that every record is applied
+     */
+    public long getLagMillis() {
+
+        return this.lagMillis;
+    }
+
+    private void run() {
+
+        while (this.running) {
+            try (Socket connection = new Socket()) {
+                this.socket = connection;
+                connection.connect(new InetSocketAddress(this.primary.getHostString(), this.primary.getPort()),
+                    (int) this.retryInterval.toMillis() + 1000);
+                connection.setTcpNoDelay(true);
+                final DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(connection.getOutputStream()));
+                out.writeInt(ReplicationProtocol.MAGIC);
+                out.writeInt(ReplicationProtocol.VERSION);
+                out.flush();
+                this.connected = true;
+                LOGGER.info("Replicating from {}", this.primary);
+                replicate(new DataInputStream(new BufferedInputStream(connection.getInputStream(), 1 << 16)), out);
+            } catch (final IOException | RuntimeException exception) {
+                if (this.running) {
+                    LOGGER.warn("Replication from {} interrupted: {}", this.primary, exception.toString());
+                }
+            } finally {
+                this.connected = false;
+                this.socket = null;
+            }
+            if (this.running) {
+                try {
+                    Thread.sleep(this.retryInterval.toMillis());
+                } catch (final InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void replicate(
+        final DataInputStream in,
+        final DataOutputStream out)
+        throws IOException {
+
+        final Set<Integer> synced = new HashSet<>();
+        long syncSequence = 0;
+        while (this.running) {
+            final byte frame = in.readByte();
+            switch (frame) {
+                case ReplicationProtocol.SYNC_BEGIN:
+                    syncSequence = in.readLong();
+                    synced.clear();
+                    break;
+                case ReplicationProtocol.SYNC_GAME:
+                    final long sequence = in.readLong();
+                    final byte[] encoded = new byte[in.readInt()];
+                    in.readFully(encoded);
+                    final Game game = GameCodec.readGame(ByteBuffer.wrap(encoded));
+                    game.setReplicationSequence(sequence);
+                    this.gameService.replicateGame(game, true);
+                    synced.add(game.getGameId());
+                    break;
+                case ReplicationProtocol.SYNC_END:
+                    final int removed = this.gameService.retainReplicated(synced::contains);
+                    LOGGER.info("Synced {} games at {}, {} games removed", synced.size(), syncSequence, removed);
+                    synced.clear();
+                    this.primarySequence = syncSequence;
+                    this.lagMillis = 0;
+                    acknowledge(out, syncSequence);
+                    break;
+                case ReplicationProtocol.RECORDS:
+                    final long offerMillis = in.readLong();
+                    final byte[] batch = new byte[in.readInt()];
+                    in.readFully(batch);
+                    final long applied = apply(ByteBuffer.wrap(batch));
+                    this.lagMillis = Math.max(0, System.currentTimeMillis() - offerMillis);
+                    acknowledge(out, applied);
+                    break;
+                case ReplicationProtocol.HEARTBEAT:
+                    this.primarySequence = in.readLong();
+                    if (this.appliedSequence >= this.primarySequence) {
+                        this.lagMillis = 0;
+                    }
+                    acknowledge(out, this.appliedSequence);
+                    break;
+                default:
+                    throw new IOException("Unknown replication frame " + frame);
+            }
+        }
+    }
+
+    /**
+     * applies a batch of records, a record the game already holds is skipped
+     * @return the sequence number of the last record
+     */
+    private long apply(
+        final ByteBuffer batch) {
+
+        while (batch.hasRemaining()) {
+            final int length = batch.getInt();
+            final ByteBuffer record = batch.slice(batch.position(), length);
+            batch.position(batch.position() + length);
+            final long sequence = record.getLong();
+            final byte type = record.get();
+            if (type == RecordingGameJournal.CREATED) {
+                final Game game = GameCodec.readGame(record);
+                game.setReplicationSequence(sequence);
+                this.gameService.replicateGame(game, false);
+            } else {
+                final int gameId = record.getInt();
+                this.gameService.replicate(gameId, sequence, type == RecordingGameJournal.DELETED ? null
+                    : game -> RecordingGameJournal.apply(game, type, record));
+            }
+            this.primarySequence = Math.max(this.primarySequence, sequence);
+            this.appliedSequence = sequence;
+        }
+        return this.appliedSequence;
+    }
+
+    private void acknowledge(
+        final DataOutputStream out,
+        final long sequence)
+        throws IOException {
+
+        this.appliedSequence = sequence;
+        out.writeByte(ReplicationProtocol.ACK);
+        out.writeLong(sequence);
+        out.flush();
+    }
+
+}
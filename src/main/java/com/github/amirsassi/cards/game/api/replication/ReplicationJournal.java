@@ -0,0 +1,309 @@
+package com.github.amirsassi.cards.game.api.replication;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.persistence.GameJournal;
+import com.github.amirsassi.cards.game.api.persistence.RecordingGameJournal;
+import com.github.amirsassi.cards.game.api.registry.GameRegistry;
+
+/**
+ * Journal of the primary node that streams every game change to its followers, on top of the journal it decorates.
+ * The changes are numbered by one sequence while holding the lock of their game, so the followers get the changes of
+ * each game in order, and each game remembers the sequence number of its last change for the full syncs.
+ * <p>
+ * The followers connect to the replication port, each one gets its own {@link FollowerChannel}. A change is only copied
+ * to the buffers of the followers and never waits for them: a follower that falls behind by more than its buffers is
+ * dropped and gets a full sync when it connects again
+ * @author Amir.Sassi
+ */
+public class ReplicationJournal
+    extends RecordingGameJournal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicationJournal.class);
+
+    private final GameJournal delegate;
+
+    private final int port;
+
+    private final int bufferSize;
+
+    private final Duration heartbeatInterval;
+
+    private final ThreadFactory threadFactory;
+
+    /**
+     * orders the numbering of the changes with their copy to the followers, so each follower gets them in sequence
+     * order; the copy never waits for a follower
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final List<FollowerChannel> followers = new CopyOnWriteArrayList<>();
+
+    private GameRegistry games;
+
+    private ServerSocket server;
+
+    private volatile long sequence;
+
+    /**
+     * false until the node is the primary, the changes of a follower are not replicated
+     */
+    private volatile boolean streaming;
+
+    /**
+     * @param pDelegate the journal of the games on this node
+     * @param pPort the port the followers connect to
+     * @param pBufferSize the size of each of the two buffers of a follower
+     * @param pHeartbeatInterval the period of the heartbeats sent to an idle follower
+     * @param pThreadFactory the factory of the acceptor thread and of the threads of each follower
+     */
+    public ReplicationJournal(final GameJournal pDelegate, final int pPort, final int pBufferSize,
+        final Duration pHeartbeatInterval, final ThreadFactory pThreadFactory) {
+
+        super();
+        this.delegate = pDelegate;
+        this.port = pPort;
+        this.bufferSize = pBufferSize;
+        this.heartbeatInterval = pHeartbeatInterval;
+        this.threadFactory = pThreadFactory;
+    }
+
+    @Override
+    public void open(
+        final GameRegistry pGames)
+        throws IOException {
+
+        this.games = pGames;
+        this.delegate.open(pGames);
+    }
+
+    /**
+     * method to start accepting followers
+     * @param lastSequence the sequence number to number the changes after, the last change applied by a promoted
+     *        follower
+     * @throws IOException if the replication port cannot be bound
+     */
+    public synchronized void listen(
+        final long lastSequence)
+        throws IOException {
+
+        if (this.server != null) {
+            return;
+        }
+        this.lock.lock();
+        try {
+            this.sequence = Math.max(this.sequence, lastSequence);
+            this.streaming = true;
+        } finally {
+            this.lock.unlock();
+        }
+        this.server = new ServerSocket();
+        this.server.setReuseAddress(true);
+        this.server.bind(new InetSocketAddress(this.port));
+        final ServerSocket listening = this.server;
+        this.threadFactory.newThread(() -> accept(listening)).start();
+        LOGGER.info("Replication listening on port {} from sequence {}", this.port, this.sequence);
+    }
+
+    @Override
+    public void created(
+        final Game game) {
+
+        this.delegate.created(game);
+        super.created(game);
+    }
+
+    @Override
+    public void deleted(
+        final Game game) {
+
+        this.delegate.deleted(game);
+        super.deleted(game);
+    }
+
+    @Override
+    public void deckAdded(
+        final Game game,
+        final Deck deck) {
+
+        this.delegate.deckAdded(game, deck);
+        super.deckAdded(game, deck);
+    }
+
+    @Override
+    public void playerAdded(
+        final Game game,
+        final Player player) {
+
+        this.delegate.playerAdded(game, player);
+        super.playerAdded(game, player);
+    }
+
+    @Override
+    public void playerRemoved(
+        final Game game,
+        final int playerId) {
+
+        this.delegate.playerRemoved(game, playerId);
+        super.playerRemoved(game, playerId);
+    }
+
+    @Override
+    public void dealt(
+        final Game game,
+        final int playerId,
+        final int ordinal) {
+
+        this.delegate.dealt(game, playerId, ordinal);
+        super.dealt(game, playerId, ordinal);
+    }
+
+    @Override
+    public void dealtRounds(
+        final Game game,
+        final List<Player> players,
+        final int rounds) {
+
+        this.delegate.dealtRounds(game, players, rounds);
+        super.dealtRounds(game, players, rounds);
+    }
+
+    @Override
+    public void shuffled(
+        final Game game) {
+
+        this.delegate.shuffled(game);
+        super.shuffled(game);
+    }
+
+    @Override
+    public void snapshot()
+        throws IOException {
+
+        this.delegate.snapshot();
+    }
+
+    /**
+     * stops the replication only, the decorated journal is closed by its own bean
+     */
+    @Override
+    public synchronized void close()
+        throws IOException {
+
+        if (this.server != null) {
+            this.server.close();
+        }
+        for (final FollowerChannel follower : this.followers) {
+            follower.close();
+        }
+    }
+
+    /**
+     * method to get the sequence number of the last change
+     * @return the sequence number
+     */
+    public long getSequence() {
+
+        return this.sequence;
+    }
+
+    /**
+     * method to get the number of connected followers
+     * @return the number of followers
+     */
+    public int getFollowers() {
+
+        return this.followers.size();
+    }
+
+    /**
+     * method to get the replication lag of the slowest follower
+     * @return the number of changes it did not acknowledge, 0 without follower
+     */
+    public long getLag() {
+
+        final long last = this.sequence;
+        long lag = 0;
+        for (final FollowerChannel follower : this.followers) {
+            lag = Math.max(lag, follower.getLag(last));
+        }
+        return lag;
+    }
+
+    /**
+     * method to get the replication lag of the slowest follower in time
+     * @return the milliseconds since the oldest change it did not acknowledge was made, 0 without follower
+     */
+    public long getLagMillis() {
+
+        long lag = 0;
+        for (final FollowerChannel follower : this.followers) {
+            lag = Math.max(lag, follower.getLagMillis());
+        }
+        return lag;
+    }
+
+    @Override
+    protected void record(
+        final Game game,
+        final byte type,
+        final byte[] payload,
+        final int length) {
+
+        if (!this.streaming) {
+            return;
+        }
+        this.lock.lock();
+        try {
+            final long next = this.sequence + 1;
+            this.sequence = next;
+            game.setReplicationSequence(next);
+            for (final FollowerChannel follower : this.followers) {
+                follower.offer(next, type, payload, length);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void accept(
+        final ServerSocket listening) {
+
+        while (!listening.isClosed()) {
+            try {
+                final Socket socket = listening.accept();
+                socket.setTcpNoDelay(true);
+                final FollowerChannel follower = new FollowerChannel(socket, this.games, this.bufferSize,
+                    this.heartbeatInterval, this.threadFactory, this.followers::remove);
+                // registered between two changes, the records after the sync sequence all reach the follower
+                this.lock.lock();
+                try {
+                    this.followers.add(follower);
+                    follower.start(this.sequence);
+                } finally {
+                    this.lock.unlock();
+                }
+                LOGGER.info("Follower {} connected", socket.getRemoteSocketAddress());
+            } catch (final IOException exception) {
+                if (!listening.isClosed()) {
+                    LOGGER.warn("Replication accept failed: {}", exception.getMessage());
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.github.amirsassi.cards.game.api.replication;
+
+/**
+ * The replication protocol over TCP, big-endian like the journal:
+ * <ul>
+ * <li>the follower opens with int {@link #MAGIC}, int {@link #VERSION}, then sends {@link #ACK} frames: the long
+ * sequence number of the last applied record</li>
+ * <li>the primary answers with a full sync, {@link #SYNC_BEGIN} long sequence number of the last record before the
+ * sync, one {@link #SYNC_GAME} per game: long sequence number of the last record of the game, int length, the game
+ * encoded by {@link com.github.amirsassi.cards.game.api.persistence.GameCodec}, then {@link #SYNC_END}</li>
+ * <li>then the primary streams {@link #RECORDS} frames, long time in milliseconds of the primary clock when the first
+ * record of the batch was offered, int length followed by a batch of records: int body length, long sequence number,
+ * byte type, the payload of a journal record, and a {@link #HEARTBEAT} frame, long sequence number of its last record,
+ * when it has nothing to send</li>
+ * </ul>
+ * @author Amir.Sassi
+ */
+final class ReplicationProtocol {
+
+    static final int MAGIC = 0x47524550;
+
+    static final int VERSION = 2;
+
+    static final byte SYNC_BEGIN = 1;
+
+    static final byte SYNC_GAME = 2;
+
+    static final byte SYNC_END = 3;
+
+    static final byte RECORDS = 4;
+
+    static final byte HEARTBEAT = 5;
+
+    static final byte ACK = 1;
+
+    /**
+     * the size of a record header in a batch: int body length, long sequence number, byte type
+     */
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES + Byte.BYTES;
+
+    private ReplicationProtocol() {
+
+        super();
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.github.amirsassi.cards.game.api.replication;
+
+/**
+ * The replication state of a node: {"role":"FOLLOWER","sequence":1042,"lag":0,"lagMillis":0,"followers":0,
+ * "connected":true}. The sequence is the last change numbered by a primary or applied by a follower, the lag is
+ * counted in changes and in milliseconds
+ * @author Amir.Sassi
+ */
+public class ReplicationStatus {
+
+    private GameReplication.Role role;
+
+    private long sequence;
+
+    private long lag;
+
+    private long lagMillis;
+
+    private int followers;
+
+    private boolean connected;
+
+    public ReplicationStatus() {
+
+        super();
+    }
+
+    public ReplicationStatus(final GameReplication.Role pRole, final long pSequence, final long pLag,
+        final long pLagMillis, final int pFollowers, final boolean pConnected) {
+
+        super();
+        this.role = pRole;
+        this.sequence = pSequence;
+        this.lag = pLag;
+        this.lagMillis = pLagMillis;
+        this.followers = pFollowers;
+        this.connected = pConnected;
+    }
+
+    public GameReplication.Role getRole() {
+
+        return this.role;
+    }
+
+    public void setRole(
+        final GameReplication.Role pRole) {
+
+        this.role = pRole;
+    }
+
+    public long getSequence() {
+
+        return this.sequence;
+    }
+
+    public void setSequence(
+        final long pSequence) {
+
+        this.sequence = pSequence;
+    }
+
+    public long getLag() {
+
+        return this.lag;
+    }
+
+    public void setLag(
+        final long pLag) {
+
+        this.lag = pLag;
+    }
+
+    public long getLagMillis() {
+
+        return this.lagMillis;
+    }
+
+    public void setLagMillis(
+        final long pLagMillis) {
+
+        this.lagMillis = pLagMillis;
+    }
+
+    public int getFollowers() {
+
+        return this.followers;
+    }
+
+    public void setFollowers(
+        final int pFollowers) {
+
+        this.followers = pFollowers;
+    }
+
+    public boolean isConnected() {
+
+        return this.connected;
+    }
+
+    public void setConnected(
+        final boolean pConnected) {
+
+        this.connected = pConnected;
+    }
+
+}
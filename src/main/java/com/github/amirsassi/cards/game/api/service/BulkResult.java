@@ -0,0 +1,66 @@
+package com.github.amirsassi.cards.game.api.service;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The outcome of one game of a bulk operation, the other games of the operation are not affected by it
+ * @author Amir.Sassi
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkResult {
+
+    /**
+     * the outcomes of a bulk operation item
+     */
+    public enum Status {
+        CREATED,
+        DELETED,
+        ALREADY_EXISTS,
+        NOT_FOUND,
+        /**
+         * the game belongs to another node of the cluster, which could not be reached
+         */
+        UNAVAILABLE
+    }
+
+    private final Integer gameId;
+
+    private final Status status;
+
+    private final String message;
+
+    /**
+     * also read from the results of the other nodes of the cluster
+     */
+    @JsonCreator
+    public BulkResult(@JsonProperty("gameId") final Integer pGameId, @JsonProperty("status") final Status pStatus,
+        @JsonProperty("message") final String pMessage) {
+
+        super();
+        this.gameId = pGameId;
+        this.status = pStatus;
+        this.message = pMessage;
+    }
+
+    public Integer getGameId() {
+
+        return this.gameId;
+    }
+
+    public Status getStatus() {
+
+        return this.status;
+    }
+
+    /**
+     * method to get the error message
+     * @return the message of the failure, null if the game was created or deleted
+     */
+    public String getMessage() {
+
+        return this.message;
+    }
+
+}
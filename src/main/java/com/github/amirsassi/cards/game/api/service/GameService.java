@@ -1,18 +1,23 @@
 package com.github.amirsassi.cards.game.api.service;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 import com.github.amirsassi.cards.game.api.domain.Card;
+import com.github.amirsassi.cards.game.api.domain.CardCounts;
 import com.github.amirsassi.cards.game.api.domain.Deck;
 import com.github.amirsassi.cards.game.api.domain.FaceValue;
 import com.github.amirsassi.cards.game.api.domain.Game;
 import com.github.amirsassi.cards.game.api.domain.Player;
 import com.github.amirsassi.cards.game.api.domain.Suit;
+import com.github.amirsassi.cards.game.api.event.GameEventSubscription;
 import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
 import com.github.amirsassi.cards.game.api.exception.GameDoesNotHavePlayersException;
 import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.PlayerAlreadyExistsException;
 import com.github.amirsassi.cards.game.api.exception.PlayerNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.SnapshotNotFoundException;
 
 /**
  * Interface for the game service
@@ -38,6 +43,22 @@ public interface GameService {
         Integer gameId)
         throws GameNotFoundException;
 
+    /**
+     * method to create many games in parallel, each game is created with its decks and players or not at all
+     * @param games the games, with their decks and seated players
+     * @return the result of each game, in the order of the games
+     */
+    List<BulkResult> createGames(
+        List<Game> games);
+
+    /**
+     * method to delete many games in parallel
+     * @param gameIds the game ids
+     * @return the result of each game, in the order of the game ids
+     */
+    List<BulkResult> deleteGames(
+        List<Integer> gameIds);
+
     /**
      * method to add a deck to the game
      * @param gameId the game id
@@ -55,16 +76,35 @@ public interface GameService {
         throws GameNotFoundException,
         PlayerNotFoundException;
 
+    /**
+     * method to deal several rounds of cards to a list of players as one atomic operation, each round deals to every
+     * player once in the order of the list
+     * @param gameId the game id
+     * @param playerIds the player ids in dealing order, all the players of the game in seat order if null or empty
+     * @param rounds the number of rounds, the rounds stop at the first one that deals no card
+     * @return the cards dealt by this call to each player, keyed by player id in dealing order
+     * @throws GameNotFoundException if the game doesn't exist
+     * @throws PlayerNotFoundException if a player doesn't exist, no card is dealt in that case
+     */
+    Map<Integer, List<Card>> dealCards(
+        Integer gameId,
+        List<Integer> playerIds,
+        int rounds)
+        throws GameNotFoundException,
+        PlayerNotFoundException;
+
     /**
      * method to add a player to the game
      * @param gameId the game id
      * @param player the player object
      * @throws GameNotFoundException if the game doesn't exist
+     * @throws PlayerAlreadyExistsException if a player with the same id is already in the game
      */
     void addPlayer(
         Integer gameId,
         Player player)
-        throws GameNotFoundException;
+        throws GameNotFoundException,
+        PlayerAlreadyExistsException;
 
     /**
      * method to remove a player to the game
@@ -80,7 +120,7 @@ public interface GameService {
         GameNotFoundException;
 
     /**
-     * method to get sorted players
+     * method to get the players sorted by score, from the highest to the lowest, ties broken by seat order
      * @param gameId the game id
      * @return a list a player
      * @throws GameNotFoundException if the game doesn't exist
@@ -91,6 +131,20 @@ public interface GameService {
         throws GameNotFoundException,
         GameDoesNotHavePlayersException;
 
+    /**
+     * method to get the players with the best scores, ties broken by seat order
+     * @param gameId the game id
+     * @param count the maximum number of players
+     * @return a list of players from the highest to the lowest score
+     * @throws GameNotFoundException if the game doesn't exist
+     * @throws GameDoesNotHavePlayersException if the game doesn't have players
+     */
+    List<Player> getTopPlayers(
+        Integer gameId,
+        int count)
+        throws GameNotFoundException,
+        GameDoesNotHavePlayersException;
+
     /**
      * method to get a single player
      * @param gameId the game id
@@ -127,6 +181,16 @@ public interface GameService {
         Integer gameId)
         throws GameNotFoundException;
 
+    /**
+     * method to get the count of each undealt card, the compact form of the undealt cards
+     * @param gameId the game id
+     * @return a copy of the counters of the undealt cards
+     * @throws GameNotFoundException if the game doesn't exist
+     */
+    CardCounts getUndealtCardCounts(
+        Integer gameId)
+        throws GameNotFoundException;
+
     /**
      * method to get sorted undealt cards
      * @param gameId the game id
@@ -146,4 +210,76 @@ public interface GameService {
         Integer gameId)
         throws GameNotFoundException;
 
+    /**
+     * method to shuffle the cards of many games in parallel
+     * @param gameIds the game ids
+     * @return the number of shuffled games, the games that don't exist are ignored
+     */
+    int shuffleGames(
+        List<Integer> gameIds);
+
+    /**
+     * method to write a snapshot of all the games, each game is copied atomically but not the whole set of games
+     * @return the snapshot name
+     * @throws IOException if the snapshot cannot be written
+     */
+    String snapshot()
+        throws IOException;
+
+    /**
+     * method to replace all the games by the games of a snapshot, the games are replaced one at a time
+     * @param name the snapshot name
+     * @return the number of restored games
+     * @throws SnapshotNotFoundException if the snapshot doesn't exist
+     * @throws IOException if the snapshot cannot be read
+     */
+    int restore(
+        String name)
+        throws SnapshotNotFoundException,
+        IOException;
+
+    /**
+     * method to get the version tag of a game without waiting for its lock, to validate the cached views of the game
+     * @param gameId the game id
+     * @return a tag that changes whenever the game changes
+     * @throws GameNotFoundException if the game doesn't exist
+     */
+    String getVersionTag(
+        Integer gameId)
+        throws GameNotFoundException;
+
+    /**
+     * method to subscribe to the changes of a game
+     * @param gameId the game id
+     * @return the subscription, its first event is a SYNC event
+     * @throws GameNotFoundException if the game doesn't exist
+     */
+    GameEventSubscription subscribe(
+        Integer gameId)
+        throws GameNotFoundException;
+
+    /**
+     * method to count the live games
+     * @return the number of games
+     */
+    int countGames();
+
+    /**
+     * method to count the players seated in the live games, the count is not atomic across games
+     * @return the number of players
+     */
+    long countPlayers();
+
+    /**
+     * method to count the decks in use in the live games, the count is not atomic across games
+     * @return the number of decks
+     */
+    long countDecks();
+
+    /**
+     * method to count the cards dealt since the service started
+     * @return the number of cards dealt
+     */
+    long countDealtCards();
+
 }
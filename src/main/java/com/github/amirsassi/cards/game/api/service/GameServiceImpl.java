@@ -1,46 +1,112 @@
 package com.github.amirsassi.cards.game.api.service;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.amirsassi.cards.game.api.cluster.GameHandoff;
 import com.github.amirsassi.cards.game.api.domain.Card;
+import com.github.amirsassi.cards.game.api.domain.CardCounts;
 import com.github.amirsassi.cards.game.api.domain.Deck;
 import com.github.amirsassi.cards.game.api.domain.FaceValue;
 import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Hand;
 import com.github.amirsassi.cards.game.api.domain.Player;
 import com.github.amirsassi.cards.game.api.domain.Suit;
+import com.github.amirsassi.cards.game.api.event.GameEvent;
+import com.github.amirsassi.cards.game.api.event.GameEventBus;
+import com.github.amirsassi.cards.game.api.event.GameEventSubscription;
 import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
 import com.github.amirsassi.cards.game.api.exception.GameDoesNotHavePlayersException;
 import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.PlayerAlreadyExistsException;
 import com.github.amirsassi.cards.game.api.exception.PlayerNotFoundException;
-
+import com.github.amirsassi.cards.game.api.exception.SnapshotNotFoundException;
+import com.github.amirsassi.cards.game.api.persistence.DisabledGameJournal;
+import com.github.amirsassi.cards.game.api.persistence.GameJournal;
+import com.github.amirsassi.cards.game.api.persistence.SnapshotStore;
+import com.github.amirsassi.cards.game.api.registry.GameRegistry;
+import com.github.amirsassi.cards.game.api.registry.StripedGameRegistry;
+import com.github.amirsassi.cards.game.api.shuffle.ShuffleEngine;
+import com.github.amirsassi.cards.game.api.shuffle.ThreadLocalShuffleEngine;
+
+/**
+ * Game service, thread-safe: every operation runs while holding the lock of the game it targets, so operations on the
+ * same game are linearizable and operations on different games run in parallel. The returned players and cards are
+ * copies taken under the lock. The changes are published to the subscribers of the game under the same lock, in the
+ * order they were made. The deals to single players only hold the game shared lock, they run in parallel with each
+ * other
+ * @author Amir.Sassi
+ */
+@Service
 public class GameServiceImpl
     implements GameService {
 
-    private final List<Game> games = new ArrayList<>();
+    @Autowired(required = false)
+    private GameRegistry games = new StripedGameRegistry();
+
+    @Autowired(required = false)
+    private ShuffleEngine shuffleEngine = new ThreadLocalShuffleEngine();
+
+    @Autowired(required = false)
+    private GameJournal journal = new DisabledGameJournal();
+
+    @Autowired(required = false)
+    private SnapshotStore snapshots = new SnapshotStore(Paths.get("snapshots"));
 
-    private static final Random RANDOM = new Random();
+    private final GameEventBus events = new GameEventBus();
 
-    private static final int MAX_CARDS = 52;
+    @Value("${game.events.buffer-size:64}")
+    private int eventBufferSize = 64;
+
+    @Value("${game.shoe.penetration:1.0}")
+    private double penetration = 1.0;
+
+    private final LongAdder dealtCards = new LongAdder();
+
+    /**
+     * method to restore the journaled games then start evicting the idle ones, called once before the first operation
+     * @throws IOException if the journal cannot be read
+     */
+    @PostConstruct
+    public void open()
+        throws IOException {
+
+        this.journal.open(this.games);
+        this.games.startEviction(this::dropped, this::reloaded);
+    }
 
     @Override
     public void createGame(
         final Game pGame)
         throws GameAlreadyExistsException {
 
-        final Optional<Game> foundedGame =
-            this.games.stream().filter(game -> game.getGameId().equals(pGame.getGameId())).findFirst();
-
-        if (foundedGame.isPresent()) {
-            throw new GameAlreadyExistsException(pGame.getGameId());
-        } else {
-            this.games.add(pGame);
+        // locked before it is shared, so its first record precedes the records of the other operations
+        pGame.lock();
+        try {
+            if (!this.games.putIfAbsent(pGame)) {
+                throw new GameAlreadyExistsException(pGame.getGameId());
+            }
+            this.journal.created(pGame);
+        } finally {
+            pGame.unlock();
         }
     }
 
@@ -49,18 +115,68 @@ public class GameServiceImpl
         final Integer gameId)
         throws GameNotFoundException {
 
-        final Game game = findGameById(gameId);
-        this.games.remove(game);
+        final Game game = lockGame(gameId);
+        try {
+            this.games.remove(gameId);
+            game.setDeleted(true);
+            game.changed();
+            this.journal.deleted(game);
+            publish(GameEvent.deleted(gameId, game.getVersion()));
+        } finally {
+            game.unlock();
+        }
+    }
+
+    /**
+     * each game is published by {@link #createGame(Game)} with its decks and players, so it is created atomically and
+     * journaled as one record
+     */
+    @Override
+    public List<BulkResult> createGames(
+        final List<Game> pGames) {
+
+        return pGames.parallelStream().map(game -> {
+            try {
+                createGame(game);
+                return new BulkResult(game.getGameId(), BulkResult.Status.CREATED, null);
+            } catch (final GameAlreadyExistsException exception) {
+                return new BulkResult(game.getGameId(), BulkResult.Status.ALREADY_EXISTS, exception.getMessage());
+            }
+        }).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BulkResult> deleteGames(
+        final List<Integer> gameIds) {
+
+        return gameIds.parallelStream().map(gameId -> {
+            try {
+                deleteGame(gameId);
+                return new BulkResult(gameId, BulkResult.Status.DELETED, null);
+            } catch (final GameNotFoundException exception) {
+                return new BulkResult(gameId, BulkResult.Status.NOT_FOUND, exception.getMessage());
+            }
+        }).collect(Collectors.toList());
     }
 
     @Override
     public void addPlayer(
         final Integer gameId,
         final Player player)
-        throws GameNotFoundException {
+        throws GameNotFoundException,
+        PlayerAlreadyExistsException {
 
-        final Game game = findGameById(gameId);
-        game.getPlayers().add(player);
+        final Game game = lockGame(gameId);
+        try {
+            if (!game.addPlayer(player)) {
+                throw new PlayerAlreadyExistsException(player.getPlayerId());
+            }
+            game.changed();
+            this.journal.playerAdded(game, player);
+            publish(GameEvent.joined(gameId, game.getVersion(), player.getPlayerId()));
+        } finally {
+            game.unlock();
+        }
     }
 
     @Override
@@ -70,10 +186,17 @@ public class GameServiceImpl
         throws PlayerNotFoundException,
         GameNotFoundException {
 
-        final Game game = findGameById(gameId);
-        final List<Player> players = game.getPlayers();
-        final Player player = getPlayer(players, playerId);
-        players.remove(player);
+        final Game game = lockGame(gameId);
+        try {
+            if (playerId == null || game.removePlayer(playerId) == null) {
+                throw new PlayerNotFoundException(playerId);
+            }
+            game.changed();
+            this.journal.playerRemoved(game, playerId);
+            publish(GameEvent.left(gameId, game.getVersion(), playerId));
+        } finally {
+            game.unlock();
+        }
 
     }
 
@@ -83,8 +206,12 @@ public class GameServiceImpl
         throws GameNotFoundException,
         PlayerNotFoundException {
 
-        final Game game = findGameById(gameId);
-        return getPlayer(game.getPlayers(), gameId);
+        final Game game = lockGame(gameId);
+        try {
+            return new Player(getPlayer(game, gameId));
+        } finally {
+            game.unlock();
+        }
     }
 
     @Override
@@ -93,26 +220,30 @@ public class GameServiceImpl
         throws GameNotFoundException,
         GameDoesNotHavePlayersException {
 
-        final Map<Player, Integer> playersWithTotalCardsValue = new HashMap<>();
+        return getTopPlayers(gameId, Integer.MAX_VALUE);
+    }
 
-        final Game game = findGameById(gameId);
-        final List<Player> players = game.getPlayers();
-        if (players.isEmpty()) {
-            throw new GameDoesNotHavePlayersException(gameId);
-        }
+    @Override
+    public List<Player> getTopPlayers(
+        final Integer gameId,
+        final int count)
+        throws GameNotFoundException,
+        GameDoesNotHavePlayersException {
 
-        for (final Player player : players) {
-            final List<Card> cards = player.getCards();
-            Integer value = 0;
-            for (final Card card : cards) {
-                value += card.getFaceValue().getValue();
-                playersWithTotalCardsValue.put(player, value);
+        final Game game = lockGame(gameId);
+        try {
+            if (game.getPlayers().isEmpty()) {
+                throw new GameDoesNotHavePlayersException(gameId);
             }
-        }
-
-        final Map<Player, Integer> sortedMap = getSortedMap(playersWithTotalCardsValue);
 
-        return new ArrayList<>(sortedMap.keySet());
+            final List<Player> players = game.getLeaderboard().top(count);
+            for (int i = 0; i < players.size(); i++) {
+                players.set(i, new Player(players.get(i)));
+            }
+            return players;
+        } finally {
+            game.unlock();
+        }
     }
 
     @Override
@@ -121,10 +252,24 @@ public class GameServiceImpl
         final Deck deck)
         throws GameNotFoundException {
 
-        final Game game = findGameById(gameId);
-        game.getDecks().add(deck);
+        final Game game = lockGame(gameId);
+        try {
+            game.addDeck(deck);
+            game.changed();
+            this.journal.deckAdded(game, deck);
+            publish(GameEvent.deckAdded(gameId, game.getVersion()));
+        } finally {
+            game.unlock();
+        }
     }
 
+    /**
+     * deals under the game shared lock, so the deals to different players of a game run in parallel: the card is
+     * claimed from the shoe by a CAS and the deals to one player are serialized by its hand lock, which also orders
+     * their records and events. The DEALT events of the deals to different players are published concurrently. The
+     * reshuffle at the cut card takes the game lock once the deal is done, the deals racing it may deal a few cards
+     * past the cut card
+     */
     @Override
     public void dealCardsToAPlayer(
         final Integer gameId,
@@ -132,19 +277,96 @@ public class GameServiceImpl
         throws GameNotFoundException,
         PlayerNotFoundException {
 
-        final Game game = findGameById(gameId);
-        final Player player = getPlayer(game.getPlayers(), playerId);
-        final List<Card> cards = player.getCards();
-        if (cards.size() < MAX_CARDS) {
-            final List<Deck> decks = game.getDecks();
+        final Game game = lockGameShared(gameId);
+        final boolean cutCardReached;
+        try {
+            final Player player = getPlayer(game, playerId);
+            player.lockHand();
+            try {
+                final int ordinal = game.dealConcurrently(player);
+                if (ordinal < 0) {
+                    return;
+                }
+                this.dealtCards.increment();
+                // concurrent deals change the version too, the event carries the version of this deal
+                final long version = game.changed();
+                this.journal.dealt(game, player.getPlayerId(), ordinal);
+                if (this.events.hasSubscribers(gameId)) {
+                    this.events.publish(GameEvent.dealt(gameId, version, Collections.singletonMap(player.getPlayerId(),
+                        Collections.singletonList(Card.valueOf(ordinal)))));
+                }
+            } finally {
+                player.unlockHand();
+            }
+            cutCardReached = game.getShoe().isCutCardReached();
+        } finally {
+            game.unlockShared();
+        }
+        if (cutCardReached) {
+            game.lock();
+            try {
+                if (!game.isDeleted()) {
+                    reshuffleAtCutCard(game);
+                }
+            } finally {
+                game.unlock();
+            }
+        }
+    }
+
+    @Override
+    public Map<Integer, List<Card>> dealCards(
+        final Integer gameId,
+        final List<Integer> playerIds,
+        final int rounds)
+        throws GameNotFoundException,
+        PlayerNotFoundException {
+
+        final Game game = lockGame(gameId);
+        try {
+            // every player is resolved before the first card is dealt, so a missing player deals nothing
+            final List<Player> players;
+            if (playerIds == null || playerIds.isEmpty()) {
+                players = new ArrayList<>(game.getPlayers());
+            } else {
+                players = new ArrayList<>(playerIds.size());
+                for (final Integer playerId : playerIds) {
+                    players.add(getPlayer(game, playerId));
+                }
+            }
 
-            for (final Deck deck : decks) {
-                final List<Card> deckCards = deck.getCards();
-                if (!deckCards.isEmpty()) {
-                    cards.add(deckCards.get(0));
+            final int[] handSizes = new int[players.size()];
+            for (int i = 0; i < players.size(); i++) {
+                handSizes[i] = players.get(i).getHand().size();
+            }
+            // a round that deals nothing leaves the shoe empty or the hands full, so does every next round
+            int dealtRounds = 0;
+            while (dealtRounds < rounds) {
+                int dealt = 0;
+                for (final Player player : players) {
+                    dealt += deal(game, player);
                 }
+                if (dealt == 0) {
+                    break;
+                }
+                dealtRounds++;
+            }
+            game.changed();
+            this.journal.dealtRounds(game, players, dealtRounds);
+
+            final Map<Integer, List<Card>> dealtCards = new LinkedHashMap<>();
+            for (int i = 0; i < players.size(); i++) {
+                final Hand hand = players.get(i).getHand();
+                dealtCards.put(players.get(i).getPlayerId(), new ArrayList<>(hand.asList().subList(handSizes[i],
+                    hand.size())));
+            }
+            if (this.events.hasSubscribers(gameId)) {
+                this.events.publish(GameEvent.dealt(gameId, game.getVersion(), new LinkedHashMap<>(dealtCards)));
             }
-            player.setCards(cards);
+            reshuffleAtCutCard(game);
+            return dealtCards;
+        } finally {
+            game.unlock();
         }
     }
 
@@ -155,10 +377,13 @@ public class GameServiceImpl
         throws GameNotFoundException,
         PlayerNotFoundException {
 
-        final Game game = findGameById(gameId);
-        final Player player = getPlayer(game.getPlayers(), playerId);
-
-        return player.getCards();
+        final Game game = lockGame(gameId);
+        try {
+            final Player player = getPlayer(game, playerId);
+            return new ArrayList<>(player.getCards());
+        } finally {
+            game.unlock();
+        }
     }
 
     @Override
@@ -166,15 +391,16 @@ public class GameServiceImpl
         final Integer gameId)
         throws GameNotFoundException {
 
-        final List<Card> cards = new ArrayList<>();
-        final Game game = findGameById(gameId);
-        final List<Deck> decks = game.getDecks();
+        final CardCounts counts = getUndealtCardCounts(gameId);
 
-        for (final Deck deck : decks) {
-            cards.addAll(deck.getCards());
+        final Map<Suit, Long> undealtCards = new EnumMap<>(Suit.class);
+        for (final Suit suit : Suit.values()) {
+            final int count = counts.count(suit);
+            if (count > 0) {
+                undealtCards.put(suit, (long) count);
+            }
         }
-
-        return cards.stream().collect(Collectors.groupingBy(Card::getSuit, Collectors.counting()));
+        return undealtCards;
     }
 
     @Override
@@ -182,15 +408,25 @@ public class GameServiceImpl
         final Integer gameId)
         throws GameNotFoundException {
 
-        final List<Card> cards = new ArrayList<>();
-        final Game game = findGameById(gameId);
-        final List<Deck> decks = game.getDecks();
-
-        for (final Deck deck : decks) {
-            cards.addAll(deck.getCards());
+        final CardCounts counts = getUndealtCardCounts(gameId);
+
+        // suits in declaration order, face values from the highest to the lowest
+        final FaceValue[] faceValues = FaceValue.values();
+        final Map<Suit, Map<FaceValue, List<Card>>> undealtCards = new EnumMap<>(Suit.class);
+        for (final Suit suit : Suit.values()) {
+            if (counts.count(suit) > 0) {
+                final Map<FaceValue, List<Card>> cardsByFaceValue = new LinkedHashMap<>();
+                for (int i = faceValues.length - 1; i >= 0; i--) {
+                    final Card card = Card.of(suit, faceValues[i]);
+                    final int count = counts.count(card);
+                    if (count > 0) {
+                        cardsByFaceValue.put(faceValues[i], Collections.nCopies(count, card));
+                    }
+                }
+                undealtCards.put(suit, cardsByFaceValue);
+            }
         }
-
-        return cards.stream().collect(Collectors.groupingBy(Card::getSuit, Collectors.groupingBy(Card::getFaceValue)));
+        return undealtCards;
 
     }
 
@@ -199,61 +435,461 @@ public class GameServiceImpl
         final Integer gameId)
         throws GameNotFoundException {
 
-        final Game game = findGameById(gameId);
-        final List<Deck> decks = game.getDecks();
+        final Game game = lockGame(gameId);
+        try {
+            shuffle(game);
+        } finally {
+            game.unlock();
+        }
+    }
+
+    @Override
+    public int shuffleGames(
+        final List<Integer> gameIds) {
+
+        return (int) gameIds.parallelStream().filter(gameId -> {
+            try {
+                shuffle(gameId);
+                return true;
+            } catch (final GameNotFoundException exception) {
+                return false;
+            }
+        }).count();
+    }
+
+    @Override
+    public String snapshot()
+        throws IOException {
+
+        return this.snapshots.write(this.games);
+    }
+
+    @Override
+    public int restore(
+        final String name)
+        throws SnapshotNotFoundException,
+        IOException {
+
+        final List<Game> restored = this.snapshots.read(name);
+
+        final List<Game> current = new ArrayList<>();
+        this.games.forEach(current::add);
+        this.games.forEachEvicted(gameId -> {
+            // loaded again so that its deletion is journaled like the others
+            final Game game = this.games.get(gameId);
+            if (game != null) {
+                current.add(game);
+            }
+        });
+        for (final Game game : current) {
+            game.lock();
+            try {
+                if (!game.isDeleted()) {
+                    this.games.remove(game.getGameId());
+                    game.setDeleted(true);
+                    game.changed();
+                    this.journal.deleted(game);
+                    publish(GameEvent.deleted(game.getGameId(), game.getVersion()));
+                }
+            } finally {
+                game.unlock();
+            }
+        }
+
+        int count = 0;
+        for (final Game game : restored) {
+            try {
+                createGame(game);
+                count++;
+            } catch (final GameAlreadyExistsException exception) {
+                // created since the games were removed, the newer game is kept
+            }
+        }
+        return count;
+    }
+
+    /**
+     * method to find the games held by this node, the evicted games are loaded again
+     * @param filter the game ids to find
+     * @return the games, some of them may be deleted by the time they are locked
+     */
+    public List<Game> findGames(
+        final IntPredicate filter) {
+
+        final List<Game> found = new ArrayList<>();
+        this.games.forEach(game -> {
+            if (filter.test(game.getGameId())) {
+                found.add(game);
+            }
+        });
+        this.games.forEachEvicted(gameId -> {
+            if (filter.test(gameId)) {
+                final Game game = this.games.get(gameId);
+                if (game != null) {
+                    found.add(game);
+                }
+            }
+        });
+        return found;
+    }
 
-        for (final Deck deck : decks) {
+    /**
+     * method to hand games over to another node: the games are locked, sent while locked, then removed and journaled
+     * as deleted once sent, so no change made after their copy is lost. Their subscribers get a MOVED event. The
+     * games are locked in the order of the list, a single thread hands games over
+     * @param pGames the games to hand over
+     * @param handoff sends the locked games, the games are kept if it fails and the games it refuses are kept
+     * @return the number of games handed over, the deleted and refused games are skipped
+     * @throws IOException if the games cannot be sent
+     */
+    public int handOver(
+        final List<Game> pGames,
+        final GameHandoff handoff)
+        throws IOException {
+
+        final List<Game> locked = new ArrayList<>(pGames.size());
+        try {
+            for (final Game game : pGames) {
+                game.lock();
+                if (game.isDeleted()) {
+                    game.unlock();
+                } else {
+                    locked.add(game);
+                }
+            }
+            if (locked.isEmpty()) {
+                return 0;
+            }
+            final Set<Integer> refused = new HashSet<>(handoff.send(locked));
+            int handedOver = 0;
+            for (final Game game : locked) {
+                if (refused.contains(game.getGameId())) {
+                    continue;
+                }
+                handedOver++;
+                this.games.remove(game.getGameId());
+                game.setDeleted(true);
+                game.changed();
+                this.journal.deleted(game);
+                publish(GameEvent.moved(game.getGameId(), game.getVersion()));
+            }
+            return handedOver;
+        } finally {
+            for (final Game game : locked) {
+                game.unlock();
+            }
+        }
+    }
 
-            final List<Card> cards = deck.getCards();
+    /**
+     * method to install a game replicated from the primary, in place of the game of the same id. Not journaled, the
+     * subscribers of the game get a SYNC event. A single thread replicates the games
+     * @param pGame the game, with the sequence number of its last replicated change
+     * @param replace true to replace the current game whatever its sequence number, as the full sync does
+     */
+    public void replicateGame(
+        final Game pGame,
+        final boolean replace) {
+
+        final Game current = this.games.get(pGame.getGameId());
+        if (current != null) {
+            current.lock();
+            try {
+                if (!current.isDeleted()) {
+                    if (!replace && current.getReplicationSequence() >= pGame.getReplicationSequence()) {
+                        return;
+                    }
+                    this.games.remove(current.getGameId());
+                    current.setDeleted(true);
+                    current.changed();
+                }
+            } finally {
+                current.unlock();
+            }
+        }
+        pGame.lock();
+        try {
+            this.games.putIfAbsent(pGame);
+            publish(GameEvent.sync(pGame.getGameId(), pGame.getVersion()));
+        } finally {
+            pGame.unlock();
+        }
+    }
 
-            if (cards != null && !cards.isEmpty()) {
-                final int size = cards.size();
+    /**
+     * method to apply a change replicated from the primary to its game, unless the game already holds it. Not
+     * journaled, the subscribers of the game get a SYNC event
+     * @param gameId the game id
+     * @param sequence the sequence number of the change
+     * @param change applies the change to the locked game, null to delete the game
+     * @return true if the change was applied, false if the game is unknown or already holds it
+     */
+    public boolean replicate(
+        final int gameId,
+        final long sequence,
+        final Consumer<Game> change) {
+
+        final Game game;
+        try {
+            game = lockGame(gameId);
+        } catch (final GameNotFoundException exception) {
+            return false;
+        }
+        try {
+            if (game.getReplicationSequence() >= sequence) {
+                return false;
+            }
+            game.setReplicationSequence(sequence);
+            game.changed();
+            if (change == null) {
+                this.games.remove(gameId);
+                game.setDeleted(true);
+                publish(GameEvent.deleted(gameId, game.getVersion()));
+            } else {
+                change.accept(game);
+                publish(GameEvent.sync(gameId, game.getVersion()));
+            }
+            return true;
+        } finally {
+            game.unlock();
+        }
+    }
 
-                for (int i = 0; i < size; i++) {
-                    final int newIndex = i + RANDOM.nextInt(size - i);
-                    swap(cards, i, newIndex);
+    /**
+     * method to remove the games the primary no longer holds after a full sync, not journaled
+     * @param replicated the ids of the games sent by the full sync
+     * @return the number of removed games
+     */
+    public int retainReplicated(
+        final IntPredicate replicated) {
+
+        int removed = 0;
+        for (final Game game : findGames(replicated.negate())) {
+            game.lock();
+            try {
+                if (!game.isDeleted()) {
+                    this.games.remove(game.getGameId());
+                    game.setDeleted(true);
+                    game.changed();
+                    publish(GameEvent.deleted(game.getGameId(), game.getVersion()));
+                    removed++;
                 }
+            } finally {
+                game.unlock();
             }
         }
+        return removed;
+    }
+
+    @Override
+    public String getVersionTag(
+        final Integer gameId)
+        throws GameNotFoundException {
+
+        Game game = findGameById(gameId);
+        if (game.isDeleted()) {
+            // evicted since it was found, an evicted game is found again if it was spilled
+            game = findGameById(gameId);
+            if (game.isDeleted()) {
+                throw new GameNotFoundException(gameId);
+            }
+        }
+        return game.getVersionTag();
+    }
+
+    @Override
+    public GameEventSubscription subscribe(
+        final Integer gameId)
+        throws GameNotFoundException {
+
+        final Game game = lockGame(gameId);
+        try {
+            return this.events.subscribe(gameId, game.getVersion(), this.eventBufferSize);
+        } finally {
+            game.unlock();
+        }
+    }
+
+    @Override
+    public int countGames() {
+
+        return this.games.size();
+    }
+
+    /**
+     * the sizes are read without the game locks, a scrape never delays the games
+     */
+    @Override
+    public long countPlayers() {
+
+        final LongAdder players = new LongAdder();
+        this.games.forEach(game -> players.add(game.getPlayers().size()));
+        return players.sum();
+    }
+
+    @Override
+    public long countDecks() {
+
+        final LongAdder decks = new LongAdder();
+        this.games.forEach(game -> decks.add(game.getShoe().getDecks()));
+        return decks.sum();
+    }
+
+    @Override
+    public long countDealtCards() {
+
+        return this.dealtCards.sum();
+    }
+
+    @Override
+    public CardCounts getUndealtCardCounts(
+        final Integer gameId)
+        throws GameNotFoundException {
+
+        final Game game = lockGame(gameId);
+        try {
+            return new CardCounts(game.getUndealtCards());
+        } finally {
+            game.unlock();
+        }
     }
 
-    private <T> void swap(
-        final List<T> list,
-        final int index,
-        final int value) {
+    /**
+     * deals the top card of the shoe to the player, the game lock must be held
+     */
+    private int deal(
+        final Game game,
+        final Player player) {
+
+        final int dealt = game.deal(player);
+        this.dealtCards.add(dealt);
+        return dealt;
+    }
 
-        final T objectContent = list.get(index);
-        list.set(index, list.get(value));
-        list.set(value, objectContent);
+    /**
+     * shuffles the undealt cards of the shoe and places the cut card, the game lock must be held
+     */
+    private void shuffle(
+        final Game game) {
+
+        final long streamId = ShuffleEngine.streamId(game.getGameId(), game.nextShuffle());
+        this.shuffleEngine.shuffle(game.getShoe(), streamId);
+        game.getShoe().placeCutCard(this.penetration);
+        game.changed();
+        this.journal.shuffled(game);
+        publish(GameEvent.shuffled(game.getGameId(), game.getVersion()));
+    }
+
+    /**
+     * reshuffles the shoe once a deal reached its cut card, after the deal is complete like a round at a table, so the
+     * deal and the shuffle are journaled as two records. The game lock must be held
+     */
+    private void reshuffleAtCutCard(
+        final Game game) {
+
+        if (game.getShoe().isCutCardReached()) {
+            shuffle(game);
+        }
+    }
+
+    /**
+     * publishes a change to the subscribers of its game, the game lock must be held exclusively: only the deals to one
+     * player publish under the shared lock, see {@link GameEventBus}
+     */
+    private void publish(
+        final GameEvent event) {
+
+        if (this.events.hasSubscribers(event.getGameId())) {
+            this.events.publish(event);
+        }
     }
 
     private Player getPlayer(
-        final List<Player> players,
+        final Game game,
         final Integer playerId)
         throws PlayerNotFoundException {
 
-        return players.stream().filter(player -> player.getPlayerId().equals(playerId)).findFirst()
-            .orElseThrow(() -> new PlayerNotFoundException(playerId));
+        final Player player = playerId == null ? null : game.getPlayer(playerId);
+        if (player == null) {
+            throw new PlayerNotFoundException(playerId);
+        }
+        return player;
     }
 
-    public Game findGameById(
+    /**
+     * records the deletion of a game evicted without being spilled, the game lock is held
+     */
+    private void dropped(
+        final Game game) {
+
+        this.journal.deleted(game);
+        publish(GameEvent.deleted(game.getGameId(), game.getVersion()));
+    }
+
+    /**
+     * records a game loaded again from the spill as created, so that the journal holds it even if it was evicted
+     * before the last journal snapshot, the game lock is held
+     */
+    private void reloaded(
+        final Game game) {
+
+        this.journal.created(game);
+    }
+
+    /**
+     * finds and locks a game that is not deleted, the lock must be released by a call to unlock in a finally block. A
+     * game deleted while waiting for its lock is looked up again, in case it was evicted then loaded again or created
+     * again
+     */
+    private Game lockGame(
         final Integer gameId)
         throws GameNotFoundException {
 
-        return this.games.stream().filter(game -> game.getGameId().equals(gameId)).findFirst()
-            .orElseThrow(() -> new GameNotFoundException(gameId));
-
+        Game game = findGameById(gameId);
+        game.lock();
+        while (game.isDeleted()) {
+            game.unlock();
+            final Game current = findGameById(gameId);
+            if (current == game) {
+                throw new GameNotFoundException(gameId);
+            }
+            game = current;
+            game.lock();
+        }
+        return game;
     }
 
-    private Map<Player, Integer> getSortedMap(
-        final Map<Player, Integer> unsortedMap) {
+    /**
+     * finds a game that is not deleted and acquires its shared lock, like {@link #lockGame(Integer)}
+     */
+    private Game lockGameShared(
+        final Integer gameId)
+        throws GameNotFoundException {
 
-        final Map<Player, Integer> reverseSortedMap = new HashMap<>();
+        Game game = findGameById(gameId);
+        game.lockShared();
+        while (game.isDeleted()) {
+            game.unlockShared();
+            final Game current = findGameById(gameId);
+            if (current == game) {
+                throw new GameNotFoundException(gameId);
+            }
+            game = current;
+            game.lockShared();
+        }
+        return game;
+    }
 
-        unsortedMap.entrySet().stream().sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
-            .forEachOrdered(x -> reverseSortedMap.put(x.getKey(), x.getValue()));
+    public Game findGameById(
+        final Integer gameId)
+        throws GameNotFoundException {
+
+        final Game game = gameId == null ? null : this.games.get(gameId);
+        if (game == null) {
+            throw new GameNotFoundException(gameId);
+        }
+        return game;
 
-        return reverseSortedMap;
     }
 
 }
@@ -0,0 +1,542 @@
+package com.github.amirsassi.cards.game.api.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.github.amirsassi.cards.game.api.domain.Card;
+import com.github.amirsassi.cards.game.api.domain.CardCounts;
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.FaceValue;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.domain.Suit;
+import com.github.amirsassi.cards.game.api.event.GameEventSubscription;
+import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.GameDoesNotHavePlayersException;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.PlayerAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.PlayerNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.SnapshotNotFoundException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Game service decorator recording the metrics of every operation:
+ * <ul>
+ * <li>game.operations: the latency timer of each operation, tagged by operation</li>
+ * <li>game.errors: the failed operations, tagged by operation and exception type</li>
+ * <li>game.cards.dealt: the cards dealt since the start</li>
+ * <li>game.games.live, game.players.live, game.decks.live: the live games, players and decks</li>
+ * </ul>
+ * The timers are registered once, so an operation only costs two clock reads and a timer update. The counters and
+ * gauges are computed by the game service when the registry is scraped, never on the calls
+ * @author Amir.Sassi
+ */
+public class MeteredGameService
+    implements GameService {
+
+    private final GameService gameService;
+
+    private final MeterRegistry registry;
+
+    private final Operation create;
+
+    private final Operation delete;
+
+    private final Operation createBulk;
+
+    private final Operation deleteBulk;
+
+    private final Operation addDeck;
+
+    private final Operation addPlayer;
+
+    private final Operation removePlayer;
+
+    private final Operation getPlayer;
+
+    private final Operation sortedPlayers;
+
+    private final Operation topPlayers;
+
+    private final Operation deal;
+
+    private final Operation dealBatch;
+
+    private final Operation playerCards;
+
+    private final Operation undealtCards;
+
+    private final Operation undealtCardCounts;
+
+    private final Operation sortedUndealtCards;
+
+    private final Operation shuffle;
+
+    private final Operation shuffleGames;
+
+    private final Operation snapshot;
+
+    private final Operation restore;
+
+    private final Operation subscribe;
+
+    public MeteredGameService(final GameService pGameService, final MeterRegistry pRegistry) {
+
+        super();
+        this.gameService = pGameService;
+        this.registry = pRegistry;
+        this.create = new Operation("create");
+        this.delete = new Operation("delete");
+        this.createBulk = new Operation("createBulk");
+        this.deleteBulk = new Operation("deleteBulk");
+        this.addDeck = new Operation("addDeck");
+        this.addPlayer = new Operation("addPlayer");
+        this.removePlayer = new Operation("removePlayer");
+        this.getPlayer = new Operation("getPlayer");
+        this.sortedPlayers = new Operation("sortedPlayers");
+        this.topPlayers = new Operation("topPlayers");
+        this.deal = new Operation("deal");
+        this.dealBatch = new Operation("dealBatch");
+        this.playerCards = new Operation("playerCards");
+        this.undealtCards = new Operation("undealtCards");
+        this.undealtCardCounts = new Operation("undealtCardCounts");
+        this.sortedUndealtCards = new Operation("sortedUndealtCards");
+        this.shuffle = new Operation("shuffle");
+        this.shuffleGames = new Operation("shuffleGames");
+        this.snapshot = new Operation("snapshot");
+        this.restore = new Operation("restore");
+        this.subscribe = new Operation("subscribe");
+
+        FunctionCounter.builder("game.cards.dealt", pGameService, GameService::countDealtCards)
+            .description("Cards dealt since the start").register(pRegistry);
+        Gauge.builder("game.games.live", pGameService, GameService::countGames).strongReference(true)
+            .description("Live games").register(pRegistry);
+        Gauge.builder("game.players.live", pGameService, GameService::countPlayers).strongReference(true)
+            .description("Players seated in the live games").register(pRegistry);
+        Gauge.builder("game.decks.live", pGameService, GameService::countDecks).strongReference(true)
+            .description("Decks in use in the live games").register(pRegistry);
+    }
+
+    @Override
+    public void createGame(
+        final Game game)
+        throws GameAlreadyExistsException {
+
+        final long start = System.nanoTime();
+        try {
+            this.gameService.createGame(game);
+        } catch (final Exception exception) {
+            this.create.failed(exception);
+            throw exception;
+        } finally {
+            this.create.record(start);
+        }
+    }
+
+    @Override
+    public void deleteGame(
+        final Integer gameId)
+        throws GameNotFoundException {
+
+        final long start = System.nanoTime();
+        try {
+            this.gameService.deleteGame(gameId);
+        } catch (final Exception exception) {
+            this.delete.failed(exception);
+            throw exception;
+        } finally {
+            this.delete.record(start);
+        }
+    }
+
+    @Override
+    public List<BulkResult> createGames(
+        final List<Game> games) {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.createGames(games);
+        } catch (final RuntimeException exception) {
+            this.createBulk.failed(exception);
+            throw exception;
+        } finally {
+            this.createBulk.record(start);
+        }
+    }
+
+    @Override
+    public List<BulkResult> deleteGames(
+        final List<Integer> gameIds) {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.deleteGames(gameIds);
+        } catch (final RuntimeException exception) {
+            this.deleteBulk.failed(exception);
+            throw exception;
+        } finally {
+            this.deleteBulk.record(start);
+        }
+    }
+
+    @Override
+    public void addDeckToGameDeck(
+        final Integer gameId,
+        final Deck deck)
+        throws GameNotFoundException {
+
+        final long start = System.nanoTime();
+        try {
+            this.gameService.addDeckToGameDeck(gameId, deck);
+        } catch (final Exception exception) {
+            this.addDeck.failed(exception);
+            throw exception;
+        } finally {
+            this.addDeck.record(start);
+        }
+    }
+
+    @Override
+    public void dealCardsToAPlayer(
+        final Integer gameId,
+        final Integer playerId)
+        throws GameNotFoundException,
+        PlayerNotFoundException {
+
+        final long start = System.nanoTime();
+        try {
+            this.gameService.dealCardsToAPlayer(gameId, playerId);
+        } catch (final Exception exception) {
+            this.deal.failed(exception);
+            throw exception;
+        } finally {
+            this.deal.record(start);
+        }
+    }
+
+    @Override
+    public Map<Integer, List<Card>> dealCards(
+        final Integer gameId,
+        final List<Integer> playerIds,
+        final int rounds)
+        throws GameNotFoundException,
+        PlayerNotFoundException {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.dealCards(gameId, playerIds, rounds);
+        } catch (final Exception exception) {
+            this.dealBatch.failed(exception);
+            throw exception;
+        } finally {
+            this.dealBatch.record(start);
+        }
+    }
+
+    @Override
+    public void addPlayer(
+        final Integer gameId,
+        final Player player)
+        throws GameNotFoundException,
+        PlayerAlreadyExistsException {
+
+        final long start = System.nanoTime();
+        try {
+            this.gameService.addPlayer(gameId, player);
+        } catch (final Exception exception) {
+            this.addPlayer.failed(exception);
+            throw exception;
+        } finally {
+            this.addPlayer.record(start);
+        }
+    }
+
+    @Override
+    public void removePlayer(
+        final Integer gameId,
+        final Integer playerId)
+        throws PlayerNotFoundException,
+        GameNotFoundException {
+
+        final long start = System.nanoTime();
+        try {
+            this.gameService.removePlayer(gameId, playerId);
+        } catch (final Exception exception) {
+            this.removePlayer.failed(exception);
+            throw exception;
+        } finally {
+            this.removePlayer.record(start);
+        }
+    }
+
+    @Override
+    public List<Player> getSortedPlayers(
+        final Integer gameId)
+        throws GameNotFoundException,
+        GameDoesNotHavePlayersException {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.getSortedPlayers(gameId);
+        } catch (final Exception exception) {
+            this.sortedPlayers.failed(exception);
+            throw exception;
+        } finally {
+            this.sortedPlayers.record(start);
+        }
+    }
+
+    @Override
+    public List<Player> getTopPlayers(
+        final Integer gameId,
+        final int count)
+        throws GameNotFoundException,
+        GameDoesNotHavePlayersException {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.getTopPlayers(gameId, count);
+        } catch (final Exception exception) {
+            this.topPlayers.failed(exception);
+            throw exception;
+        } finally {
+            this.topPlayers.record(start);
+        }
+    }
+
+    @Override
+    public Player getPlayer(
+        final Integer gameId)
+        throws GameNotFoundException,
+        PlayerNotFoundException {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.getPlayer(gameId);
+        } catch (final Exception exception) {
+            this.getPlayer.failed(exception);
+            throw exception;
+        } finally {
+            this.getPlayer.record(start);
+        }
+    }
+
+    @Override
+    public List<Card> getPlayerCards(
+        final Integer gameId,
+        final Integer playerId)
+        throws GameNotFoundException,
+        PlayerNotFoundException {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.getPlayerCards(gameId, playerId);
+        } catch (final Exception exception) {
+            this.playerCards.failed(exception);
+            throw exception;
+        } finally {
+            this.playerCards.record(start);
+        }
+    }
+
+    @Override
+    public Map<Suit, Long> getUndealtCards(
+        final Integer gameId)
+        throws GameNotFoundException {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.getUndealtCards(gameId);
+        } catch (final Exception exception) {
+            this.undealtCards.failed(exception);
+            throw exception;
+        } finally {
+            this.undealtCards.record(start);
+        }
+    }
+
+    @Override
+    public CardCounts getUndealtCardCounts(
+        final Integer gameId)
+        throws GameNotFoundException {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.getUndealtCardCounts(gameId);
+        } catch (final Exception exception) {
+            this.undealtCardCounts.failed(exception);
+            throw exception;
+        } finally {
+            this.undealtCardCounts.record(start);
+        }
+    }
+
+    @Override
+    public Map<Suit, Map<FaceValue, List<Card>>> getSortedRemainingUndealtCards(
+        final Integer gameId)
+        throws GameNotFoundException {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.getSortedRemainingUndealtCards(gameId);
+        } catch (final Exception exception) {
+            this.sortedUndealtCards.failed(exception);
+            throw exception;
+        } finally {
+            this.sortedUndealtCards.record(start);
+        }
+    }
+
+    @Override
+    public void shuffle(
+        final Integer gameId)
+        throws GameNotFoundException {
+
+        final long start = System.nanoTime();
+        try {
+            this.gameService.shuffle(gameId);
+        } catch (final Exception exception) {
+            this.shuffle.failed(exception);
+            throw exception;
+        } finally {
+            this.shuffle.record(start);
+        }
+    }
+
+    @Override
+    public int shuffleGames(
+        final List<Integer> gameIds) {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.shuffleGames(gameIds);
+        } catch (final RuntimeException exception) {
+            this.shuffleGames.failed(exception);
+            throw exception;
+        } finally {
+            this.shuffleGames.record(start);
+        }
+    }
+
+    @Override
+    public String snapshot()
+        throws IOException {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.snapshot();
+        } catch (final Exception exception) {
+            this.snapshot.failed(exception);
+            throw exception;
+        } finally {
+            this.snapshot.record(start);
+        }
+    }
+
+    @Override
+    public int restore(
+        final String name)
+        throws SnapshotNotFoundException,
+        IOException {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.restore(name);
+        } catch (final Exception exception) {
+            this.restore.failed(exception);
+            throw exception;
+        } finally {
+            this.restore.record(start);
+        }
+    }
+
+    /**
+     * not timed, it is a lookup made before every cached read
+     */
+    @Override
+    public String getVersionTag(
+        final Integer gameId)
+        throws GameNotFoundException {
+
+        return this.gameService.getVersionTag(gameId);
+    }
+
+    @Override
+    public GameEventSubscription subscribe(
+        final Integer gameId)
+        throws GameNotFoundException {
+
+        final long start = System.nanoTime();
+        try {
+            return this.gameService.subscribe(gameId);
+        } catch (final Exception exception) {
+            this.subscribe.failed(exception);
+            throw exception;
+        } finally {
+            this.subscribe.record(start);
+        }
+    }
+
+    @Override
+    public int countGames() {
+
+        return this.gameService.countGames();
+    }
+
+    @Override
+    public long countPlayers() {
+
+        return this.gameService.countPlayers();
+    }
+
+    @Override
+    public long countDecks() {
+
+        return this.gameService.countDecks();
+    }
+
+    @Override
+    public long countDealtCards() {
+
+        return this.gameService.countDealtCards();
+    }
+
+    /**
+     * the meters of an operation, the error counters are looked up on failures only
+     */
+    private final class Operation {
+
+        private final String name;
+
+        private final Timer timer;
+
+        private Operation(final String pName) {
+
+            this.name = pName;
+            this.timer = Timer.builder("game.operations").description("Latency of the game operations")
+                .tag("operation", pName).register(MeteredGameService.this.registry);
+        }
+
+        private void record(
+            final long start) {
+
+            this.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        private void failed(
+            final Exception exception) {
+
+            Counter.builder("game.errors").description("Failed game operations").tag("operation", this.name)
+                .tag("exception", exception.getClass().getSimpleName()).register(MeteredGameService.this.registry)
+                .increment();
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.github.amirsassi.cards.game.api.shuffle;
+
+import java.util.SplittableRandom;
+
+import com.github.amirsassi.cards.game.api.domain.Shoe;
+
+/**
+ * Reproducible shuffle engine for replays and audits: each shuffle draws from a SplittableRandom seeded with the
+ * engine seed and the stream id of the shuffle, so a permutation only depends on the seed, the game and the number of
+ * shuffles already done on that game, whatever the threads involved
+ * @author Amir.Sassi
+ */
+public class SeededShuffleEngine
+    implements ShuffleEngine {
+
+    private final long seed;
+
+    public SeededShuffleEngine(final long pSeed) {
+
+        super();
+        this.seed = pSeed;
+    }
+
+    @Override
+    public void shuffle(
+        final Shoe shoe,
+        final long streamId) {
+
+        final SplittableRandom random = new SplittableRandom(ShuffleEngine.streamId(this.seed, streamId));
+        final int size = shoe.size();
+
+        for (int i = 0; i < size - 1; i++) {
+            shoe.swap(i, i + random.nextInt(size - i));
+        }
+    }
+
+    public long getSeed() {
+
+        return this.seed;
+    }
+
+}
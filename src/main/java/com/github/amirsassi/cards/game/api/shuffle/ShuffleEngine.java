@@ -0,0 +1,35 @@
+package com.github.amirsassi.cards.game.api.shuffle;
+
+import com.github.amirsassi.cards.game.api.domain.Shoe;
+
+/**
+ * Interface for the shuffle engines, an engine permutes the undealt cards of a shoe without library-provided shuffle
+ * operations
+ * @author Amir.Sassi
+ */
+public interface ShuffleEngine {
+
+    /**
+     * method to shuffle the undealt cards of a shoe, the cards of all its decks together
+     * @param shoe the shoe
+     * @param streamId identifies the shuffle, a seeded engine derives its random sequence from it so that the same
+     *        seed and stream id always give the same permutation, other engines ignore it
+     */
+    void shuffle(
+        Shoe shoe,
+        long streamId);
+
+    /**
+     * method to build a stream id
+     * @param high the first part, for instance the game id
+     * @param low the second part, for instance a sequence number
+     * @return the stream id
+     */
+    static long streamId(
+        final long high,
+        final long low) {
+
+        return high * 0x9E3779B97F4A7C15L + low;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.github.amirsassi.cards.game.api.shuffle;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.github.amirsassi.cards.game.api.domain.Shoe;
+
+/**
+ * Default shuffle engine: a Fisher-Yates shuffle drawing from the random generator of the calling thread, so
+ * concurrent shuffles never contend on a shared seed
+ * @author Amir.Sassi
+ */
+public class ThreadLocalShuffleEngine
+    implements ShuffleEngine {
+
+    @Override
+    public void shuffle(
+        final Shoe shoe,
+        final long streamId) {
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int size = shoe.size();
+
+        for (int i = 0; i < size - 1; i++) {
+            shoe.swap(i, i + random.nextInt(size - i));
+        }
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.github.amirsassi.cards.game.api.util;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Hash map on primitive int keys, open addressing with linear probing and backward shift deletion, so neither the
+ * keys are boxed nor tombstones are left behind. Null values are not supported and the map is not thread-safe
+ * @param <V> the type of the values
+ * @author Amir.Sassi
+ */
+public class IntHashMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    public IntHashMap() {
+
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param pCapacity the initial capacity, rounded up to a power of two
+     */
+    public IntHashMap(final int pCapacity) {
+
+        super();
+        final int capacity = pCapacity <= 2 ? 2 : Integer.highestOneBit(pCapacity - 1) << 1;
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+    }
+
+    /**
+     * murmur3 finalizer, the ids are usually sequential so they must be spread before masking
+     * @param key the key
+     * @return the spread hash of the key
+     */
+    public static int hash(
+        final int key) {
+
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * method to add a value if the key is absent
+     * @param key the key
+     * @param value the value, not null
+     * @return the value already mapped to the key, or null if the value was added
+     */
+    public V putIfAbsent(
+        final int key,
+        final V value) {
+
+        int mask = this.values.length - 1;
+        int slot = hash(key) & mask;
+        while (this.values[slot] != null) {
+            if (this.keys[slot] == key) {
+                return valueAt(slot);
+            }
+            slot = (slot + 1) & mask;
+        }
+        if ((this.size + 1) << 1 > this.values.length) {
+            resize();
+            mask = this.values.length - 1;
+            slot = hash(key) & mask;
+            while (this.values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        this.size++;
+        return null;
+    }
+
+    /**
+     * method to get a value
+     * @param key the key
+     * @return the value or null if the key is absent
+     */
+    public V get(
+        final int key) {
+
+        final int mask = this.values.length - 1;
+        int slot = hash(key) & mask;
+        while (this.values[slot] != null) {
+            if (this.keys[slot] == key) {
+                return valueAt(slot);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * method to remove a value
+     * @param key the key
+     * @return the removed value or null if the key is absent
+     */
+    public V remove(
+        final int key) {
+
+        final int mask = this.values.length - 1;
+        int slot = hash(key) & mask;
+        while (this.values[slot] != null) {
+            if (this.keys[slot] == key) {
+                final V value = valueAt(slot);
+                shiftBack(slot, mask);
+                this.size--;
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+
+        return this.size;
+    }
+
+    public void clear() {
+
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+
+    /**
+     * method to visit every value, the map must not be modified during the visit
+     * @param action the action applied to each value
+     */
+    public void forEachValue(
+        final Consumer<? super V> action) {
+
+        for (int slot = 0; slot < this.values.length; slot++) {
+            if (this.values[slot] != null) {
+                action.accept(valueAt(slot));
+            }
+        }
+    }
+
+    /**
+     * method to visit every key, the map must not be modified during the visit
+     * @param action the action applied to each key
+     */
+    public void forEachKey(
+        final IntConsumer action) {
+
+        for (int slot = 0; slot < this.values.length; slot++) {
+            if (this.values[slot] != null) {
+                action.accept(this.keys[slot]);
+            }
+        }
+    }
+
+    /**
+     * method to pick a value at random in O(1) on average: the first value found from a random slot, the slots are at
+     * most half full so the probe is short. The values following long runs of empty slots are picked more often,
+     * which is enough for sampling
+     * @param random a random int
+     * @return a value or null if the map is empty
+     */
+    public V sample(
+        final int random) {
+
+        if (this.size == 0) {
+            return null;
+        }
+        final int mask = this.values.length - 1;
+        int slot = random & mask;
+        while (this.values[slot] == null) {
+            slot = (slot + 1) & mask;
+        }
+        return valueAt(slot);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(
+        final int slot) {
+
+        return (V) this.values[slot];
+    }
+
+    /**
+     * moves the following entries of the probe sequence into the freed slot
+     */
+    private void shiftBack(
+        final int freed,
+        final int mask) {
+
+        int gap = freed;
+        int slot = (gap + 1) & mask;
+        while (this.values[slot] != null) {
+            final int home = hash(this.keys[slot]) & mask;
+            // the entry can move to the gap only if its home slot is not between the gap and its current slot
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                this.keys[gap] = this.keys[slot];
+                this.values[gap] = this.values[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        this.values[gap] = null;
+    }
+
+    private void resize() {
+
+        final int[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+        this.keys = new int[oldValues.length << 1];
+        this.values = new Object[oldValues.length << 1];
+        final int mask = this.values.length - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (this.values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.github.amirsassi.cards.game.api.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Shoe;
+import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+public class GameClusterUnitTest {
+
+    private static final int VIRTUAL_NODES = 16;
+
+    /**
+     * nothing listens on these ports, the games handed over are never received
+     */
+    private static final String NODE_A = "http://localhost:1";
+
+    private static final String NODE_B = "http://localhost:2";
+
+    private final List<GameCluster> clusters = new ArrayList<>();
+
+    @AfterEach
+    void stopClusters() {
+
+        this.clusters.forEach(GameCluster::stop);
+    }
+
+    @Test
+    void givenNodeJoinsWhenPreviousOwnerStillHoldsGameThenBothNodesRouteItToThePreviousOwner()
+        throws GameAlreadyExistsException {
+
+        // Given
+        final GameServiceImpl gameServiceA = new GameServiceImpl();
+        final GameCluster nodeA = newCluster(NODE_A, gameServiceA);
+        final GameCluster nodeB = newCluster(NODE_B, new GameServiceImpl());
+        nodeA.apply(new ClusterView(1, List.of(NODE_A)));
+        final HashRing joined = new HashRing(List.of(NODE_A, NODE_B), VIRTUAL_NODES);
+        final int movingGameId = ownedBy(joined, NODE_B, 0);
+        final int newGameId = ownedBy(joined, NODE_B, movingGameId + 1);
+        gameServiceA.createGame(createGame(movingGameId));
+
+        // When
+        final ClusterView view = new ClusterView(2, List.of(NODE_A, NODE_B));
+        view.setHandingOver(List.of(NODE_A));
+        nodeA.apply(view);
+        nodeB.apply(view);
+
+        // Then
+        assertNull(nodeA.route(movingGameId));
+        assertEquals(NODE_A, nodeB.route(movingGameId));
+        assertEquals(NODE_B, nodeA.route(newGameId));
+        assertEquals(NODE_B, nodeA.owner(movingGameId));
+    }
+
+    @Test
+    void givenGameAlreadyHeldByOwnerWhenHandOverThenOwnerRefusesItAndSenderKeepsIt()
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        IOException {
+
+        // Given
+        final GameServiceImpl gameServiceA = new GameServiceImpl();
+        final GameServiceImpl gameServiceB = new GameServiceImpl();
+        final GameCluster nodeB = newCluster(NODE_B, gameServiceB);
+        gameServiceA.createGame(createGame(1));
+        gameServiceA.createGame(createGame(2));
+        gameServiceB.createGame(createGame(1));
+
+        // When
+        final int handedOver = gameServiceA.handOver(gameServiceA.findGames(gameId -> true), nodeB::receive);
+
+        // Then
+        assertEquals(1, handedOver);
+        assertFalse(gameServiceA.findGameById(1).isDeleted());
+        assertThrows(GameNotFoundException.class, () -> gameServiceA.findGameById(2));
+        assertEquals(2, gameServiceB.countGames());
+    }
+
+    private GameCluster newCluster(
+        final String node,
+        final GameServiceImpl gameService) {
+
+        final GameCluster cluster = new GameCluster(node, List.of(), VIRTUAL_NODES, 16, Duration.ofMillis(100),
+            gameService, new ClusterClient(node, new ObjectMapper(), Duration.ofMillis(200)),
+            Thread.ofPlatform().daemon().factory());
+        this.clusters.add(cluster);
+        return cluster;
+    }
+
+    private static int ownedBy(
+        final HashRing ring,
+        final String node,
+        final int from) {
+
+        int gameId = from;
+        while (!node.equals(ring.owner(gameId))) {
+            gameId++;
+        }
+        return gameId;
+    }
+
+    private static Game createGame(
+        final int gameId) {
+
+        final Game game = new Game();
+        game.setGameId(gameId);
+        game.setShoe(new Shoe());
+        game.setPlayers(new ArrayList<>());
+        return game;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.github.amirsassi.cards.game.api.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class HashRingUnitTest {
+
+    private static final int GAMES = 100_000;
+
+    private static final int VIRTUAL_NODES = 128;
+
+    private static final List<String> NODES = List.of("http://localhost:8081", "http://localhost:8082",
+        "http://localhost:8083");
+
+    @Test
+    void givenThreeNodesWhenOwnerThenGamesAreSpreadEvenly() {
+
+        // Given
+        final HashRing ring = new HashRing(NODES, VIRTUAL_NODES);
+
+        // When
+        final Map<String, Integer> counts = new HashMap<>();
+        for (int gameId = 0; gameId < GAMES; gameId++) {
+            counts.merge(ring.owner(gameId), 1, Integer::sum);
+        }
+
+        // Then
+        assertEquals(NODES.size(), counts.size());
+        for (final int count : counts.values()) {
+            assertTrue(Math.abs(count - GAMES / NODES.size()) < GAMES / NODES.size() / 5, counts.toString());
+        }
+        assertEquals(ring.owner(42), new HashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)), VIRTUAL_NODES)
+            .owner(42));
+    }
+
+    @Test
+    void givenNodeJoinsWhenOwnerThenOnlyItsShareOfGamesMovesToIt() {
+
+        // Given
+        final HashRing ring = new HashRing(NODES, VIRTUAL_NODES);
+        final String joining = "http://localhost:8084";
+        final HashRing joined = new HashRing(List.of(NODES.get(0), NODES.get(1), NODES.get(2), joining),
+            VIRTUAL_NODES);
+
+        // When
+        int moved = 0;
+        for (int gameId = 0; gameId < GAMES; gameId++) {
+            final String owner = joined.owner(gameId);
+            if (!owner.equals(ring.owner(gameId))) {
+                assertEquals(joining, owner);
+                moved++;
+            }
+        }
+
+        // Then
+        assertTrue(Math.abs(moved - GAMES / 4) < GAMES / 4 / 5, String.valueOf(moved));
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.github.amirsassi.cards.game.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.github.amirsassi.cards.game.api.domain.Card;
+import com.github.amirsassi.cards.game.api.domain.CardCounts;
+import com.github.amirsassi.cards.game.api.domain.FaceValue;
+import com.github.amirsassi.cards.game.api.domain.Hand;
+import com.github.amirsassi.cards.game.api.domain.Suit;
+
+public class CardsHttpMessageConverterUnitTest {
+
+    private final CardsHttpMessageConverter converter = new CardsHttpMessageConverter();
+
+    @Test
+    void givenCardCountsWhenWriteThenCountsAreVarintsAndMatrix()
+        throws Exception {
+
+        // Given
+        final CardCounts counts = new CardCounts();
+        for (int i = 0; i < 200; i++) {
+            counts.add(Card.of(Suit.SPADES, FaceValue.ACE).ordinal());
+        }
+        counts.add(Card.of(Suit.DIAMONDS, FaceValue.KING).ordinal());
+        final MockHttpOutputMessage binary = new MockHttpOutputMessage();
+        final MockHttpOutputMessage matrix = new MockHttpOutputMessage();
+
+        // When
+        this.converter.write(counts, CardsHttpMessageConverter.CARDS, binary);
+        this.converter.write(counts, CardsHttpMessageConverter.CARD_COUNTS_JSON, matrix);
+
+        // Then
+        final byte[] expected = new byte[Card.CARDS_PER_DECK + 1];
+        expected[13] = (byte) 0xC8;
+        expected[14] = 0x01;
+        expected[Card.CARDS_PER_DECK] = 1;
+        assertArrayEquals(expected, binary.getBodyAsBytes());
+        assertTrue(matrix.getBodyAsString().startsWith("{\"suits\":[\"HEARTS\",\"SPADES\",\"CLUBS\",\"DIAMONDS\"],"));
+        assertTrue(matrix.getBodyAsString().endsWith(
+            "\"counts\":[[0,0,0,0,0,0,0,0,0,0,0,0,0],[200,0,0,0,0,0,0,0,0,0,0,0,0],[0,0,0,0,0,0,0,0,0,0,0,0,0],"
+                + "[0,0,0,0,0,0,0,0,0,0,0,0,1]]}"));
+    }
+
+    @Test
+    void givenHandWhenWriteThenCardsAreOrdinalBytes()
+        throws Exception {
+
+        // Given
+        final Hand hand = new Hand(List.of(Card.of(Suit.CLUBS, FaceValue.TWO), Card.of(Suit.HEARTS, FaceValue.ACE)));
+        final MockHttpOutputMessage binary = new MockHttpOutputMessage();
+
+        // When
+        this.converter.write(hand, CardsHttpMessageConverter.CARDS, binary);
+
+        // Then
+        assertArrayEquals(new byte[] { 2, 27, 0 }, binary.getBodyAsBytes());
+        assertEquals(3, binary.getHeaders().getContentLength());
+        assertFalse(this.converter.canWrite(Hand.class, CardsHttpMessageConverter.CARD_COUNTS_JSON));
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.github.amirsassi.cards.game.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.service.GameService;
+
+@ExtendWith(MockitoExtension.class)
+public class GameControllerUnitTest {
+
+    @Mock
+    private GameService gameService;
+
+    @InjectMocks
+    private GameController gameController;
+
+    @Test
+    void givenProvisionOverTheCapsWhenCreateGamesThenBadRequestAndNoGameIsCreated() {
+
+        // Given
+        final GameProvision valid = provision(1, GameProvision.MAX_DECKS, GameProvision.MAX_PLAYERS);
+        final GameProvision tooManyDecks = provision(2, GameProvision.MAX_DECKS + 1, 1);
+        final GameProvision tooManyPlayers = provision(3, 1, GameProvision.MAX_PLAYERS + 1);
+
+        // When
+        final ResponseEntity<?> decksResponse = this.gameController.createGames(List.of(valid, tooManyDecks), null);
+        final ResponseEntity<?> playersResponse = this.gameController.createGames(List.of(valid, tooManyPlayers),
+            null);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, decksResponse.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, playersResponse.getStatusCode());
+        verifyNoInteractions(this.gameService);
+    }
+
+    @Test
+    void givenMoreRoundsThanAHandHoldsWhenDealCardsThenBadRequest() {
+
+        // When
+        final ResponseEntity<?> response = this.gameController.dealCards(1, null, Game.MAX_HAND_SIZE + 1);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(this.gameService);
+    }
+
+    private static GameProvision provision(
+        final int gameId,
+        final int decks,
+        final int players) {
+
+        final GameProvision provision = new GameProvision();
+        provision.setGameId(gameId);
+        provision.setDecks(decks);
+        provision.setPlayers(players);
+        return provision;
+    }
+
+}
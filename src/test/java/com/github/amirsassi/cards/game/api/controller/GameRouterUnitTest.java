@@ -0,0 +1,93 @@
+package com.github.amirsassi.cards.game.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.service.GameService;
+
+@ExtendWith(MockitoExtension.class)
+public class GameRouterUnitTest {
+
+    @Mock
+    private GameService gameService;
+
+    @InjectMocks
+    private GameHandler gameHandler;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void bindRoutes() {
+
+        this.client = WebTestClient.bindToRouterFunction(new GameRouter().gameRoutes(this.gameHandler)).build();
+    }
+
+    @Test
+    void givenMalformedIdsWhenCallingTheRoutesThenBadRequest() {
+
+        // When / Then
+        this.client.post().uri("/gameapi/abc/deck").exchange().expectStatus().isBadRequest();
+        this.client.get().uri("/gameapi/1/player/abc/cards").exchange().expectStatus().isBadRequest();
+        this.client.get().uri("/gameapi/1/players?top=abc").exchange().expectStatus().isBadRequest();
+        this.client.post().uri("/gameapi/shuffle?games=1,abc").exchange().expectStatus().isBadRequest();
+        verifyNoInteractions(this.gameService);
+    }
+
+    @Test
+    void givenGamesWhenShuffleGamesThenTheyAreShuffledOffTheEventLoop() {
+
+        // Given
+        final AtomicReference<String> thread = new AtomicReference<>();
+        when(this.gameService.shuffleGames(anyList())).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return 2;
+        });
+
+        // When
+        this.client.post().uri("/gameapi/shuffle?games=1,2").exchange().expectStatus().isOk().expectBody(Integer.class)
+            .isEqualTo(2);
+
+        // Then
+        assertTrue(thread.get().startsWith("boundedElastic"), thread.get());
+    }
+
+    @Test
+    void givenSpilledGamesWhenAddingADeckThenItIsAddedOffTheEventLoop()
+        throws Exception {
+
+        // Given
+        final GameRouter router = new GameRouter();
+        ReflectionTestUtils.setField(router, "eviction", true);
+        ReflectionTestUtils.setField(router, "spill", true);
+        final WebTestClient spilling = WebTestClient.bindToRouterFunction(router.gameRoutes(this.gameHandler)).build();
+        final AtomicReference<String> thread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return null;
+        }).when(this.gameService).addDeckToGameDeck(eq(1), any(Deck.class));
+
+        // When
+        spilling.post().uri("/gameapi/1/deck").exchange().expectStatus().isCreated();
+
+        // Then
+        assertTrue(thread.get().startsWith("boundedElastic"), thread.get());
+    }
+
+}
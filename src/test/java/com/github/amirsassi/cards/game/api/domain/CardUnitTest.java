@@ -0,0 +1,53 @@
+package com.github.amirsassi.cards.game.api.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class CardUnitTest {
+
+    @Test
+    void givenSuitAndFaceValueWhenCallOfThenInternedCardIsReturned() {
+
+        // Given
+        final Set<Integer> ordinals = new HashSet<>();
+
+        for (final Suit suit : Suit.values()) {
+            for (final FaceValue faceValue : FaceValue.values()) {
+
+                // When
+                final Card card = Card.of(suit, faceValue);
+
+                // Then
+                assertSame(card, Card.of(suit, faceValue));
+                assertSame(card, Card.valueOf(card.ordinal()));
+                assertEquals(suit, card.getSuit());
+                assertEquals(faceValue, card.getFaceValue());
+                assertEquals(card.ordinal(), card.hashCode());
+                ordinals.add(card.ordinal());
+            }
+        }
+        assertEquals(Card.CARDS_PER_DECK, ordinals.size());
+        assertNotEquals(Card.of(Suit.HEARTS, FaceValue.ACE), Card.of(Suit.SPADES, FaceValue.ACE));
+    }
+
+    @Test
+    void givenNewDeckWhenGetCardsThenInternedCardsAreReturned() {
+
+        // Given
+        final Deck deck = new Deck();
+
+        // When
+        final Card first = deck.getCards().get(0);
+
+        // Then
+        assertEquals(Card.CARDS_PER_DECK, deck.size());
+        assertSame(Card.of(Suit.HEARTS, FaceValue.ACE), first);
+    }
+
+}
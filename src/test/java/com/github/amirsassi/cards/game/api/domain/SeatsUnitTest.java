@@ -0,0 +1,52 @@
+package com.github.amirsassi.cards.game.api.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class SeatsUnitTest {
+
+    private static final int PLAYERS = 100;
+
+    @Test
+    void givenSeatedPlayersWhenRemoveSomeThenSeatOrderIsKept() {
+
+        // Given
+        final Seats seats = new Seats();
+        final List<Integer> expected = new ArrayList<>();
+        for (int playerId = 0; playerId < PLAYERS; playerId++) {
+            seats.add(new Player(playerId));
+        }
+
+        // When
+        for (int playerId = 0; playerId < PLAYERS; playerId++) {
+            if (playerId % 3 != 0) {
+                assertEquals(playerId, seats.removePlayer(playerId).getPlayerId());
+            } else {
+                expected.add(playerId);
+            }
+        }
+        seats.add(new Player(PLAYERS));
+        expected.add(PLAYERS);
+
+        // Then
+        final List<Integer> seated = new ArrayList<>();
+        seats.forEach(player -> seated.add(player.getPlayerId()));
+        assertEquals(expected, seated);
+        assertEquals(expected.size(), seats.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), seats.get(i).getPlayerId());
+            assertSame(seats.get(i), seats.find(expected.get(i)));
+        }
+        assertNull(seats.find(1));
+        assertNull(seats.removePlayer(1));
+        assertFalse(seats.add(new Player(0)));
+    }
+
+}
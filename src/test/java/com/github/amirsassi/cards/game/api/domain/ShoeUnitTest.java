@@ -0,0 +1,85 @@
+package com.github.amirsassi.cards.game.api.domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class ShoeUnitTest {
+
+    @Test
+    void givenOneDeckWhenDeal53TimesThenEveryCardIsDealtOnce() {
+
+        // Given
+        final Game game = new Game();
+        game.addDeck(new Deck());
+        final Player player = new Player(1);
+        game.addPlayer(player);
+
+        // When
+        int dealt = 0;
+        for (int i = 0; i <= Card.CARDS_PER_DECK; i++) {
+            dealt += game.deal(player);
+        }
+
+        // Then
+        assertEquals(Card.CARDS_PER_DECK, dealt);
+        assertEquals(Card.CARDS_PER_DECK, new HashSet<>(player.getCards()).size());
+        assertTrue(game.getShoe().isEmpty());
+    }
+
+    @Test
+    void givenCutCardWhenDealPastItThenShoeIsDueForReshuffle() {
+
+        // Given
+        final Shoe shoe = new Shoe();
+        for (int i = 0; i < 4; i++) {
+            shoe.addDeck(new Deck());
+        }
+        shoe.placeCutCard(0.75);
+
+        // When
+        final Set<Integer> reached = new HashSet<>();
+        for (int i = 0; i < 4 * Card.CARDS_PER_DECK - 1; i++) {
+            if (shoe.isCutCardReached()) {
+                reached.add(i);
+            }
+            shoe.deal();
+        }
+        shoe.addDeck(new Deck());
+        shoe.placeCutCard(0.75);
+
+        // Then
+        assertEquals(3 * Card.CARDS_PER_DECK, reached.stream().mapToInt(Integer::intValue).min().getAsInt());
+        assertEquals(Card.CARDS_PER_DECK + 1, shoe.size());
+        assertEquals(5, shoe.getDecks());
+        assertEquals(Card.CARDS_PER_DECK * 3 / 4, shoe.getCutCard());
+        assertFalse(shoe.isCutCardReached());
+    }
+
+    @Test
+    void givenClaimedCardsWhenReplayedInAnotherOrderThenShoeEndsTheSame() {
+
+        // Given
+        final Shoe claimed = new Shoe();
+        claimed.addDeck(new Deck());
+        final Shoe replayed = new Shoe(1, claimed.getUndealtOrdinals(), Card.CARDS_PER_DECK);
+        final int first = claimed.claim();
+        final int second = claimed.claim();
+        final int third = claimed.claim();
+
+        // When
+        final boolean dealt = replayed.deal(third) && replayed.deal(first) && replayed.deal(second);
+
+        // Then
+        assertTrue(dealt);
+        assertFalse(replayed.deal(first));
+        assertArrayEquals(claimed.getUndealtOrdinals(), replayed.getUndealtOrdinals());
+    }
+
+}
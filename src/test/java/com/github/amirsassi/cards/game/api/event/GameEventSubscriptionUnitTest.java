@@ -0,0 +1,186 @@
+package com.github.amirsassi.cards.game.api.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.amirsassi.cards.game.api.domain.Card;
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+public class GameEventSubscriptionUnitTest {
+
+    @Test
+    void givenSubscriberWhenGameChangesThenDeltasAreDeliveredInOrder()
+        throws Exception {
+
+        // Given
+        final GameServiceImpl gameService = new GameServiceImpl();
+        final Game game = new Game();
+        game.setGameId(1);
+        gameService.createGame(game);
+        final GameEventSubscription subscription = gameService.subscribe(1);
+        final List<GameEvent> events = new ArrayList<>();
+        final AtomicBoolean completed = new AtomicBoolean();
+        subscription.listen(Runnable::run, () -> true, events::add, () -> completed.set(true));
+
+        // When
+        gameService.addDeckToGameDeck(1, new Deck());
+        gameService.addPlayer(1, new Player(7));
+        gameService.dealCardsToAPlayer(1, 7);
+        gameService.shuffle(1);
+        gameService.removePlayer(1, 7);
+        gameService.deleteGame(1);
+
+        // Then
+        assertEquals(List.of(GameEventType.SYNC, GameEventType.DECK_ADDED, GameEventType.JOINED, GameEventType.DEALT,
+            GameEventType.SHUFFLED, GameEventType.LEFT, GameEventType.DELETED),
+            events.stream().map(GameEvent::getType).toList());
+        assertEquals(1, events.get(3).getCards().get(7).size());
+        assertEquals(7, events.get(5).getPlayerId());
+        assertTrue(completed.get());
+    }
+
+    @Test
+    void givenSubscriberWhenGameChangesThenEachEventCarriesTheVersionOfTheGameAfterItsChange()
+        throws Exception {
+
+        // Given
+        final GameServiceImpl gameService = new GameServiceImpl();
+        final Game game = new Game();
+        game.setGameId(1);
+        gameService.createGame(game);
+        gameService.addDeckToGameDeck(1, new Deck());
+        final GameEventSubscription subscription = gameService.subscribe(1);
+        final List<GameEvent> events = new ArrayList<>();
+        subscription.listen(Runnable::run, () -> true, events::add, () -> {
+        });
+        final long subscribed = game.getVersion();
+
+        // When
+        gameService.addPlayer(1, new Player(7));
+        final long joined = game.getVersion();
+        gameService.dealCardsToAPlayer(1, 7);
+        final long dealt = game.getVersion();
+
+        // Then
+        assertEquals(List.of(subscribed, joined, dealt), events.stream().map(GameEvent::getVersion).toList());
+        assertTrue(subscribed < joined && joined < dealt);
+        subscription.close();
+    }
+
+    @Test
+    void givenTwoSubscribersWhenDealingToPlayersConcurrentlyThenEachGetsTheDealsOfEachPlayerInOrder()
+        throws Exception {
+
+        // Given
+        final int players = 4;
+        final GameServiceImpl gameService = new GameServiceImpl();
+        final Game game = new Game();
+        game.setGameId(1);
+        gameService.createGame(game);
+        gameService.addDeckToGameDeck(1, new Deck());
+        for (int playerId = 1; playerId <= players; playerId++) {
+            gameService.addPlayer(1, new Player(playerId));
+        }
+        final List<List<GameEvent>> received = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            final List<GameEvent> events = Collections.synchronizedList(new ArrayList<>());
+            gameService.subscribe(1).listen(Runnable::run, () -> true, events::add, () -> {
+            });
+            received.add(events);
+        }
+
+        // When
+        final ExecutorService executor = Executors.newFixedThreadPool(players);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int playerId = 1; playerId <= players; playerId++) {
+            final int dealtTo = playerId;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < Card.CARDS_PER_DECK / players; i++) {
+                    gameService.dealCardsToAPlayer(1, dealtTo);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        gameService.shuffle(1);
+
+        // Then
+        for (final List<GameEvent> events : received) {
+            assertEquals(GameEventType.SYNC, events.get(0).getType());
+            assertEquals(GameEventType.SHUFFLED, events.get(events.size() - 1).getType());
+            final Map<Integer, List<Card>> dealt = new HashMap<>();
+            for (final GameEvent event : events.subList(1, events.size() - 1)) {
+                assertEquals(GameEventType.DEALT, event.getType());
+                event.getCards().forEach((playerId, cards) -> dealt.computeIfAbsent(playerId, key -> new ArrayList<>())
+                    .addAll(cards));
+            }
+            for (int playerId = 1; playerId <= players; playerId++) {
+                assertEquals(gameService.getPlayerCards(1, playerId), dealt.get(playerId));
+            }
+        }
+    }
+
+    @Test
+    void givenSlowSubscriberWhenBufferIsFullThenEventsAreMergedThenReplacedBySync()
+        throws Exception {
+
+        // Given
+        final GameServiceImpl gameService = new GameServiceImpl();
+        ReflectionTestUtils.setField(gameService, "eventBufferSize", 4);
+        final Game game = new Game();
+        game.setGameId(1);
+        gameService.createGame(game);
+        gameService.addDeckToGameDeck(1, new Deck());
+        gameService.addPlayer(1, new Player(7));
+        final GameEventSubscription subscription = gameService.subscribe(1);
+        final List<GameEvent> events = new ArrayList<>();
+        final AtomicBoolean ready = new AtomicBoolean(true);
+        subscription.listen(Runnable::run, ready::get, events::add, () -> {
+        });
+        ready.set(false);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            gameService.dealCardsToAPlayer(1, 7);
+        }
+        gameService.shuffle(1);
+        gameService.shuffle(1);
+        final int merged = subscription.size();
+        gameService.addPlayer(1, new Player(8));
+        gameService.addPlayer(1, new Player(9));
+        gameService.addPlayer(1, new Player(10));
+        ready.set(true);
+        subscription.drain();
+
+        // Then
+        assertEquals(2, merged);
+        assertEquals(List.of(GameEventType.SYNC, GameEventType.SYNC),
+            events.stream().map(GameEvent::getType).toList());
+        subscription.close();
+        assertTrue(subscription.isClosed());
+    }
+
+}
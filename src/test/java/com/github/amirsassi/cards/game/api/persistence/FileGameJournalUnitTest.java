@@ -0,0 +1,195 @@
+package com.github.amirsassi.cards.game.api.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+public class FileGameJournalUnitTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void givenJournaledGamesWhenRestartThenGamesAreRestored()
+        throws Exception {
+
+        // Given
+        final FileGameJournal journal = journal(this.directory);
+        final GameServiceImpl gameService = service(journal);
+        play(gameService);
+        journal.snapshot();
+        // past the cut card, the shoe is reshuffled after the deal
+        gameService.dealCards(1, null, 20);
+        gameService.shuffle(1);
+        gameService.dealCardsToAPlayer(1, 11);
+        gameService.removePlayer(1, 12);
+        journal.flush();
+
+        // When
+        final Path copy = copy(this.directory);
+        final GameServiceImpl restored = service(journal(copy));
+
+        // Then
+        assertSameGame(gameService, restored, 1);
+        assertEquals(3, restored.findGameById(1).getShuffles());
+        assertThrows(GameNotFoundException.class, () -> restored.findGameById(2));
+        journal.close();
+    }
+
+    @Test
+    void givenTornRecordWhenRestartThenValidRecordsAreRestored()
+        throws Exception {
+
+        // Given
+        final FileGameJournal journal = journal(this.directory);
+        final GameServiceImpl gameService = service(journal);
+        play(gameService);
+        journal.flush();
+        final Path copy = copy(this.directory);
+        try (Stream<Path> files = Files.list(copy)) {
+            for (final Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                Files.write(file, new byte[] { 0, 0, 0, 42, 1, 2 }, StandardOpenOption.APPEND);
+            }
+        }
+
+        // When
+        final GameServiceImpl restored = service(journal(copy));
+
+        // Then
+        assertSameGame(gameService, restored, 1);
+        journal.close();
+    }
+
+    @Test
+    void givenConcurrentDealsWhenRestartThenHandsAreRestored()
+        throws Exception {
+
+        // Given
+        final FileGameJournal journal = journal(this.directory);
+        final GameServiceImpl gameService = service(journal);
+        play(gameService);
+        final ExecutorService executor = Executors.newFixedThreadPool(6);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 6; thread++) {
+            final int playerId = 11 + thread % 3;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 8; i++) {
+                    gameService.dealCardsToAPlayer(1, playerId);
+                }
+                return null;
+            }));
+        }
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        journal.flush();
+
+        // When
+        final GameServiceImpl restored = service(journal(copy(this.directory)));
+
+        // Then
+        assertSameGame(gameService, restored, 1);
+        journal.close();
+    }
+
+    /**
+     * copies the journal as a crash would leave it, without the final snapshot
+     */
+    private static Path copy(
+        final Path directory)
+        throws IOException {
+
+        final Path copy = Files.createTempDirectory(directory.getParent(), "copy");
+        try (Stream<Path> files = Files.list(directory)) {
+            for (final Path file : files.collect(Collectors.toList())) {
+                FileSystemUtils.copyRecursively(file, copy.resolve(file.getFileName()));
+            }
+        }
+        return copy;
+    }
+
+    private static FileGameJournal journal(
+        final Path directory) {
+
+        return new FileGameJournal(directory, 4096, false, Duration.ZERO, Thread.ofPlatform().daemon().factory());
+    }
+
+    private static GameServiceImpl service(
+        final GameJournal journal)
+        throws IOException {
+
+        final GameServiceImpl gameService = new GameServiceImpl();
+        ReflectionTestUtils.setField(gameService, "journal", journal);
+        ReflectionTestUtils.setField(gameService, "penetration", 0.5);
+        gameService.open();
+        return gameService;
+    }
+
+    private static void play(
+        final GameServiceImpl gameService)
+        throws Exception {
+
+        for (int gameId = 1; gameId <= 2; gameId++) {
+            final Game game = new Game();
+            game.setGameId(gameId);
+            gameService.createGame(game);
+            gameService.addDeckToGameDeck(gameId, new Deck());
+            gameService.addDeckToGameDeck(gameId, new Deck());
+            gameService.shuffle(gameId);
+            for (int playerId = 11; playerId <= 13; playerId++) {
+                final Player player = new Player(playerId);
+                player.setPlayerName("Player " + playerId);
+                gameService.addPlayer(gameId, player);
+                gameService.dealCardsToAPlayer(gameId, playerId);
+            }
+        }
+        gameService.deleteGame(2);
+    }
+
+    private static void assertSameGame(
+        final GameServiceImpl expected,
+        final GameServiceImpl actual,
+        final int gameId)
+        throws Exception {
+
+        final Game expectedGame = expected.findGameById(gameId);
+        final Game actualGame = actual.findGameById(gameId);
+        assertEquals(expectedGame.getShuffles(), actualGame.getShuffles());
+        assertEquals(expectedGame.getShoe().getCards(), actualGame.getShoe().getCards());
+        assertEquals(expectedGame.getShoe().getCutCard(), actualGame.getShoe().getCutCard());
+        final List<Integer> playerIds =
+            expectedGame.getPlayers().stream().map(Player::getPlayerId).collect(Collectors.toList());
+        assertEquals(playerIds, actualGame.getPlayers().stream().map(Player::getPlayerId).collect(Collectors.toList()));
+        for (final Integer playerId : playerIds) {
+            assertEquals(expected.getPlayerCards(gameId, playerId), actual.getPlayerCards(gameId, playerId));
+        }
+        assertEquals(expected.getUndealtCards(gameId), actual.getUndealtCards(gameId));
+        assertEquals(expected.getSortedPlayers(gameId).stream().map(Player::getPlayerId).collect(Collectors.toList()),
+            actual.getSortedPlayers(gameId).stream().map(Player::getPlayerId).collect(Collectors.toList()));
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.github.amirsassi.cards.game.api.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.amirsassi.cards.game.api.domain.Card;
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.SnapshotNotFoundException;
+import com.github.amirsassi.cards.game.api.registry.StripedGameRegistry;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+public class MappedSnapshotUnitTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void givenSnapshotWhenRestoreThenGamesAreReplaced()
+        throws Exception {
+
+        // Given
+        final GameServiceImpl gameService = new GameServiceImpl();
+        ReflectionTestUtils.setField(gameService, "snapshots", new SnapshotStore(this.directory));
+        final Game game = new Game();
+        game.setGameId(1);
+        gameService.createGame(game);
+        gameService.addDeckToGameDeck(1, new Deck());
+        gameService.addDeckToGameDeck(1, new Deck());
+        gameService.shuffle(1);
+        final Player named = new Player(11);
+        named.setPlayerName("Zoé");
+        gameService.addPlayer(1, named);
+        gameService.addPlayer(1, new Player(12));
+        gameService.dealCards(1, null, 3);
+        final Game expected = gameService.findGameById(1);
+        final String deals = expected.getPlayers().stream().map(player -> player.getCards().toString())
+            .collect(Collectors.joining());
+        final String shoe = expected.getShoe().getCards().toString();
+        final long shuffles = expected.getShuffles();
+        final Card first = expected.getShoe().getCards().get(0);
+        final int undealt = expected.getUndealtCards().count(first);
+        final String name = gameService.snapshot();
+        gameService.dealCards(1, null, 2);
+        final Game other = new Game();
+        other.setGameId(2);
+        gameService.createGame(other);
+
+        // When
+        final int restored = gameService.restore(name);
+
+        // Then
+        assertEquals(1, restored);
+        assertThrows(GameNotFoundException.class, () -> gameService.findGameById(2));
+        final Game actual = gameService.findGameById(1);
+        assertEquals(deals, actual.getPlayers().stream().map(player -> player.getCards().toString())
+            .collect(Collectors.joining()));
+        assertEquals(shoe, actual.getShoe().getCards().toString());
+        assertEquals(2, actual.getShoe().getDecks());
+        assertEquals("Zoé", actual.getPlayer(11).getPlayerName());
+        assertEquals(shuffles, actual.getShuffles());
+        assertEquals(undealt, actual.getUndealtCards().count(first));
+    }
+
+    @Test
+    void givenUnknownSnapshotWhenRestoreThenSnapshotNotFoundExceptionIsThrown() {
+
+        // Given
+        final GameServiceImpl gameService = new GameServiceImpl();
+        ReflectionTestUtils.setField(gameService, "snapshots", new SnapshotStore(this.directory));
+
+        // When / Then
+        assertThrows(SnapshotNotFoundException.class, () -> gameService.restore("../games-20200101-000000-000"));
+    }
+
+    @Test
+    void givenExistingSnapshotWhenWriteSameSnapshotThenItIsReplaced()
+        throws Exception {
+
+        // Given
+        final Path snapshot = this.directory.resolve("snapshot");
+        MappedSnapshot.write(snapshot, registryOf(1), 1);
+
+        // When
+        final int written = MappedSnapshot.write(snapshot, registryOf(1, 2), 2);
+
+        // Then
+        assertEquals(2, written);
+        assertEquals(List.of(1, 2), gameIdsOf(snapshot));
+        assertFalse(Files.exists(this.directory.resolve("snapshot.old")));
+    }
+
+    @Test
+    void givenSnapshotMovedAsideByInterruptedWriteWhenRecoverThenItIsPutBack()
+        throws Exception {
+
+        // Given
+        final Path snapshot = this.directory.resolve("snapshot");
+        MappedSnapshot.write(snapshot, registryOf(1), 1);
+        Files.move(snapshot, this.directory.resolve("snapshot.old"));
+
+        // When
+        MappedSnapshot.recoverAll(this.directory);
+
+        // Then
+        assertEquals(List.of(1), gameIdsOf(snapshot));
+        assertFalse(Files.exists(this.directory.resolve("snapshot.old")));
+    }
+
+    private static StripedGameRegistry registryOf(
+        final int... gameIds) {
+
+        final StripedGameRegistry registry = new StripedGameRegistry();
+        for (final int gameId : gameIds) {
+            final Game game = new Game();
+            game.setGameId(gameId);
+            registry.putIfAbsent(game);
+        }
+        return registry;
+    }
+
+    private static List<Integer> gameIdsOf(
+        final Path snapshot)
+        throws Exception {
+
+        final List<Integer> gameIds = new ArrayList<>();
+        MappedSnapshot.read(snapshot, game -> gameIds.add(game.getGameId()));
+        gameIds.sort(null);
+        return gameIds;
+    }
+
+}
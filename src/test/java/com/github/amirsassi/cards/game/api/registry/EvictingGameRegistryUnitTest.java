@@ -0,0 +1,111 @@
+package com.github.amirsassi.cards.game.api.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.persistence.FileGameSpill;
+
+public class EvictingGameRegistryUnitTest {
+
+    private static final Duration TTL = Duration.ofMinutes(30);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void givenIdleGameWhenSweepThenGameIsSpilledAndLoadedAgainOnLookup()
+        throws IOException {
+
+        // Given
+        final EvictingGameRegistry registry = new EvictingGameRegistry(TTL, 0, 0,
+            new FileGameSpill(this.directory, false), Duration.ofSeconds(1), Executors.defaultThreadFactory(),
+            this.clock::get);
+        final Game game = createGame(1);
+        registry.putIfAbsent(game);
+        registry.putIfAbsent(createGame(2));
+        this.clock.addAndGet(TTL.toMillis() / 2);
+        registry.get(2);
+
+        // When
+        this.clock.addAndGet(TTL.toMillis() / 2);
+        // a sweep samples the games at random, it may miss the expired game
+        for (int i = 0; i < 100 && registry.getExpiredEvictions() == 0; i++) {
+            registry.sweep();
+        }
+
+        // Then
+        assertEquals(1, registry.getExpiredEvictions());
+        assertEquals(1, registry.getResidentGames());
+        assertEquals(1, registry.getSpilledGames());
+        assertEquals(2, registry.size());
+        assertTrue(game.isDeleted());
+        assertFalse(registry.putIfAbsent(createGame(1)));
+
+        final Game reloaded = registry.get(1);
+        assertNotSame(game, reloaded);
+        assertEquals(1, reloaded.getShoe().getDecks());
+        assertEquals(51, reloaded.getShoe().size());
+        assertEquals(1, reloaded.getPlayer(10).getHand().size());
+        assertEquals(0, registry.getSpilledGames());
+        assertEquals(1, registry.getReloads());
+    }
+
+    @Test
+    void givenMoreGamesThanMaxWhenSweepThenGamesAreDroppedUnderTheBound()
+        throws IOException {
+
+        // Given
+        final EvictingGameRegistry registry = new EvictingGameRegistry(Duration.ZERO, 100, 0, null,
+            Duration.ofSeconds(1), Executors.defaultThreadFactory(), this.clock::get);
+        for (int gameId = 0; gameId < 150; gameId++) {
+            this.clock.incrementAndGet();
+            registry.putIfAbsent(createGame(gameId));
+        }
+
+        // When
+        registry.sweep();
+
+        // Then
+        assertEquals(100, registry.size());
+        assertEquals(50, registry.getCapacityEvictions());
+        assertEquals(100L * createGame(0).estimateFootprint(), registry.getResidentBytes());
+        int dropped = 0;
+        for (int gameId = 0; gameId < 150; gameId++) {
+            if (registry.get(gameId) == null) {
+                dropped++;
+            }
+        }
+        assertEquals(50, dropped);
+        assertNull(registry.get(150));
+    }
+
+    private static Game createGame(
+        final int gameId) {
+
+        final Game game = new Game();
+        game.setGameId(gameId);
+        game.addDeck(new Deck());
+        final Player player = new Player(10);
+        game.addPlayer(player);
+        game.deal(player);
+        return game;
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.github.amirsassi.cards.game.api.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.amirsassi.cards.game.api.domain.Game;
+
+public class StripedGameRegistryUnitTest {
+
+    private static final int GAMES = 10_000;
+
+    private final GameRegistry registry = new StripedGameRegistry(4);
+
+    @Test
+    void givenGameWhenPutIfAbsentTwiceThenSecondPutIsRejected() {
+
+        // Given
+        final Game game = createGame(1);
+
+        // When
+        final boolean first = this.registry.putIfAbsent(game);
+        final boolean second = this.registry.putIfAbsent(createGame(1));
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertSame(game, this.registry.get(1));
+        assertEquals(1, this.registry.size());
+    }
+
+    @Test
+    void givenManyGamesWhenRemoveHalfThenOthersAreStillFound() {
+
+        // Given
+        for (int gameId = 0; gameId < GAMES; gameId++) {
+            this.registry.putIfAbsent(createGame(gameId));
+        }
+
+        // When
+        for (int gameId = 0; gameId < GAMES; gameId += 2) {
+            assertEquals(gameId, this.registry.remove(gameId).getGameId());
+        }
+
+        // Then
+        assertEquals(GAMES / 2, this.registry.size());
+        for (int gameId = 0; gameId < GAMES; gameId++) {
+            if (gameId % 2 == 0) {
+                assertNull(this.registry.get(gameId));
+            } else {
+                assertEquals(gameId, this.registry.get(gameId).getGameId());
+            }
+        }
+        final Set<Integer> visited = new HashSet<>();
+        this.registry.forEach(game -> visited.add(game.getGameId()));
+        assertEquals(GAMES / 2, visited.size());
+    }
+
+    private Game createGame(
+        final int gameId) {
+
+        final Game game = new Game();
+        game.setGameId(gameId);
+        return game;
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.github.amirsassi.cards.game.api.replication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.persistence.DisabledGameJournal;
+import com.github.amirsassi.cards.game.api.persistence.GameJournal;
+import com.github.amirsassi.cards.game.api.service.GameServiceImpl;
+
+public class ReplicationUnitTest {
+
+    private static final ThreadFactory THREADS = Thread.ofPlatform().daemon().factory();
+
+    @Test
+    void givenPrimaryWithGamesWhenFollowerConnectsThenFollowerHoldsSameGames()
+        throws Exception {
+
+        // Given
+        final int port = freePort();
+        final ReplicationJournal primaryJournal = new ReplicationJournal(new DisabledGameJournal(), port, 1 << 16,
+            Duration.ofMillis(50), THREADS);
+        final GameServiceImpl primary = service(primaryJournal);
+        primaryJournal.listen(0);
+        play(primary, 1);
+        play(primary, 2);
+        primary.deleteGame(2);
+
+        // When
+        final GameServiceImpl followerService = service(new DisabledGameJournal());
+        final ReplicationFollower follower = new ReplicationFollower(new InetSocketAddress("localhost", port),
+            followerService, Duration.ofMillis(50), THREADS);
+        follower.start();
+        // streamed after the full sync
+        play(primary, 3);
+        primary.dealCards(1, null, 3);
+        primary.removePlayer(3, 12);
+        awaitCaughtUp(primaryJournal, follower);
+
+        // Then
+        assertSameGame(primary, followerService, 1);
+        assertSameGame(primary, followerService, 3);
+        assertThrows(GameNotFoundException.class, () -> followerService.findGameById(2));
+        assertEquals(0, primaryJournal.getLag());
+        assertEquals(0, primaryJournal.getLagMillis());
+        follower.stop();
+        primaryJournal.close();
+    }
+
+    @Test
+    void givenFollowerThatDoesNotAcknowledgeWhenChangesAreMadeThenLagGrowsWithTheAgeOfTheOldestChange()
+        throws Exception {
+
+        // Given
+        final int port = freePort();
+        final ReplicationJournal primaryJournal = new ReplicationJournal(new DisabledGameJournal(), port, 1 << 16,
+            Duration.ofSeconds(5), THREADS);
+        final GameServiceImpl primary = service(primaryJournal);
+        primaryJournal.listen(0);
+        try (Socket silent = new Socket("localhost", port)) {
+            final DataOutputStream out = new DataOutputStream(silent.getOutputStream());
+            out.writeInt(ReplicationProtocol.MAGIC);
+            out.writeInt(ReplicationProtocol.VERSION);
+            out.flush();
+            awaitFollowers(primaryJournal);
+
+            // When
+            play(primary, 1);
+            Thread.sleep(100);
+            play(primary, 2);
+
+            // Then
+            assertTrue(primaryJournal.getLag() > 0);
+            assertTrue(primaryJournal.getLagMillis() >= 100, Long.toString(primaryJournal.getLagMillis()));
+        } finally {
+            primaryJournal.close();
+        }
+    }
+
+    @Test
+    void givenFollowerThatFallsBehindWhenChangesAreMadeThenItIsDroppedWithoutBlockingThePrimary()
+        throws Exception {
+
+        // Given
+        final int port = freePort();
+        final ReplicationJournal primaryJournal = new ReplicationJournal(new DisabledGameJournal(), port, 256,
+            Duration.ofSeconds(5), THREADS);
+        final GameServiceImpl primary = service(primaryJournal);
+        primaryJournal.listen(0);
+        // never sends its handshake, so nothing is ever sent to it
+        try (Socket stuck = new Socket("localhost", port)) {
+            awaitFollowers(primaryJournal);
+
+            // When
+            final long start = System.nanoTime();
+            play(primary, 1);
+            play(primary, 2);
+            final long elapsed = System.nanoTime() - start;
+
+            // Then
+            assertEquals(0, primaryJournal.getFollowers());
+            assertTrue(elapsed < Duration.ofSeconds(1).toNanos(), Long.toString(elapsed));
+            assertEquals(3, primary.findGameById(2).getPlayers().size());
+        } finally {
+            primaryJournal.close();
+        }
+    }
+
+    private static void awaitFollowers(
+        final ReplicationJournal journal)
+        throws InterruptedException {
+
+        final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (journal.getFollowers() == 0) {
+            assertTrue(System.nanoTime() < deadline, "follower did not connect");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitCaughtUp(
+        final ReplicationJournal journal,
+        final ReplicationFollower follower)
+        throws InterruptedException {
+
+        final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (follower.getAppliedSequence() < journal.getSequence() || journal.getLag() > 0) {
+            assertTrue(System.nanoTime() < deadline, "follower did not catch up");
+            Thread.sleep(10);
+        }
+    }
+
+    private static int freePort()
+        throws IOException {
+
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static GameServiceImpl service(
+        final GameJournal journal)
+        throws IOException {
+
+        final GameServiceImpl gameService = new GameServiceImpl();
+        ReflectionTestUtils.setField(gameService, "journal", journal);
+        ReflectionTestUtils.setField(gameService, "penetration", 0.5);
+        gameService.open();
+        return gameService;
+    }
+
+    private static void play(
+        final GameServiceImpl gameService,
+        final int gameId)
+        throws Exception {
+
+        final Game game = new Game();
+        game.setGameId(gameId);
+        gameService.createGame(game);
+        gameService.addDeckToGameDeck(gameId, new Deck());
+        gameService.shuffle(gameId);
+        for (int playerId = 11; playerId <= 13; playerId++) {
+            gameService.addPlayer(gameId, new Player(playerId));
+            gameService.dealCardsToAPlayer(gameId, playerId);
+        }
+    }
+
+    private static void assertSameGame(
+        final GameServiceImpl expected,
+        final GameServiceImpl actual,
+        final int gameId)
+        throws Exception {
+
+        final Game expectedGame = expected.findGameById(gameId);
+        final Game actualGame = actual.findGameById(gameId);
+        assertEquals(expectedGame.getShuffles(), actualGame.getShuffles());
+        assertEquals(expectedGame.getShoe().getCards(), actualGame.getShoe().getCards());
+        assertEquals(expectedGame.getPlayers().size(), actualGame.getPlayers().size());
+        for (final Player player : expectedGame.getPlayers()) {
+            assertEquals(expected.getPlayerCards(gameId, player.getPlayerId()),
+                actual.getPlayerCards(gameId, player.getPlayerId()));
+        }
+        assertEquals(expected.getUndealtCards(gameId), actual.getUndealtCards(gameId));
+    }
+
+}
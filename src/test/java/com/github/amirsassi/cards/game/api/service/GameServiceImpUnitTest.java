@@ -6,27 +6,38 @@ import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.math.NumberUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.github.amirsassi.cards.game.api.domain.Card;
 import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.FaceValue;
 import com.github.amirsassi.cards.game.api.domain.Game;
 import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.domain.Shoe;
 import com.github.amirsassi.cards.game.api.domain.Suit;
 import com.github.amirsassi.cards.game.api.exception.GameAlreadyExistsException;
+import com.github.amirsassi.cards.game.api.exception.GameDoesNotHavePlayersException;
 import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+import com.github.amirsassi.cards.game.api.exception.PlayerAlreadyExistsException;
 import com.github.amirsassi.cards.game.api.exception.PlayerNotFoundException;
+import com.github.amirsassi.cards.game.api.persistence.GameJournal;
 
 @ExtendWith(MockitoExtension.class)
 public class GameServiceImpUnitTest {
@@ -99,14 +110,15 @@ public class GameServiceImpUnitTest {
 
         // Then
         final Game gameReturned = this.gameServiceImpl.findGameById(game.getGameId());
-        assertTrue(!gameReturned.getDecks().isEmpty());
+        assertTrue(!gameReturned.getShoe().isEmpty());
 
     }
 
     @Test
     void givenGameWhenAddPlayerThenPlayerIsAdded()
         throws GameAlreadyExistsException,
-        GameNotFoundException {
+        GameNotFoundException,
+        PlayerAlreadyExistsException {
 
         // Given
         final Game game = createGame();
@@ -127,7 +139,8 @@ public class GameServiceImpUnitTest {
     void givenGameWhenRemovePlayerThenPlayerIsRemoved()
         throws GameAlreadyExistsException,
         GameNotFoundException,
-        PlayerNotFoundException {
+        PlayerNotFoundException,
+        PlayerAlreadyExistsException {
 
         // Given
         final Game game = createGame();
@@ -148,7 +161,8 @@ public class GameServiceImpUnitTest {
     void givenGameAndPlayerWhenDealCardsThenPlayerReceiveCard()
         throws GameAlreadyExistsException,
         GameNotFoundException,
-        PlayerNotFoundException {
+        PlayerNotFoundException,
+        PlayerAlreadyExistsException {
 
         // Given
         final Game game = createGame();
@@ -166,6 +180,117 @@ public class GameServiceImpUnitTest {
 
     }
 
+    @Test
+    void givenShuffledDeckWhenDeal53CardsThenAllCardsAreDealtOnce()
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        PlayerNotFoundException,
+        PlayerAlreadyExistsException {
+
+        // Given
+        final Game game = createGame();
+        this.gameServiceImpl.createGame(game);
+        this.gameServiceImpl.addDeckToGameDeck(game.getGameId(), new Deck());
+        final Player player = new Player(1);
+        this.gameServiceImpl.addPlayer(game.getGameId(), player);
+        this.gameServiceImpl.shuffle(game.getGameId());
+
+        // When
+        for (int i = 0; i < 53; i++) {
+            this.gameServiceImpl.dealCardsToAPlayer(game.getGameId(), player.getPlayerId());
+        }
+
+        // Then
+        final List<Card> cards = this.gameServiceImpl.getPlayerCards(game.getGameId(), player.getPlayerId());
+        assertEquals(52, cards.size());
+        assertEquals(52, new HashSet<>(cards).size());
+        assertTrue(this.gameServiceImpl.getUndealtCards(game.getGameId()).isEmpty());
+    }
+
+    @Test
+    void givenPlayersWhenDealRoundsThenEachPlayerReceivesCards()
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        PlayerNotFoundException,
+        PlayerAlreadyExistsException {
+
+        // Given
+        final Game game = createGame();
+        this.gameServiceImpl.createGame(game);
+        this.gameServiceImpl.addDeckToGameDeck(game.getGameId(), new Deck());
+        this.gameServiceImpl.addPlayer(game.getGameId(), new Player(1));
+        this.gameServiceImpl.addPlayer(game.getGameId(), new Player(2));
+
+        // When
+        final Map<Integer, List<Card>> dealtCards = this.gameServiceImpl.dealCards(game.getGameId(), null, 5);
+
+        // Then
+        assertEquals(List.of(1, 2), new ArrayList<>(dealtCards.keySet()));
+        assertEquals(5, dealtCards.get(1).size());
+        assertEquals(5, dealtCards.get(2).size());
+        assertEquals(dealtCards.get(2), this.gameServiceImpl.getPlayerCards(game.getGameId(), 2));
+        assertThrows(PlayerNotFoundException.class,
+            () -> this.gameServiceImpl.dealCards(game.getGameId(), List.of(1, 3), 1));
+        assertEquals(5, this.gameServiceImpl.getPlayerCards(game.getGameId(), 1).size());
+    }
+
+    @Test
+    void givenMoreRoundsThanCardsWhenDealRoundsThenRoundsStopOnceShoeIsEmpty()
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        PlayerNotFoundException,
+        PlayerAlreadyExistsException {
+
+        // Given
+        final GameJournal journal = mock(GameJournal.class);
+        ReflectionTestUtils.setField(this.gameServiceImpl, "journal", journal);
+        final Game game = createGame();
+        this.gameServiceImpl.createGame(game);
+        this.gameServiceImpl.addDeckToGameDeck(game.getGameId(), new Deck());
+        this.gameServiceImpl.addPlayer(game.getGameId(), new Player(1));
+        this.gameServiceImpl.addPlayer(game.getGameId(), new Player(2));
+
+        // When
+        final Map<Integer, List<Card>> dealtCards = this.gameServiceImpl.dealCards(game.getGameId(), null,
+            Game.MAX_HAND_SIZE);
+
+        // Then
+        assertEquals(Card.CARDS_PER_DECK / 2, dealtCards.get(1).size());
+        assertEquals(Card.CARDS_PER_DECK / 2, dealtCards.get(2).size());
+        verify(journal).dealtRounds(eq(game), anyList(), eq(Card.CARDS_PER_DECK / 2));
+    }
+
+    @Test
+    void givenPlayersWithCardsWhenGetSortedPlayersThenPlayersAreSortedByScore()
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        PlayerNotFoundException,
+        GameDoesNotHavePlayersException,
+        PlayerAlreadyExistsException {
+
+        // Given
+        final Game game = createGame();
+        this.gameServiceImpl.createGame(game);
+        this.gameServiceImpl.addDeckToGameDeck(game.getGameId(), new Deck());
+        this.gameServiceImpl.addPlayer(game.getGameId(), new Player(1));
+        this.gameServiceImpl.addPlayer(game.getGameId(), new Player(2));
+        this.gameServiceImpl.addPlayer(game.getGameId(), new Player(3));
+        this.gameServiceImpl.addPlayer(game.getGameId(), new Player(4));
+        // the unshuffled deck deals the hearts from ace to king
+        this.gameServiceImpl.dealCards(game.getGameId(), List.of(2, 3), 2);
+
+        // When
+        final List<Player> players = this.gameServiceImpl.getSortedPlayers(game.getGameId());
+
+        // Then
+        assertEquals(List.of(3, 2, 1, 4), players.stream().map(Player::getPlayerId).collect(Collectors.toList()));
+        assertEquals(6, players.get(0).getScore());
+        assertEquals(4, players.get(1).getScore());
+        assertEquals(0, players.get(2).getScore());
+        assertEquals(List.of(3), this.gameServiceImpl.getTopPlayers(game.getGameId(), 1).stream()
+            .map(Player::getPlayerId).collect(Collectors.toList()));
+    }
+
     @Test
     void givenGameAndCardsWhenGetUndealtCardsThenMapIsReturned()
         throws GameAlreadyExistsException,
@@ -188,6 +313,35 @@ public class GameServiceImpUnitTest {
 
     }
 
+    @Test
+    void givenDealtCardWhenGetSortedRemainingUndealtCardsThenCountsAreSorted()
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        PlayerNotFoundException,
+        PlayerAlreadyExistsException {
+
+        // Given
+        final Game game = createGame();
+        this.gameServiceImpl.createGame(game);
+        this.gameServiceImpl.addDeckToGameDeck(game.getGameId(), new Deck());
+        this.gameServiceImpl.addDeckToGameDeck(game.getGameId(), new Deck());
+        this.gameServiceImpl.addPlayer(game.getGameId(), new Player(1));
+        this.gameServiceImpl.dealCardsToAPlayer(game.getGameId(), 1);
+
+        // When
+        final Map<Suit, Map<FaceValue, List<Card>>> undealtCards =
+            this.gameServiceImpl.getSortedRemainingUndealtCards(game.getGameId());
+
+        // Then
+        assertEquals(List.of(Suit.values()), new ArrayList<>(undealtCards.keySet()));
+        final Map<FaceValue, List<Card>> hearts = undealtCards.get(Suit.HEARTS);
+        assertEquals(FaceValue.KING, hearts.keySet().iterator().next());
+        // one card is dealt from the shoe, the ace of hearts of the first deck
+        assertEquals(1, hearts.get(FaceValue.ACE).size());
+        assertEquals(2, hearts.get(FaceValue.KING).size());
+        assertEquals(25L, this.gameServiceImpl.getUndealtCards(game.getGameId()).get(Suit.HEARTS));
+    }
+
     @Test
     void givenGameAndCardsWhenShuffleThenShuffleIsCalled()
         throws GameAlreadyExistsException,
@@ -198,11 +352,74 @@ public class GameServiceImpUnitTest {
         this.gameServiceImpl.createGame(game);
         this.gameServiceImpl.addDeckToGameDeck(game.getGameId(), new Deck());
 
-        final Set<Card> set = new HashSet<>(game.getDecks().get(0).getCards());
+        final Set<Card> set = new HashSet<>(game.getShoe().getCards());
         // When
         this.gameServiceImpl.shuffle(game.getGameId());
         // Then
-        assertNotEquals(set, game.getDecks().get(0).getCards());
+        assertNotEquals(set, game.getShoe().getCards());
+    }
+
+    @Test
+    void givenGameWhenChangedThenVersionTagChanges()
+        throws GameAlreadyExistsException,
+        GameNotFoundException,
+        PlayerAlreadyExistsException,
+        PlayerNotFoundException,
+        GameDoesNotHavePlayersException {
+
+        // Given
+        final Game game = createGame();
+        this.gameServiceImpl.createGame(game);
+        final String created = this.gameServiceImpl.getVersionTag(game.getGameId());
+
+        // When
+        this.gameServiceImpl.addDeckToGameDeck(game.getGameId(), new Deck());
+        final String deckAdded = this.gameServiceImpl.getVersionTag(game.getGameId());
+        this.gameServiceImpl.addPlayer(game.getGameId(), new Player(1));
+        final String joined = this.gameServiceImpl.getVersionTag(game.getGameId());
+        this.gameServiceImpl.getSortedPlayers(game.getGameId());
+        this.gameServiceImpl.getUndealtCards(game.getGameId());
+        final String read = this.gameServiceImpl.getVersionTag(game.getGameId());
+        this.gameServiceImpl.dealCards(game.getGameId(), null, 1);
+        final String dealt = this.gameServiceImpl.getVersionTag(game.getGameId());
+        this.gameServiceImpl.deleteGame(game.getGameId());
+        this.gameServiceImpl.createGame(createGame());
+        final String recreated = this.gameServiceImpl.getVersionTag(game.getGameId());
+
+        // Then
+        assertEquals(joined, read);
+        assertEquals(5, new HashSet<>(List.of(created, deckAdded, joined, dealt, recreated)).size());
+    }
+
+    @Test
+    void givenGamesWhenCreateAndDeleteInBulkThenEachGameHasItsResult()
+        throws GameAlreadyExistsException,
+        GameNotFoundException {
+
+        // Given
+        this.gameServiceImpl.createGame(createGame());
+        final List<Game> games = new ArrayList<>();
+        for (int gameId = 0; gameId < 100; gameId++) {
+            final Game game = new Game();
+            game.setGameId(gameId);
+            game.addDeck(new Deck());
+            game.addPlayer(new Player(gameId));
+            games.add(game);
+        }
+
+        // When
+        final List<BulkResult> created = this.gameServiceImpl.createGames(games);
+        final List<BulkResult> deleted = this.gameServiceImpl.deleteGames(List.of(5, 500, 1));
+
+        // Then
+        assertEquals(100, created.size());
+        assertEquals(BulkResult.Status.ALREADY_EXISTS, created.get(1).getStatus());
+        assertEquals(99, created.stream().filter(result -> result.getStatus() == BulkResult.Status.CREATED).count());
+        assertEquals(52, this.gameServiceImpl.getUndealtCardCounts(7).count(Suit.HEARTS) * 4);
+        assertEquals(7, this.gameServiceImpl.findGameById(7).getPlayer(7).getPlayerId());
+        assertEquals(List.of(BulkResult.Status.DELETED, BulkResult.Status.NOT_FOUND, BulkResult.Status.DELETED),
+            deleted.stream().map(BulkResult::getStatus).collect(Collectors.toList()));
+        assertThrows(GameNotFoundException.class, () -> this.gameServiceImpl.findGameById(5));
     }
 
     private Game createGame() {
@@ -210,7 +427,7 @@ public class GameServiceImpUnitTest {
         final Game game = new Game();
 
         game.setGameId(1);
-        game.setDecks(new ArrayList<>());
+        game.setShoe(new Shoe());
         game.setPlayers(new ArrayList<>());
         return game;
     }
@@ -0,0 +1,185 @@
+package com.github.amirsassi.cards.game.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.amirsassi.cards.game.api.domain.Card;
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.FaceValue;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.domain.Suit;
+
+/**
+ * Hammers the same games from many threads and checks that no card is lost nor duplicated
+ */
+public class GameServiceImplStressTest {
+
+    private static final int THREADS = 16;
+
+    private static final int OPERATIONS_PER_THREAD = 5_000;
+
+    private static final int GAMES = 4;
+
+    private static final int DECKS_PER_GAME = 6;
+
+    private final GameServiceImpl gameServiceImpl = new GameServiceImpl();
+
+    private final AtomicInteger playerIds = new AtomicInteger(1);
+
+    @Test
+    void givenManyThreadsWhenDealAddPlayerAndShuffleThenCardsAreConserved()
+        throws Exception {
+
+        // Given
+        final List<List<Integer>> seatedPlayers = new ArrayList<>();
+        for (int gameId = 0; gameId < GAMES; gameId++) {
+            final Game game = new Game();
+            game.setGameId(gameId);
+            this.gameServiceImpl.createGame(game);
+            for (int deck = 0; deck < DECKS_PER_GAME; deck++) {
+                this.gameServiceImpl.addDeckToGameDeck(gameId, new Deck());
+            }
+            final List<Integer> players = new CopyOnWriteArrayList<>();
+            addPlayer(gameId, players);
+            seatedPlayers.add(players);
+        }
+
+        // When
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    final int gameId = random.nextInt(GAMES);
+                    final List<Integer> players = seatedPlayers.get(gameId);
+                    final int operation = random.nextInt(10);
+                    if (operation == 0) {
+                        addPlayer(gameId, players);
+                    } else if (operation == 1) {
+                        this.gameServiceImpl.shuffle(gameId);
+                    } else {
+                        this.gameServiceImpl.dealCardsToAPlayer(gameId, players.get(random.nextInt(players.size())));
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        // Then
+        for (int gameId = 0; gameId < GAMES; gameId++) {
+            final Map<Card, Integer> counts = new HashMap<>();
+            for (final Player player : this.gameServiceImpl.findGameById(gameId).getPlayers()) {
+                for (final Card card : this.gameServiceImpl.getPlayerCards(gameId, player.getPlayerId())) {
+                    counts.merge(card, 1, Integer::sum);
+                }
+            }
+            for (final Map<FaceValue, List<Card>> byFaceValue : this.gameServiceImpl
+                .getSortedRemainingUndealtCards(gameId).values()) {
+                for (final List<Card> cards : byFaceValue.values()) {
+                    for (final Card card : cards) {
+                        counts.merge(card, 1, Integer::sum);
+                    }
+                }
+            }
+            assertEquals(Suit.values().length * FaceValue.values().length, counts.size());
+            for (final Integer count : counts.values()) {
+                assertEquals(DECKS_PER_GAME, count);
+            }
+        }
+    }
+
+    @Test
+    void givenOneTableWhenDealingToItsPlayersConcurrentlyThenNoCardIsDuplicatedNorLost()
+        throws Exception {
+
+        // Given
+        final int decks = 8;
+        final int players = 32;
+        final Game game = new Game();
+        game.setGameId(GAMES);
+        this.gameServiceImpl.createGame(game);
+        for (int deck = 0; deck < decks; deck++) {
+            this.gameServiceImpl.addDeckToGameDeck(GAMES, new Deck());
+        }
+        this.gameServiceImpl.shuffle(GAMES);
+        for (int playerId = 1; playerId <= players; playerId++) {
+            this.gameServiceImpl.addPlayer(GAMES, new Player(playerId));
+        }
+
+        // When, more deals than cards so the shoe runs out under contention
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < decks * Card.CARDS_PER_DECK * 2 / THREADS; i++) {
+                    this.gameServiceImpl.dealCardsToAPlayer(GAMES, 1 + random.nextInt(players));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        // Then
+        final Map<Card, Integer> counts = new HashMap<>();
+        int dealt = 0;
+        for (int playerId = 1; playerId <= players; playerId++) {
+            final List<Card> cards = this.gameServiceImpl.getPlayerCards(GAMES, playerId);
+            dealt += cards.size();
+            for (final Card card : cards) {
+                counts.merge(card, 1, Integer::sum);
+            }
+        }
+        assertEquals(decks * Card.CARDS_PER_DECK, dealt);
+        assertEquals(dealt, this.gameServiceImpl.countDealtCards());
+        assertEquals(Card.CARDS_PER_DECK, counts.size());
+        for (final Integer count : counts.values()) {
+            assertEquals(decks, count);
+        }
+        // the concurrent decrements of the undealt counters are not lost either
+        assertTrue(this.gameServiceImpl.getUndealtCards(GAMES).isEmpty());
+    }
+
+    private void addPlayer(
+        final int gameId,
+        final List<Integer> players)
+        throws Exception {
+
+        final Player player = new Player(this.playerIds.getAndIncrement());
+        this.gameServiceImpl.addPlayer(gameId, player);
+        players.add(player.getPlayerId());
+    }
+
+}
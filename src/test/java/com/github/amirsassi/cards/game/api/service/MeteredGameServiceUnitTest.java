@@ -0,0 +1,58 @@
+package com.github.amirsassi.cards.game.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Game;
+import com.github.amirsassi.cards.game.api.domain.Player;
+import com.github.amirsassi.cards.game.api.exception.GameNotFoundException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MeteredGameServiceUnitTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private final MeteredGameService gameService = new MeteredGameService(new GameServiceImpl(), this.registry);
+
+    @Test
+    void givenGameWhenDealThenOperationsAndCardsAreCounted()
+        throws Exception {
+
+        // Given
+        final Game game = new Game();
+        game.setGameId(1);
+        this.gameService.createGame(game);
+        this.gameService.addDeckToGameDeck(1, new Deck());
+        this.gameService.addDeckToGameDeck(1, new Deck());
+        this.gameService.addPlayer(1, new Player(7));
+
+        // When
+        this.gameService.dealCardsToAPlayer(1, 7);
+        this.gameService.dealCardsToAPlayer(1, 7);
+
+        // Then
+        assertEquals(2, this.registry.get("game.operations").tag("operation", "deal").timer().count());
+        assertEquals(2, this.registry.get("game.cards.dealt").functionCounter().count());
+        assertEquals(1, this.registry.get("game.games.live").gauge().value());
+        assertEquals(1, this.registry.get("game.players.live").gauge().value());
+        assertEquals(2, this.registry.get("game.decks.live").gauge().value());
+    }
+
+    @Test
+    void givenUnknownGameWhenShuffleThenErrorIsCountedByExceptionType() {
+
+        // When
+        assertThrows(GameNotFoundException.class, () -> this.gameService.shuffle(404));
+
+        // Then
+        assertEquals(1, this.registry.get("game.errors").tag("operation", "shuffle")
+            .tag("exception", "GameNotFoundException").counter().count());
+        assertEquals(1, this.registry.get("game.operations").tag("operation", "shuffle").timer().count());
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.github.amirsassi.cards.game.api.shuffle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.amirsassi.cards.game.api.domain.Card;
+import com.github.amirsassi.cards.game.api.domain.CardCounts;
+import com.github.amirsassi.cards.game.api.domain.Deck;
+import com.github.amirsassi.cards.game.api.domain.Shoe;
+
+public class ShuffleEngineUnitTest {
+
+    private static final int DECKS = 8;
+
+    @Test
+    void givenSameSeedWhenShuffleShoeThenPermutationIsReproducibleAndDecksAreMixed() {
+
+        // Given
+        final Shoe shoe = createShoe(DECKS);
+        final Shoe other = createShoe(DECKS);
+
+        // When
+        new SeededShuffleEngine(42L).shuffle(shoe, 7L);
+        new SeededShuffleEngine(42L).shuffle(other, 7L);
+
+        // Then
+        assertEquals(shoe.getCards(), other.getCards());
+        assertNotEquals(createShoe(DECKS).getCards(), shoe.getCards());
+        final CardCounts counts = new CardCounts();
+        counts.addAll(shoe);
+        for (int ordinal = 0; ordinal < Card.CARDS_PER_DECK; ordinal++) {
+            assertEquals(DECKS, counts.count(Card.valueOf(ordinal)));
+        }
+        // the first 52 cards of a mixed shoe hold the same card twice, the cards of one deck never do
+        assertTrue(new HashSet<>(shoe.getCards().subList(0, Card.CARDS_PER_DECK)).size() < Card.CARDS_PER_DECK);
+    }
+
+    @Test
+    void givenThreadLocalEngineWhenShuffleThenCardsArePermuted() {
+
+        // Given
+        final Shoe shoe = createShoe(1);
+
+        // When
+        new ThreadLocalShuffleEngine().shuffle(shoe, 0L);
+
+        // Then
+        assertEquals(Card.CARDS_PER_DECK, new HashSet<>(shoe.getCards()).size());
+        assertNotEquals(new Deck().getCards(), shoe.getCards());
+    }
+
+    private static Shoe createShoe(
+        final int decks) {
+
+        final Shoe shoe = new Shoe();
+        for (int i = 0; i < decks; i++) {
+            shoe.addDeck(new Deck());
+        }
+        return shoe;
+    }
+
+}